@@ -0,0 +1,50 @@
+package objects;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import interfaces.SlabKernel;
+
+/**
+ * the slab kernel on the lanes of the vector API (jdk.incubator.vector),
+ * as many boxes at once as the lanes of the machine, and the rest of the
+ * boxes by the scalar kernel. it is compiled and run with
+ * "--add-modules jdk.incubator.vector" (make vector, make bench-vector),
+ * PackedBlocks.loadKernel uses the scalar kernel if it can't be loaded.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-07-01
+ */
+public class VectorSlabKernel implements SlabKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void enterTimes(double[] left, double[] top, double[] right, double[] bottom, int count,
+                           double x, double y, double dx, double dy, double r, double[] times) {
+        double invX = 1 / dx;
+        double invY = 1 / dy;
+        DoubleVector missed = DoubleVector.broadcast(SPECIES, Double.POSITIVE_INFINITY);
+
+        int i = 0;
+        for (int bound = SPECIES.loopBound(count); i < bound; i += SPECIES.length()) {
+            DoubleVector x1 = DoubleVector.fromArray(SPECIES, left, i).sub(r + x).mul(invX);
+            DoubleVector x2 = DoubleVector.fromArray(SPECIES, right, i).add(r - x).mul(invX);
+            DoubleVector y1 = DoubleVector.fromArray(SPECIES, top, i).sub(r + y).mul(invY);
+            DoubleVector y2 = DoubleVector.fromArray(SPECIES, bottom, i).add(r - y).mul(invY);
+
+            DoubleVector enter = x1.min(x2).max(y1.min(y2)).max(0);
+            DoubleVector exit = x1.max(x2).min(y1.max(y2)).min(1);
+            VectorMask<Double> hit = enter.compare(VectorOperators.LE, exit);
+            missed.blend(enter, hit).intoArray(times, i);
+        }
+
+        // the boxes that don't fill the lanes
+        for (; i < count; i++) {
+            times[i] = ScalarSlabKernel.enterTime(left[i], top[i], right[i], bottom[i], x, y, invX, invY, r);
+        }
+    }
+}
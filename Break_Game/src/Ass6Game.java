@@ -1,25 +1,30 @@
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.LineNumberReader;
-import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import biuoop.GUI;
 import biuoop.KeyboardSensor;
 
 import game.GameFlow;
 
+import indicators.FrameStatsIndicator;
+
 import interfaces.LevelInformation;
 import interfaces.Menu;
 import interfaces.Task;
 
 import objects.AnimationRunner;
-import objects.HighScoresTable;
+import objects.LevelSet;
 import objects.Operation;
+import objects.ScoreBoards;
 
-import readers.LevelSpecificationReader;
+import readers.LevelPack;
+import readers.LevelSetLoader;
+import readers.LevelSetsReader;
 
 import screens.HighScoresAnimation;
 import screens.KeyPressStoppableAnimation;
@@ -34,16 +39,34 @@ import screens.MenuAnimation;
  */
 public class Ass6Game {
 
+    private static final String FRAMES_ARG = "-frames";
+    private static final String FRAMES_DIRECTORY = "frames";
+
     /**
      * the main method.
      *
-     * @param args the relative path to the level sets.
+     * @param args the relative path to the level sets, or the path of
+     *             a level pack file (that ends with ".pack").
      *             if arg.length == 0 it uses the default.
+     *             a second path is a replay file that each game is recorded to.
+     *             "-frames" (anywhere) shows the frame times on the screen,
+     *             and writes them of each level to the frames directory.
      */
     public static void main(String[] args) {
 
-        if (args.length >= 2) {
-            System.out.println("args should contain 1 path or not contain pathes at all");
+        boolean frames = false;
+        List<String> paths = new ArrayList<String>();
+        for (String arg : args) {
+            if (arg.equals(FRAMES_ARG)) {
+                frames = true;
+            } else {
+                paths.add(arg);
+            }
+        }
+        args = paths.toArray(new String[paths.size()]);
+
+        if (args.length >= 3) {
+            System.out.println("args should contain up to 2 pathes: the level sets and a replay file");
             System.exit(1);
         }
 
@@ -56,8 +79,15 @@ public class Ass6Game {
         }
 
         GUI gui = new GUI("Arkanoid", 800, 600);
-        AnimationRunner animationRunner = new AnimationRunner(gui, 60);
+        AnimationRunner animationRunner = new AnimationRunner(gui, 60, 60);
         GameFlow game = new GameFlow(animationRunner, gui.getKeyboardSensor());
+        if (args.length == 2) {
+            game.setReplayFile(new File(args[1]));
+        }
+        if (frames) {
+            animationRunner.setOverlay(new FrameStatsIndicator(animationRunner.getFrameStats()));
+            game.setFrameStatsDirectory(new File(FRAMES_DIRECTORY));
+        }
 
         Menu<Task<Void>> menu = getMenu(animationRunner, gui.getKeyboardSensor(), path, game);
         game.runGame(menu);
@@ -78,18 +108,10 @@ public class Ass6Game {
         MenuAnimation<Task<Void>> menu = new MenuAnimation<Task<Void>>("Arkanoid", k);
         menu.setAnimationRunner(animationRunner);
 
-        menu.addSubMenu("s", "start a new game", getSubMenu("Select Level", k, path, game));
+        List<LevelSetLoader> loaders = path.endsWith(".pack") ? getPackLoaders(path) : getLoaders(path);
 
-        menu.addSelection("h", "see the high scores", new Task<Void>() {
-
-            @Override
-            public Void run() {
-                animationRunner.run(new KeyPressStoppableAnimation(k, KeyboardSensor.SPACE_KEY,
-                        new HighScoresAnimation(HighScoresTable.loadFromFile(new File("highscores")), "space")));
-                return null;
-            }
-
-        });
+        menu.addSubMenu("s", "start a new game", getSubMenu("Select Level", k, loaders, game));
+        menu.addSubMenu("h", "see the high scores", getScoresMenu("High Scores", k, loaders, animationRunner, game));
 
         menu.addSelection("q", "quit", new Task<Void>() {
 
@@ -106,112 +128,169 @@ public class Ass6Game {
 
     /**
      * get the sub menu of the menu of the game.
+     * the sub menu has only the names of the level sets, the levels
+     * of a set are read when it is selected. when the sub menu is shown,
+     * the first set starts to load in the background.
      *
      * @param titel the title of the sub menu
      * @param k the user's keyboard
-     * @param path the relative path in the resources directory
+     * @param loaders the loaders of the level sets
      * @param game the game.
      * @return the sub menu of the menu of the game
      */
-    private static Menu<Task<Void>> getSubMenu(String titel, KeyboardSensor k, String path, GameFlow game) {
+    private static Menu<Task<Void>> getSubMenu(String titel, KeyboardSensor k, List<LevelSetLoader> loaders,
+                                               GameFlow game) {
 
-        Menu<Task<Void>> menu = new MenuAnimation<Task<Void>>(titel, k);
+        MenuAnimation<Task<Void>> menu = new MenuAnimation<Task<Void>>(titel, k);
 
-        InputStreamReader is = null;
-        try {
-            is = new InputStreamReader(ClassLoader.getSystemClassLoader().getResourceAsStream(path));
-        } catch (Exception e) {
-            System.out.println("Enable to read the file");
-            System.exit(1);
+        for (Operation<Task<Void>> operation : getTasksFromLevelSet(loaders, game)) {
+            menu.addSelection(operation.getKey(), operation.getName(), operation.getTask());
         }
-        LineNumberReader reader = new LineNumberReader(is);
-
-        List<Operation<Task<Void>>> tasks = getTasksFromLevelSet(reader, game);
 
-        for (Operation<Task<Void>> operation : tasks) {
-            menu.addSelection(operation.getKey(), operation.getName(), operation.getTask());
+        if (!loaders.isEmpty()) {
+            menu.setOnShow(new Task<Void>() {
+                @Override
+                public Void run() {
+                    loaders.get(0).prefetch();
+                    return null;
+                }
+            });
         }
 
         return menu;
     }
 
     /**
-     * get the tasks of the sub menu.
+     * get the sub menu of the high scores: a selection for each level set
+     * (by its number, the keys of the sets are taken by the main menu),
+     * that shows the board of the set and then the boards of its levels.
      *
-     * @param reader the reader of the setting file
+     * @param titel the title of the sub menu
+     * @param k the user's keyboard
+     * @param loaders the loaders of the level sets
+     * @param animationRunner the animation runner
      * @param game the game
-     * @return the tasks of the sub menu.
+     * @return the sub menu of the high scores
      */
-    private static List<Operation<Task<Void>>> getTasksFromLevelSet(LineNumberReader reader, GameFlow game) {
-        String key = null;
-        String name = null;
-        List<Operation<Task<Void>>> list = new ArrayList<Operation<Task<Void>>>();
-        LevelSpecificationReader levelSepc = new LevelSpecificationReader();
+    private static Menu<Task<Void>> getScoresMenu(String titel, KeyboardSensor k, List<LevelSetLoader> loaders,
+                                                  AnimationRunner animationRunner, GameFlow game) {
 
-        String line = null;
-        reader.setLineNumber(-1);
+        MenuAnimation<Task<Void>> menu = new MenuAnimation<Task<Void>>(titel, k);
+        ScoreBoards boards = game.getScoreBoards();
 
-        try {
-            line = reader.readLine();
+        List<String> setNames = new ArrayList<String>();
+        for (LevelSetLoader loader : loaders) {
+            setNames.add(loader.getSet().getName());
+        }
+        if (boards.contains(ScoreBoards.setKey(GameFlow.getOldSetName()))) {
+            setNames.add(GameFlow.getOldSetName());
+        }
+
+        for (int i = 0; i < setNames.size() && i < 9; i++) {
+            String setName = setNames.get(i);
+            menu.addSelection(Integer.toString(i + 1), setName, new Task<Void>() {
+
+                @Override
+                public Void run() {
+                    List<String> keys = new ArrayList<String>();
+                    keys.add(ScoreBoards.setKey(setName));
+                    keys.addAll(boards.levelKeys(setName));
+
+                    for (String key : keys) {
+                        animationRunner.run(new KeyPressStoppableAnimation(k, KeyboardSensor.SPACE_KEY,
+                                new HighScoresAnimation(boards.get(key), "space", k, key)));
+                    }
+                    return null;
+                }
 
-        } catch (IOException e) {
+            });
+        }
+
+        return menu;
+    }
+
+    /**
+     * get the loaders of the level sets in the level sets file.
+     *
+     * @param path the relative path in the resources directory
+     * @return the loaders, in the order of the file
+     */
+    private static List<LevelSetLoader> getLoaders(String path) {
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(path);
+        if (is == null) {
             System.out.println("Enable to read the file");
             System.exit(1);
         }
 
-        while (line != null) {
-            if (reader.getLineNumber() % 2 == 0) {
-
-                String[] arr = line.split(":");
+        List<LevelSetLoader> loaders = new ArrayList<LevelSetLoader>();
+        try {
+            for (LevelSet set : LevelSetsReader.fromReader(new InputStreamReader(is))) {
+                loaders.add(new LevelSetLoader(set));
+            }
+        } catch (RuntimeException e) {
+            System.out.println(e.getMessage());
+            System.exit(1);
+        }
+        return loaders;
+    }
 
-                if (arr[0].length() > 1 || arr[0].length() == 0) {
-                    System.out.println("illegal key");
-                    System.exit(1);
-                }
-                key = arr[0];
-                name = arr[1];
-            } else {
+    /**
+     * get the loaders of the level sets in a level pack file.
+     * the levels are read from the pack, without parsing the level files.
+     *
+     * @param path the path of the pack file
+     * @return the loaders, in the order of the pack
+     */
+    private static List<LevelSetLoader> getPackLoaders(String path) {
+        LevelPack pack;
+        try {
+            pack = LevelPack.open(new File(path));
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Enable to read the pack: " + e.getMessage());
+            System.exit(1);
+            return null;
+        }
 
-                Reader r = null;
-                try {
-                    r = new InputStreamReader(ClassLoader.getSystemClassLoader().getResourceAsStream(line));
-                } catch (Exception e) {
-                    System.out.println("there is a problem with the path");
-                    System.exit(1);
+        List<LevelSetLoader> loaders = new ArrayList<LevelSetLoader>();
+        for (int i = 0; i < pack.getSets().size(); i++) {
+            int setIndex = i;
+            loaders.add(new LevelSetLoader(pack.getSets().get(i), new Callable<List<LevelInformation>>() {
+                @Override
+                public List<LevelInformation> call() {
+                    return pack.readLevels(setIndex);
                 }
+            }));
+        }
+        return loaders;
+    }
 
-                List<LevelInformation> getLevels = null;
-                try {
-                    getLevels = levelSepc.fromReader(r);
+    /**
+     * get the tasks of the sub menu.
+     *
+     * @param loaders the loaders of the level sets
+     * @param game the game
+     * @return the tasks of the sub menu.
+     */
+    private static List<Operation<Task<Void>>> getTasksFromLevelSet(List<LevelSetLoader> loaders, GameFlow game) {
+        List<Operation<Task<Void>>> list = new ArrayList<Operation<Task<Void>>>();
 
-                    if (getLevels == null) {
+        for (LevelSetLoader loader : loaders) {
+            Task<Void> task = new Task<Void>() {
+                @Override
+                public Void run() {
+                    List<LevelInformation> levels = null;
+                    try {
+                        levels = loader.getLevels();
+                    } catch (RuntimeException e) {
                         System.out.println("Problem with read the file");
                         System.exit(1);
                     }
-                } catch (Exception e) {
-                    System.out.println("Problem with read the file");
-                    System.exit(1);
+                    game.runLevels(loader.getSet(), levels);
+                    return null;
                 }
+            };
 
-                final List<LevelInformation> levels = getLevels;
-                Task<Void> task = new Task<Void>() {
-                    @Override
-                    public Void run() {
-                        game.runLevels(levels);
-                        return null;
-                    }
-                };
-
-                list.add(new Operation<Task<Void>>(name, key, task));
-            }
-
-            try {
-                line = reader.readLine();
-
-            } catch (IOException e) {
-                System.out.println("Enable to read the file");
-                System.exit(1);
-            }
+            list.add(new Operation<Task<Void>>(loader.getSet().getName(), loader.getSet().getKey(), task));
         }
         return list;
     }
@@ -0,0 +1,73 @@
+package benchmarks;
+
+import java.awt.Color;
+import java.util.List;
+import java.util.Random;
+
+import objects.Ball;
+import objects.Block;
+import objects.GameEnvironment;
+import objects.Point;
+import objects.Velocity;
+
+/**
+ * Ball.moveOneStep for all the balls, with a growing number of balls.
+ * one operation is one step of all the balls.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-19
+ */
+public class BallStepBenchmark extends Benchmark {
+
+    private int blocks;  // the number of blocks
+    private Ball[] balls;
+
+    /**
+     * create the benchmark.
+     *
+     * @param blocks the number of blocks in the environment
+     */
+    public BallStepBenchmark(int blocks) {
+        super("ball.moveOneStep/blocks=" + blocks);
+        this.blocks = blocks;
+    }
+
+    @Override
+    public int[] params() {
+        return new int[] {1, 10, 100, 1000};
+    }
+
+    @Override
+    public void setUp(int param) {
+        List<Block> all = Layouts.borders();
+        all.addAll(Layouts.blocks(this.blocks));
+
+        GameEnvironment env = new GameEnvironment(Layouts.WIDTH, Layouts.HEIGHT);
+        for (Block b : all) {
+            env.addCollidable(b);
+        }
+
+        // the balls start in the empty part of the screen, under the blocks
+        Random rand = new Random(param);
+        this.balls = new Ball[param];
+        for (int i = 0; i < param; i++) {
+            double x = Layouts.BORDER + 10 + rand.nextDouble() * (Layouts.WIDTH - 2 * Layouts.BORDER - 20);
+            double y = Layouts.HEIGHT * 0.75 + rand.nextDouble() * (Layouts.HEIGHT * 0.2 - Layouts.BORDER);
+            this.balls[i] = new Ball(new Point(x, y), 5, Color.WHITE);
+            this.balls[i].setScreenSize(new Point(0, 0), new Point(Layouts.WIDTH, Layouts.HEIGHT));
+            this.balls[i].setVelocity(Velocity.fromAngleAndSpeed(rand.nextDouble() * 360, 300));
+            this.balls[i].setGameEnvironment(env);
+        }
+    }
+
+    @Override
+    public double operation() {
+        double sum = 0;
+        for (int i = 0; i < this.balls.length; i++) {
+            this.balls[i].moveOneStep(1.0 / 60);
+            sum += this.balls[i].getX();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,99 @@
+package benchmarks;
+
+import java.awt.Color;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import objects.Ball;
+import objects.BallSystem;
+import objects.Block;
+import objects.GameEnvironment;
+import objects.Point;
+import objects.Velocity;
+
+/**
+ * BallSystem.timePassed, one step of all the balls of a ball system,
+ * with a growing number of balls (the same balls as BallStepBenchmark),
+ * without workers or with them.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-30
+ */
+public class BallSystemBenchmark extends Benchmark {
+
+    private int blocks;  // the number of blocks
+    private int workers;  // the number of workers, 0 for none
+    private ExecutorService pool;
+    private BallSystem system;
+
+    /**
+     * create the benchmark, without workers.
+     *
+     * @param blocks the number of blocks in the environment
+     */
+    public BallSystemBenchmark(int blocks) {
+        this(blocks, 0);
+    }
+
+    /**
+     * create the benchmark.
+     *
+     * @param blocks the number of blocks in the environment
+     * @param workers the number of workers that move the balls, 0 for none
+     */
+    public BallSystemBenchmark(int blocks, int workers) {
+        super("ballSystem.timePassed/blocks=" + blocks + (workers > 0 ? "/workers=" + workers : ""));
+        this.blocks = blocks;
+        this.workers = workers;
+    }
+
+    @Override
+    public int[] params() {
+        return new int[] {1, 10, 100, 1000, 10000};
+    }
+
+    @Override
+    public void setUp(int param) {
+        List<Block> all = Layouts.borders();
+        all.addAll(Layouts.blocks(this.blocks));
+
+        GameEnvironment env = new GameEnvironment(Layouts.WIDTH, Layouts.HEIGHT);
+        for (Block b : all) {
+            env.addCollidable(b);
+        }
+
+        // the balls start in the empty part of the screen, under the blocks
+        Random rand = new Random(param);
+        this.system = new BallSystem(env);
+        for (int i = 0; i < param; i++) {
+            double x = Layouts.BORDER + 10 + rand.nextDouble() * (Layouts.WIDTH - 2 * Layouts.BORDER - 20);
+            double y = Layouts.HEIGHT * 0.75 + rand.nextDouble() * (Layouts.HEIGHT * 0.2 - Layouts.BORDER);
+            Ball ball = new Ball(new Point(x, y), 5, Color.WHITE);
+            ball.setScreenSize(new Point(0, 0), new Point(Layouts.WIDTH, Layouts.HEIGHT));
+            ball.setVelocity(Velocity.fromAngleAndSpeed(rand.nextDouble() * 360, 300));
+            this.system.add(ball);
+        }
+
+        if (this.workers > 0 && this.pool == null) {
+            this.pool = Executors.newFixedThreadPool(this.workers, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "ball worker");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        this.system.setWorkers(this.pool, this.workers);
+    }
+
+    @Override
+    public double operation() {
+        this.system.timePassed(1.0 / 60);
+        return this.system.getBall(0).getCenterX();
+    }
+}
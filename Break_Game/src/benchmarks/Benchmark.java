@@ -0,0 +1,58 @@
+package benchmarks;
+
+/**
+ * a measured operation for the BenchmarkRunner.
+ * the runner calls setUp once for each parameter, and then
+ * calls operation again and again while it measures the time.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-19
+ */
+public abstract class Benchmark {
+
+    private String name;
+
+    /**
+     * create the benchmark.
+     *
+     * @param name the name of the benchmark
+     */
+    public Benchmark(String name) {
+        this.name = name;
+    }
+
+    /**
+     * get the name of the benchmark.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * get the parameters to run the benchmark with (like the number of blocks).
+     * by default the benchmark has one run with 0.
+     *
+     * @return the parameters
+     */
+    public int[] params() {
+        return new int[] {0};
+    }
+
+    /**
+     * prepare the data of a run, this is not measured.
+     *
+     * @param param the parameter of the run
+     */
+    public abstract void setUp(int param);
+
+    /**
+     * do one operation.
+     * the result has to depend on the work, so the JIT can't remove it.
+     *
+     * @return a value of the result
+     */
+    public abstract double operation();
+}
@@ -0,0 +1,148 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * run the benchmarks of the collision and geometry code and print
+ * the time of one operation of each benchmark and parameter.
+ *
+ * each run has warm up iterations (so the JIT compiles the code) and then
+ * measured iterations. an iteration calls the operation in batches
+ * until its time is over, so the clock is not read on each call.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-19
+ */
+public class BenchmarkRunner {
+
+    private static final int BATCH = 64;  // the number of operations between reading the clock
+
+    private int warmUps;
+    private int iterations;
+    private long iterationNanos;
+    private double sink;  // the results of the operations
+
+    /**
+     * create the runner.
+     *
+     * @param warmUps the number of warm up iterations
+     * @param iterations the number of measured iterations
+     * @param iterationMillis the time of each iteration
+     */
+    public BenchmarkRunner(int warmUps, int iterations, long iterationMillis) {
+        this.warmUps = warmUps;
+        this.iterations = iterations;
+        this.iterationNanos = iterationMillis * 1000000L;
+        this.sink = 0;
+    }
+
+    /**
+     * all the benchmarks.
+     *
+     * @return the benchmarks
+     */
+    public static List<Benchmark> allBenchmarks() {
+        List<Benchmark> list = new ArrayList<Benchmark>();
+        list.addAll(LineIntersectionBenchmark.allBranches());
+        list.add(new RectangleIntersectionBenchmark(false));
+        list.add(new RectangleIntersectionBenchmark(true));
+        list.add(new ClosestCollisionBenchmark(false));
+        list.add(new ClosestCollisionBenchmark(true));
+        list.addAll(SlabKernelBenchmark.allKernels());
+        list.addAll(CollisionIndexBenchmark.allIndexes());
+        list.add(new BallStepBenchmark(100));
+        list.add(new BallStepBenchmark(1000));
+        list.add(new BallSystemBenchmark(100));
+        list.add(new BallSystemBenchmark(100, Runtime.getRuntime().availableProcessors()));
+        return list;
+    }
+
+    /**
+     * run the benchmark with all its parameters and print the results.
+     *
+     * @param benchmark the benchmark
+     */
+    public void run(Benchmark benchmark) {
+        for (int param : benchmark.params()) {
+            benchmark.setUp(param);
+
+            for (int i = 0; i < this.warmUps; i++) {
+                this.iteration(benchmark);
+            }
+
+            double[] results = new double[this.iterations];
+            double sum = 0;
+            for (int i = 0; i < this.iterations; i++) {
+                results[i] = this.iteration(benchmark);
+                sum += results[i];
+            }
+
+            double mean = sum / this.iterations;
+            double variance = 0;
+            for (double result : results) {
+                variance += (result - mean) * (result - mean);
+            }
+            double deviation = Math.sqrt(variance / Math.max(1, this.iterations - 1));
+
+            System.out.println(String.format("%-40s %8d %14.2f ns/op  +- %.2f",
+                                             benchmark.getName(), param, mean, deviation));
+        }
+    }
+
+    /**
+     * run the operation until the time of the iteration is over.
+     *
+     * @param benchmark the benchmark
+     * @return the average time of an operation in nanoseconds
+     */
+    private double iteration(Benchmark benchmark) {
+        long operations = 0;
+        long start = System.nanoTime();
+        long now = start;
+
+        while (now - start < this.iterationNanos) {
+            for (int i = 0; i < BATCH; i++) {
+                this.sink += benchmark.operation();
+            }
+            operations += BATCH;
+            now = System.nanoTime();
+        }
+        return (double) (now - start) / operations;
+    }
+
+    /**
+     * run the benchmarks.
+     *
+     * @param args the part of the names of the benchmarks to run, the number of measured iterations
+     *             and the time of an iteration in milliseconds -- all optional
+     */
+    public static void main(String[] args) {
+        String filter = "";
+        int iterations = 5;
+        long millis = 1000;
+
+        if (args.length >= 1) {
+            filter = args[0];
+        }
+        if (args.length >= 2) {
+            iterations = Integer.parseInt(args[1]);
+        }
+        if (args.length >= 3) {
+            millis = Long.parseLong(args[2]);
+        }
+
+        BenchmarkRunner runner = new BenchmarkRunner(3, iterations, millis);
+        for (Benchmark benchmark : allBenchmarks()) {
+            if (benchmark.getName().contains(filter)) {
+                runner.run(benchmark);
+            }
+        }
+
+        // use the results, so the operations are not removed
+        if (Double.isNaN(runner.sink)) {
+            System.out.println("a benchmark returned NaN");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package benchmarks;
+
+import java.util.List;
+
+import objects.Block;
+import objects.CollisionInfo;
+import objects.GameEnvironment;
+import objects.Rectangle;
+
+/**
+ * GameEnvironment.getClosestCollision with a growing number of blocks,
+ * and the same query as a scan over all the blocks to compare with.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-19
+ */
+public class ClosestCollisionBenchmark extends Benchmark {
+
+    private static final int SEGMENTS = 1024;
+
+    private boolean linear;  // scan all the rectangles instead of asking the environment
+    private GameEnvironment env;
+    private Rectangle[] rectangles;
+    private double[] segments;
+    private double[] out;
+    private int next;
+
+    /**
+     * create the benchmark.
+     *
+     * @param linear true to scan all the rectangles, false to use the environment
+     */
+    public ClosestCollisionBenchmark(boolean linear) {
+        super(linear ? "closestCollision/linear-scan" : "closestCollision/environment");
+        this.linear = linear;
+    }
+
+    @Override
+    public int[] params() {
+        return new int[] {10, 100, 1000, 10000};
+    }
+
+    @Override
+    public void setUp(int param) {
+        List<Block> blocks = Layouts.borders();
+        blocks.addAll(Layouts.blocks(param));
+
+        this.env = new GameEnvironment(Layouts.WIDTH, Layouts.HEIGHT);
+        this.rectangles = new Rectangle[blocks.size()];
+        for (int i = 0; i < blocks.size(); i++) {
+            this.env.addCollidable(blocks.get(i));
+            this.rectangles[i] = blocks.get(i).getCollisionRectangle();
+        }
+        this.segments = Layouts.segments(SEGMENTS, param);
+        this.out = new double[3];
+        this.next = 0;
+    }
+
+    @Override
+    public double operation() {
+        int i = 4 * this.next;
+        this.next = (this.next + 1) & (SEGMENTS - 1);
+        double x1 = this.segments[i];
+        double y1 = this.segments[i + 1];
+        double x2 = this.segments[i + 2];
+        double y2 = this.segments[i + 3];
+
+        if (this.linear) {
+            double min = Double.POSITIVE_INFINITY;
+            for (int j = 0; j < this.rectangles.length; j++) {
+                if (this.rectangles[j].closestIntersection(x1, y1, x2, y2, this.out) && this.out[2] < min) {
+                    min = this.out[2];
+                }
+            }
+            return min;
+        }
+
+        CollisionInfo info = this.env.getClosestCollision(x1, y1, x2, y2);
+        if (info == null) {
+            return 0;
+        }
+        return info.collisionPoint().getX();
+    }
+}
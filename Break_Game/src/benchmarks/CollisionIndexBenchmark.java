@@ -0,0 +1,101 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import objects.Block;
+import objects.CollisionInfo;
+import objects.GameEnvironment;
+
+/**
+ * GameEnvironment.getClosestCollision of a moving ball by each collision
+ * index (the grid, the linear scan and the bvh), from one block (a sparse
+ * level like Direct Hit) to very large levels. after every 64 queries a
+ * block is removed, until half of the blocks were removed, and the index is
+ * updated (like before a step of the balls), so the removals of the bvh
+ * (tombstones and refits) are measured too.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-07-02
+ */
+public class CollisionIndexBenchmark extends Benchmark {
+
+    private static final int SEGMENTS = 1024;
+    private static final int RADIUS = 5;
+    private static final int REMOVE_EVERY = 64;
+
+    private int index;
+    private GameEnvironment env;
+    private List<Block> blocks;
+    private double[] segments;
+    private int next;
+    private int queries;
+
+    /**
+     * create the benchmark.
+     *
+     * @param index GameEnvironment.GRID, LINEAR or BVH
+     */
+    public CollisionIndexBenchmark(int index) {
+        super("ballCollision/index=" + new String[] {"grid", "linear", "bvh"}[index]);
+        this.index = index;
+    }
+
+    /**
+     * the benchmarks of all the indexes.
+     *
+     * @return the benchmarks
+     */
+    public static List<Benchmark> allIndexes() {
+        List<Benchmark> list = new ArrayList<Benchmark>();
+        list.add(new CollisionIndexBenchmark(GameEnvironment.GRID));
+        list.add(new CollisionIndexBenchmark(GameEnvironment.LINEAR));
+        list.add(new CollisionIndexBenchmark(GameEnvironment.BVH));
+        return list;
+    }
+
+    @Override
+    public int[] params() {
+        return new int[] {1, 10, 100, 1000, 10000};
+    }
+
+    @Override
+    public void setUp(int param) {
+        this.blocks = Layouts.blocks(param);
+        this.env = new GameEnvironment(Layouts.WIDTH, Layouts.HEIGHT);
+        for (Block b : Layouts.borders()) {
+            this.env.addCollidable(b);
+        }
+        for (Block b : this.blocks) {
+            this.env.addCollidable(b);
+        }
+        this.env.setCollisionIndex(this.index);
+        this.segments = Layouts.segments(SEGMENTS, param);
+        this.next = 0;
+        this.queries = 0;
+    }
+
+    @Override
+    public double operation() {
+        int i = 4 * this.next;
+        this.next = (this.next + 1) & (SEGMENTS - 1);
+        double x = this.segments[i];
+        double y = this.segments[i + 1];
+
+        // remove a block now and then
+        this.queries++;
+        int removed = this.queries / REMOVE_EVERY;
+        if (this.queries % REMOVE_EVERY == 0 && 2 * removed <= this.blocks.size()) {
+            this.env.removeCollidable(this.blocks.get(2 * removed - 1));
+            this.env.updateIndex();
+        }
+
+        CollisionInfo info = this.env.getClosestCollision(x, y, this.segments[i + 2] - x, this.segments[i + 3] - y,
+                                                          RADIUS);
+        if (info == null) {
+            return 0;
+        }
+        return info.time();
+    }
+}
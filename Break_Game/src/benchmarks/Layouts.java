@@ -0,0 +1,93 @@
+package benchmarks;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import objects.Block;
+import objects.Point;
+
+/**
+ * the game objects the benchmarks run on.
+ * the blocks have no hit points, so they are never removed and every
+ * iteration of a benchmark sees the same layout.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-19
+ */
+public final class Layouts {
+
+    public static final int WIDTH = 800;
+    public static final int HEIGHT = 600;
+    public static final int BORDER = 20;
+
+    /**
+     * no instances.
+     */
+    private Layouts() {
+    }
+
+    /**
+     * the four borders of the screen, so the balls can't leave it.
+     *
+     * @return the borders
+     */
+    public static List<Block> borders() {
+        List<Block> borders = new ArrayList<Block>(4);
+        borders.add(new Block(new Point(0, 0), WIDTH, BORDER, 0, Color.GRAY));
+        borders.add(new Block(new Point(0, HEIGHT - BORDER), WIDTH, BORDER, 0, Color.GRAY));
+        borders.add(new Block(new Point(0, BORDER), BORDER, HEIGHT - 2 * BORDER, 0, Color.GRAY));
+        borders.add(new Block(new Point(WIDTH - BORDER, BORDER), BORDER, HEIGHT - 2 * BORDER, 0, Color.GRAY));
+        return borders;
+    }
+
+    /**
+     * blocks in rows in the upper two thirds of the screen, like the levels of the game.
+     * there is a gap of a quarter of a block between the blocks.
+     *
+     * @param count the number of blocks
+     * @return the blocks
+     */
+    public static List<Block> blocks(int count) {
+        List<Block> blocks = new ArrayList<Block>(count);
+        double areaWidth = WIDTH - 2 * BORDER;
+        double areaHeight = (HEIGHT - 2 * BORDER) * 2.0 / 3;
+        int cols = (int) Math.ceil(Math.sqrt(count * areaWidth / areaHeight));
+        int rows = (int) Math.ceil((double) count / cols);
+        double cellWidth = areaWidth / cols;
+        double cellHeight = areaHeight / rows;
+
+        for (int i = 0; i < count; i++) {
+            Point upperLeft = new Point(BORDER + (i % cols) * cellWidth, BORDER + (i / cols) * cellHeight);
+            blocks.add(new Block(upperLeft, cellWidth * 0.75, cellHeight * 0.75, 0, Color.BLUE));
+        }
+        return blocks;
+    }
+
+    /**
+     * random segments in the screen, as long as the steps of a fast ball.
+     * each segment is 4 values: x1, y1, x2, y2.
+     *
+     * @param count the number of segments
+     * @param seed the seed of the random
+     * @return the segments
+     */
+    public static double[] segments(int count, long seed) {
+        Random rand = new Random(seed);
+        double[] segments = new double[count * 4];
+
+        for (int i = 0; i < count; i++) {
+            double x = BORDER + rand.nextDouble() * (WIDTH - 2 * BORDER);
+            double y = BORDER + rand.nextDouble() * (HEIGHT - 2 * BORDER);
+            double angle = rand.nextDouble() * 2 * Math.PI;
+            double length = 2 + rand.nextDouble() * 8;
+            segments[4 * i] = x;
+            segments[4 * i + 1] = y;
+            segments[4 * i + 2] = x + Math.cos(angle) * length;
+            segments[4 * i + 3] = y + Math.sin(angle) * length;
+        }
+        return segments;
+    }
+}
@@ -0,0 +1,63 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import objects.Line;
+import objects.Point;
+
+/**
+ * Line.intersectionWith for one of its branches.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-19
+ */
+public class LineIntersectionBenchmark extends Benchmark {
+
+    private Line first;
+    private Line second;
+
+    /**
+     * create the benchmark.
+     *
+     * @param branch the name of the branch
+     * @param first the line to call intersectionWith on
+     * @param second the other line
+     */
+    public LineIntersectionBenchmark(String branch, Line first, Line second) {
+        super("line.intersectionWith/" + branch);
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * a benchmark for each branch of intersectionWith.
+     *
+     * @return the benchmarks
+     */
+    public static List<Benchmark> allBranches() {
+        List<Benchmark> list = new ArrayList<Benchmark>();
+        list.add(new LineIntersectionBenchmark("general", new Line(0, 0, 10, 10), new Line(0, 10, 10, 0)));
+        list.add(new LineIntersectionBenchmark("general-miss", new Line(0, 0, 10, 10), new Line(20, 10, 30, 0)));
+        list.add(new LineIntersectionBenchmark("vertical", new Line(5, 0, 5, 10), new Line(0, 0, 10, 10)));
+        list.add(new LineIntersectionBenchmark("both-vertical", new Line(5, 0, 5, 10), new Line(5, 10, 5, 20)));
+        list.add(new LineIntersectionBenchmark("parallel", new Line(0, 0, 10, 10), new Line(0, 1, 10, 11)));
+        list.add(new LineIntersectionBenchmark("same-line", new Line(0, 0, 10, 10), new Line(10, 10, 20, 20)));
+        list.add(new LineIntersectionBenchmark("point", new Line(5, 5, 5, 5), new Line(0, 0, 10, 10)));
+        return list;
+    }
+
+    @Override
+    public void setUp(int param) {
+    }
+
+    @Override
+    public double operation() {
+        Point p = this.first.intersectionWith(this.second);
+        if (p == null) {
+            return 0;
+        }
+        return p.getX();
+    }
+}
@@ -0,0 +1,65 @@
+package benchmarks;
+
+import objects.Line;
+import objects.Point;
+import objects.Rectangle;
+
+/**
+ * the intersection of a line with a rectangle, with the list of
+ * Rectangle.intersectionPoints or with the primitive closestIntersection.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-19
+ */
+public class RectangleIntersectionBenchmark extends Benchmark {
+
+    private boolean primitive;  // use closestIntersection instead of intersectionPoints
+    private Rectangle rec;
+    private Line[] lines;
+    private double[] segments;
+    private double[] out;
+    private int next;
+
+    /**
+     * create the benchmark.
+     *
+     * @param primitive true for Rectangle.closestIntersection, false for Rectangle.intersectionPoints
+     */
+    public RectangleIntersectionBenchmark(boolean primitive) {
+        super(primitive ? "rectangle.closestIntersection" : "rectangle.intersectionPoints");
+        this.primitive = primitive;
+    }
+
+    @Override
+    public void setUp(int param) {
+        // a block in the middle of the screen and segments around it, about half of them hit it
+        this.rec = new Rectangle(new Point(390, 290), 20, 20);
+        this.segments = Layouts.segments(1024, 1);
+        this.lines = new Line[1024];
+        for (int i = 0; i < this.lines.length; i++) {
+            double x = 380 + (this.segments[4 * i] % 40);
+            double y = 280 + (this.segments[4 * i + 1] % 40);
+            this.segments[4 * i + 2] += x - this.segments[4 * i];
+            this.segments[4 * i + 3] += y - this.segments[4 * i + 1];
+            this.segments[4 * i] = x;
+            this.segments[4 * i + 1] = y;
+            this.lines[i] = new Line(x, y, this.segments[4 * i + 2], this.segments[4 * i + 3]);
+        }
+        this.out = new double[3];
+        this.next = 0;
+    }
+
+    @Override
+    public double operation() {
+        int i = this.next;
+        this.next = (this.next + 1) & (this.lines.length - 1);
+
+        if (this.primitive) {
+            boolean meet = this.rec.closestIntersection(this.segments[4 * i], this.segments[4 * i + 1],
+                                                        this.segments[4 * i + 2], this.segments[4 * i + 3], this.out);
+            return meet ? this.out[2] : 0;
+        }
+        return this.rec.intersectionPoints(this.lines[i]).size();
+    }
+}
@@ -0,0 +1,93 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import interfaces.SlabKernel;
+
+import objects.Block;
+import objects.CollisionInfo;
+import objects.GameEnvironment;
+import objects.PackedBlocks;
+import objects.ScalarSlabKernel;
+
+/**
+ * GameEnvironment.getClosestCollision of a moving ball, with a growing
+ * number of blocks: by the grid, by the scalar slab kernel, and by the
+ * kernel of PackedBlocks.loadKernel (the vector kernel when it was compiled
+ * and the run has the vector module, see make bench-vector).
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-07-01
+ */
+public class SlabKernelBenchmark extends Benchmark {
+
+    private static final int SEGMENTS = 1024;
+    private static final int RADIUS = 5;
+
+    private SlabKernel kernel;  // null for the grid
+    private GameEnvironment env;
+    private double[] segments;
+    private int next;
+
+    /**
+     * create the benchmark.
+     *
+     * @param kernel the kernel of the environment, or null for the grid
+     */
+    public SlabKernelBenchmark(SlabKernel kernel) {
+        super("ballCollision/" + (kernel == null ? "grid" : kernel.getClass().getSimpleName()));
+        this.kernel = kernel;
+    }
+
+    /**
+     * the benchmarks of the grid and the kernels.
+     *
+     * @return the benchmarks
+     */
+    public static List<Benchmark> allKernels() {
+        List<Benchmark> list = new ArrayList<Benchmark>();
+        list.add(new SlabKernelBenchmark(null));
+        list.add(new SlabKernelBenchmark(new ScalarSlabKernel()));
+        SlabKernel best = PackedBlocks.loadKernel();
+        if (!(best instanceof ScalarSlabKernel)) {
+            list.add(new SlabKernelBenchmark(best));
+        }
+        return list;
+    }
+
+    @Override
+    public int[] params() {
+        return new int[] {10, 100, 1000, 10000};
+    }
+
+    @Override
+    public void setUp(int param) {
+        List<Block> blocks = Layouts.borders();
+        blocks.addAll(Layouts.blocks(param));
+
+        this.env = new GameEnvironment(Layouts.WIDTH, Layouts.HEIGHT);
+        for (Block b : blocks) {
+            this.env.addCollidable(b);
+        }
+        this.env.setSlabKernel(this.kernel);
+        this.segments = Layouts.segments(SEGMENTS, param);
+        this.next = 0;
+    }
+
+    @Override
+    public double operation() {
+        int i = 4 * this.next;
+        this.next = (this.next + 1) & (SEGMENTS - 1);
+        double x = this.segments[i];
+        double y = this.segments[i + 1];
+
+        CollisionInfo info = this.env.getClosestCollision(x, y, this.segments[i + 2] - x, this.segments[i + 3] - y,
+                                                          RADIUS);
+        if (info == null) {
+            return 0;
+        }
+        return info.time();
+    }
+}
@@ -0,0 +1,148 @@
+package game;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import interfaces.LevelInformation;
+
+import objects.KeyScript;
+import objects.LevelSet;
+
+import readers.ImageCache;
+import readers.LevelSetsReader;
+
+/**
+ * run many headless levels at the same time on all the cores,
+ * and collect statistics for each level set.
+ *
+ * each run creates its own GameLevel (with its own GameEnvironment and
+ * SpriteCollection) and its own key script. the levels that were read
+ * are shared between the runs, they are only read from:
+ * GameLevel copies the blocks and LevelInformation.balls() creates new balls.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-18
+ */
+public class BatchRunner {
+
+    private ForkJoinPool pool;
+    private HeadlessEngine engine;
+    private long maxSteps;
+    private int lives;
+
+    /**
+     * create the batch runner.
+     *
+     * @param threads the number of threads
+     * @param maxSteps the most steps to run a level
+     * @param lives the number of lives of each run
+     */
+    public BatchRunner(int threads, long maxSteps, int lives) {
+        this.pool = new ForkJoinPool(threads);
+        this.engine = new HeadlessEngine(60, maxSteps);
+        this.maxSteps = maxSteps;
+        this.lives = lives;
+    }
+
+    /**
+     * run every level of the set a number of times,
+     * each time with other random moves of the paddle.
+     *
+     * @param name the name of the set
+     * @param levels the levels of the set
+     * @param runsPerLevel the number of runs of each level
+     * @param seed the seed of the random moves
+     * @return the statistics of the set
+     */
+    public BatchStatistics run(String name, List<LevelInformation> levels, int runsPerLevel, long seed) {
+        List<Callable<SimulationResult>> tasks = new ArrayList<Callable<SimulationResult>>();
+
+        for (LevelInformation levelInfo : levels) {
+            for (int i = 0; i < runsPerLevel; i++) {
+                final long runSeed = seed + i;
+                tasks.add(new Callable<SimulationResult>() {
+                    @Override
+                    public SimulationResult call() {
+                        return engine.run(levelInfo, KeyScript.random(runSeed, maxSteps), lives);
+                    }
+                });
+            }
+        }
+
+        BatchStatistics statistics = new BatchStatistics(name);
+        // the results are collected in the order of the tasks, so the statistics don't depend on timing
+        for (Future<SimulationResult> result : this.pool.invokeAll(tasks)) {
+            try {
+                statistics.add(result.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("the batch was interrupted");
+            } catch (ExecutionException e) {
+                throw new RuntimeException("a run failed", e.getCause());
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * stop the threads of the runner.
+     */
+    public void shutdown() {
+        this.pool.shutdown();
+    }
+
+    /**
+     * run all the level sets of the level sets file, and print
+     * the statistics of each set.
+     *
+     * @param args the level sets file (in the resources), the runs of each level,
+     *             the number of threads and the most steps of a run -- all optional
+     */
+    public static void main(String[] args) {
+        String path = "level_sets.txt";
+        int runsPerLevel = 100;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long maxSteps = 60 * 60 * 5;  // 5 minutes of game time
+
+        if (args.length >= 1) {
+            path = args[0];
+        }
+        if (args.length >= 2) {
+            runsPerLevel = Integer.parseInt(args[1]);
+        }
+        if (args.length >= 3) {
+            threads = Integer.parseInt(args[2]);
+        }
+        if (args.length >= 4) {
+            maxSteps = Long.parseLong(args[3]);
+        }
+
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(path);
+        if (is == null) {
+            System.out.println("Enable to read the file");
+            System.exit(1);
+        }
+
+        BatchRunner runner = new BatchRunner(threads, maxSteps, 7);
+        long allSteps = 0;
+        long startTime = System.nanoTime();
+
+        for (LevelSet set : LevelSetsReader.fromReader(new InputStreamReader(is))) {
+            BatchStatistics statistics = runner.run(set.getName(), LevelSetsReader.readLevels(set), runsPerLevel, 0);
+            allSteps += statistics.getSteps();
+            System.out.println(statistics);
+        }
+        runner.shutdown();
+
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        System.out.println(String.format("threads=%d time=%.2fs steps/s=%.0f", threads, seconds, allSteps / seconds));
+        System.out.println("image cache: " + ImageCache.shared());
+    }
+}
@@ -0,0 +1,117 @@
+package game;
+
+/**
+ * the statistics of many headless runs.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-18
+ */
+public class BatchStatistics {
+
+    private String name;
+    private int runs;
+    private int cleared;  // the runs that removed all the blocks
+    private long steps;
+    private long blocksRemoved;
+    private long ballsLost;
+    private long totalScore;
+    private int minScore;
+    private int maxScore;
+
+    /**
+     * create empty statistics.
+     *
+     * @param name the name of what was run (like a level set)
+     */
+    public BatchStatistics(String name) {
+        this.name = name;
+        this.runs = 0;
+        this.cleared = 0;
+        this.steps = 0;
+        this.blocksRemoved = 0;
+        this.ballsLost = 0;
+        this.totalScore = 0;
+        this.minScore = Integer.MAX_VALUE;
+        this.maxScore = Integer.MIN_VALUE;
+    }
+
+    /**
+     * add the result of a run.
+     *
+     * @param result the result of the run
+     */
+    public void add(SimulationResult result) {
+        this.runs++;
+        if (result.isCleared()) {
+            this.cleared++;
+        }
+        this.steps += result.getSteps();
+        this.blocksRemoved += result.getBlocksRemoved();
+        this.ballsLost += result.getBallsLost();
+        this.totalScore += result.getFinalScore();
+        this.minScore = Math.min(this.minScore, result.getFinalScore());
+        this.maxScore = Math.max(this.maxScore, result.getFinalScore());
+    }
+
+    /**
+     * get the number of runs.
+     *
+     * @return the number of runs
+     */
+    public int getRuns() {
+        return this.runs;
+    }
+
+    /**
+     * get the total number of simulation steps.
+     *
+     * @return the number of steps
+     */
+    public long getSteps() {
+        return this.steps;
+    }
+
+    /**
+     * get the part of the runs that removed all the blocks.
+     *
+     * @return the clear rate, from 0 to 1
+     */
+    public double clearRate() {
+        if (this.runs == 0) {
+            return 0;
+        }
+        return (double) this.cleared / this.runs;
+    }
+
+    /**
+     * get the average score of a run.
+     *
+     * @return the average score
+     */
+    public double averageScore() {
+        if (this.runs == 0) {
+            return 0;
+        }
+        return (double) this.totalScore / this.runs;
+    }
+
+    /**
+     * the toString,
+     * represent the statistics in one line.
+     *
+     * @return the statistics as a string
+     */
+    public String toString() {
+        if (this.runs == 0) {
+            return this.name + ": no runs";
+        }
+        return this.name + ": runs=" + this.runs
+               + " cleared=" + String.format("%.1f%%", 100 * this.clearRate())
+               + " avgScore=" + String.format("%.1f", this.averageScore())
+               + " minScore=" + this.minScore + " maxScore=" + this.maxScore
+               + " avgBlocksRemoved=" + String.format("%.1f", (double) this.blocksRemoved / this.runs)
+               + " avgBallsLost=" + String.format("%.1f", (double) this.ballsLost / this.runs)
+               + " steps=" + this.steps;
+    }
+}
@@ -2,7 +2,14 @@ package game;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import screens.GameOver;
 import screens.HighScoresAnimation;
@@ -17,8 +24,13 @@ import biuoop.KeyboardSensor;
 import objects.AnimationRunner;
 import objects.Counter;
 import objects.HighScoresTable;
+import objects.LevelSet;
+import objects.ScoreBoards;
 import objects.ScoreInfo;
 
+import replay.InputRecorder;
+import replay.ReplayWriter;
+
 /**
  * GameFlow is in charge of creating the differnet levels,
  * and moving from one level to the next.
@@ -32,12 +44,22 @@ public class GameFlow {
     // counters
     private Counter scoreCounter;
     private Counter live;
-    private HighScoresTable scores;
-    private static final String PATH_NAME = "highscores";
-    private File file;
+    private ScoreBoards boards;  // a board for each level set and for each level
+    private static final String PATH_NAME = "scores";
+    private static final String OLD_PATH_NAME = "highscores";  // the one table of the old versions
+    private static final String OLD_SET_NAME = "All Sets";  // the board of its scores
+    private static final String DEFAULT_SET_NAME = "Levels";
+    private static final String ANONYMOUS = "-";  // the name of a score that is not a high score
+    private static final String[] RECORDED_KEYS = {KeyboardSensor.LEFT_KEY, KeyboardSensor.RIGHT_KEY};
+    private static final int SNAPSHOT_SECONDS = 5;  // the game time between the snapshots of a replay
+    private File replayFile;  // the last game is recorded to it, or null
+    private File frameStatsDirectory;  // the frame times of each level are written to it, or null
 
     private AnimationRunner animationRunner;
     private KeyboardSensor keyboardSensor;
+    private ExecutorService loader;  // prepares the next level, created on the first use
+    private ExecutorService ballWorkers;  // moves the balls of a level with many balls, or null
+    private int workerCount;
 
     /**
      * create new GameFlow that run the levels.
@@ -52,9 +74,23 @@ public class GameFlow {
         this.scoreCounter = new Counter();
         this.live = new Counter(7);
 
-        this.file = new File(GameFlow.PATH_NAME);
+        this.loader = null;
+        this.replayFile = null;
+        this.frameStatsDirectory = null;
+
+        this.workerCount = Runtime.getRuntime().availableProcessors();
+        if (this.workerCount > 1) {
+            this.ballWorkers = Executors.newFixedThreadPool(this.workerCount, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "ball worker");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
 
-        this.loadTable();
+        this.loadBoards();
     }
 
     /**
@@ -77,22 +113,112 @@ public class GameFlow {
     }
 
     /**
-     * run the levels.
+     * record the keys of each game, so it can be replayed by replay.ReplayRunner.
+     * each game replaces the recording of the game before it.
+     *
+     * @param file the replay file, or null to stop recording
+     */
+    public void setReplayFile(File file) {
+        this.replayFile = file;
+    }
+
+    /**
+     * write the times of the frames of each level that is played to a csv
+     * file in a directory, when the level ends (see objects.FrameStats).
+     *
+     * @param directory the directory, it is created if it doesn't exist,
+     *                  or null to stop writing
+     */
+    public void setFrameStatsDirectory(File directory) {
+        this.frameStatsDirectory = directory;
+    }
+
+    /**
+     * run the levels, their scores are kept under a default level set name.
      *
      * @param levels the order of level to run
      */
     public void runLevels(List<LevelInformation> levels) {
+        this.runLevels(DEFAULT_SET_NAME, levels);
+    }
+
+    /**
+     * run the levels of a level set.
+     * while a level is played the next level is prepared on another thread,
+     * so it can start as soon as the level ends.
+     * the score of the game is kept in the board of the set, and the score
+     * of each level that was played in the board of the level.
+     *
+     * @param setName the name of the level set
+     * @param levels the order of level to run
+     */
+    public void runLevels(String setName, List<LevelInformation> levels) {
+        this.runLevels(new LevelSet("", setName, null), levels);
+    }
 
+    /**
+     * run the levels of a level set.
+     * while a level is played the next level is prepared on another thread,
+     * so it can start as soon as the level ends.
+     * the score of the game is kept in the board of the set, and the score
+     * of each level that was played in the board of the level.
+     * if there is a replay file and the set has a levels file, the game is recorded.
+     *
+     * @param set the level set
+     * @param levels the order of level to run
+     */
+    public void runLevels(LevelSet set, List<LevelInformation> levels) {
+
+        String setName = set.getName();
         this.scoreCounter = new Counter();
         this.live = new Counter(7);
-        for (LevelInformation levelInfo : levels) {
 
-           GameLevel level = new GameLevel(levelInfo, this.keyboardSensor, this.animationRunner,
-                                           this.scoreCounter, this.live);
+        ReplayWriter writer = null;
+        InputRecorder recorder = null;
+        if (this.replayFile != null && set.getPath() != null) {
+            try {
+                writer = new ReplayWriter(this.replayFile, this.animationRunner.getStepRate(), set.getPath(),
+                                          RECORDED_KEYS);
+                recorder = new InputRecorder(this.keyboardSensor, writer, RECORDED_KEYS,
+                                             this.animationRunner.getStepRate(),
+                                             SNAPSHOT_SECONDS * this.animationRunner.getStepRate());
+            } catch (IOException e) {
+                System.out.println("Problem with recording the game: " + e.getMessage());
+            }
+        }
+        KeyboardSensor keyboard = recorder != null ? recorder : this.keyboardSensor;
+
+        List<String> played = new ArrayList<String>();  // the names of the levels that were played
+        List<Integer> levelScores = new ArrayList<Integer>();
 
-           level.initialize();
+        Future<GameLevel> next = null;
+        if (!levels.isEmpty()) {
+            next = this.prepare(levels.get(0), keyboard);
+        }
+
+        for (int i = 0; i < levels.size(); i++) {
+
+           GameLevel level = this.take(next);
 
+           if (i + 1 < levels.size()) {
+               next = this.prepare(levels.get(i + 1), keyboard);
+           }
+
+           int before = this.scoreCounter.getValue();
+           if (writer != null) {
+               writer.beginLevel(i, levels.get(i).levelName(), before, this.live.getValue());
+               recorder.record(level);
+           }
+           this.animationRunner.getFrameStats().reset();
            level.run();
+           if (this.frameStatsDirectory != null) {
+               this.writeFrameStats(i, levels.get(i).levelName());
+           }
+           played.add(levels.get(i).levelName());
+           levelScores.add(this.scoreCounter.getValue() - before);
+           if (writer != null) {
+               writer = this.endRecordedLevel(writer, level);
+           }
 
            if (this.live.getValue() <= 0) {
                break;
@@ -100,6 +226,14 @@ public class GameFlow {
 
         }
 
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                System.out.println("Problem with recording the game: " + e.getMessage());
+            }
+        }
+
         if (this.live.getValue() <= 0) {
             this.animationRunner.run(new KeyPressStoppableAnimation(this.keyboardSensor, KeyboardSensor.SPACE_KEY,
                                                                     new GameOver(this.scoreCounter.getValue())));
@@ -108,36 +242,169 @@ public class GameFlow {
                     new YouWin(this.scoreCounter.getValue())));
         }
 
-        if (this.scores.getRank(this.scoreCounter.getValue()) <= this.scores.size()) {
+        this.saveScores(setName, played, levelScores);
 
-            String name = this.animationRunner.askForUserName();
-            this.scores.add(new ScoreInfo(name, this.scoreCounter.getValue()));
+        this.animationRunner.run(new KeyPressStoppableAnimation(this.keyboardSensor, KeyboardSensor.SPACE_KEY,
+                new HighScoresAnimation(this.boards.get(ScoreBoards.setKey(setName)), "space", this.keyboardSensor,
+                                        setName)));
+     }
+
+    /**
+     * write a level that was recorded.
+     *
+     * @param writer the writer of the replay
+     * @param level the level that ended
+     * @return the writer, or null if the recording stopped because of a problem
+     */
+    private ReplayWriter endRecordedLevel(ReplayWriter writer, GameLevel level) {
+        try {
+            writer.endLevel(this.scoreCounter.getValue(), this.live.getValue(), level.getRemainingBlocks());
+            return writer;
+        } catch (IOException e) {
+            System.out.println("Problem with recording the game: " + e.getMessage());
             try {
-                this.scores.save(this.file);
-            } catch (IOException e) {
-                System.out.print("");
+                writer.close();
+            } catch (IOException closeProblem) {
+                System.out.println("Problem with closing the replay: " + closeProblem.getMessage());
             }
+            return null;
         }
+    }
 
-        this.animationRunner.run(new KeyPressStoppableAnimation(this.keyboardSensor, KeyboardSensor.SPACE_KEY,
-                                                                new HighScoresAnimation(this.scores, "space")));
-     }
+    /**
+     * write the times of the frames of a level that ended to
+     * frames-[index]-[name].csv in the frame times directory.
+     *
+     * @param index the index of the level in the set
+     * @param levelName the name of the level
+     */
+    private void writeFrameStats(int index, String levelName) {
+        String name = "frames-" + (index + 1) + "-" + levelName.replaceAll("[^A-Za-z0-9]+", "_") + ".csv";
+        try {
+            if (!this.frameStatsDirectory.isDirectory() && !this.frameStatsDirectory.mkdirs()) {
+                throw new IOException("can't create " + this.frameStatsDirectory);
+            }
+            this.animationRunner.getFrameStats().writeCsv(new File(this.frameStatsDirectory, name));
+        } catch (IOException e) {
+            System.out.println("Problem with writing the frame times: " + e.getMessage());
+        }
+    }
 
     /**
-     * load the table of the scores.
+     * add the scores of a game to the boards of the level set and of its levels.
+     * every score is kept, the name is asked only if one of them is a high score.
+     *
+     * @param setName the name of the level set
+     * @param played the names of the levels that were played
+     * @param levelScores the score of each level that was played
      */
-    private void loadTable() {
+    private void saveScores(String setName, List<String> played, List<Integer> levelScores) {
+        List<String> keys = new ArrayList<String>();
+        List<Integer> values = new ArrayList<Integer>();
+        keys.add(ScoreBoards.setKey(setName));
+        values.add(this.scoreCounter.getValue());
+        for (int i = 0; i < played.size(); i++) {
+            keys.add(ScoreBoards.levelKey(setName, played.get(i)));
+            values.add(levelScores.get(i));
+        }
 
-        this.scores = HighScoresTable.loadFromFile(this.file);
+        String name = ANONYMOUS;
+        for (int i = 0; i < keys.size(); i++) {
+            HighScoresTable board = this.boards.get(keys.get(i));
+            if (board.getRank(values.get(i)) <= board.size()) {
+                name = this.animationRunner.askForUserName();
+                break;
+            }
+        }
 
-        if (!(new File(GameFlow.PATH_NAME)).exists()) {
+        for (int i = 0; i < keys.size(); i++) {
+            this.boards.get(keys.get(i)).add(new ScoreInfo(name, values.get(i)));
             try {
-                this.scores.save(this.file);
-            } catch (IOException e) {
-                System.out.print("");
+                this.boards.save(keys.get(i));
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Problem with saving the high scores: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * get the boards of the high scores.
+     *
+     * @return the boards
+     */
+    public ScoreBoards getScoreBoards() {
+        return this.boards;
+    }
+
+    /**
+     * get the name of the board of the scores of the old versions.
+     *
+     * @return the name of its level set
+     */
+    public static String getOldSetName() {
+        return GameFlow.OLD_SET_NAME;
+    }
+
+    /**
+     * create and initialize the level on the thread of the loader.
+     *
+     * @param levelInfo the level information
+     * @param keyboard the keyboard of the level
+     * @return the level, when it is ready
+     */
+    private Future<GameLevel> prepare(LevelInformation levelInfo, KeyboardSensor keyboard) {
+        if (this.loader == null) {
+            this.loader = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "level loader");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+
+        return this.loader.submit(new Callable<GameLevel>() {
+            @Override
+            public GameLevel call() {
+                GameLevel level = new GameLevel(levelInfo, keyboard, animationRunner, scoreCounter, live);
+                level.initialize();
+                level.setBallWorkers(ballWorkers, workerCount);
+                level.getStaticLayer().prerender();
+                return level;
             }
+        });
+    }
+
+    /**
+     * wait for a level that is prepared, and take it.
+     *
+     * @param preparing the level that is prepared
+     * @return the level
+     */
+    private GameLevel take(Future<GameLevel> preparing) {
+        try {
+            return preparing.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("the loading of the level was interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Problem with loading the level", e.getCause());
         }
     }
 
+    /**
+     * open the boards of the scores, the scores of the old
+     * high scores file are added to a board of their own.
+     */
+    private void loadBoards() {
+
+        this.boards = new ScoreBoards(new File(GameFlow.PATH_NAME));
 
+        try {
+            this.boards.importFile(ScoreBoards.setKey(GameFlow.OLD_SET_NAME), new File(GameFlow.OLD_PATH_NAME));
+        } catch (IOException e) {
+            System.out.println("Problem with reading the old high scores: " + e.getMessage());
+        }
+    }
 }
@@ -1,5 +1,10 @@
 package game;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
 import screens.CountdownAnimation;
 import screens.KeyPressStoppableAnimation;
 import screens.PauseScreen;
@@ -11,13 +16,15 @@ import indicators.LevelIndicator;
 import indicators.LivesIndicator;
 import indicators.ScoreIndicator;
 
-import interfaces.Animation;
 import interfaces.Sprite;
 import interfaces.Collidable;
 import interfaces.LevelInformation;
+import interfaces.StepListener;
+import interfaces.SteppedAnimation;
 
 import objects.AnimationRunner;
 import objects.Ball;
+import objects.BallSystem;
 import objects.Block;
 import objects.Counter;
 import objects.GameEnvironment;
@@ -25,6 +32,7 @@ import objects.Paddle;
 import objects.Point;
 import objects.Screen;
 import objects.SpriteCollection;
+import objects.StaticLayer;
 
 import listeners.BallRemover;
 import listeners.BlockRemover;
@@ -39,11 +47,12 @@ import listeners.ScoreTrackingListener;
  * @version 1.0
  * @since 2018-04-19
  */
-public class GameLevel implements Animation  {
+public class GameLevel implements SteppedAnimation  {
 
     private LevelInformation levelInfo;  // the level information
 
     private SpriteCollection sprites;  // the Spirits collection
+    private StaticLayer staticLayer;  // the background and the blocks
     private GameEnvironment environment;  // the Game Environment
 
     private biuoop.KeyboardSensor keyboard;  // the players keyboard
@@ -54,6 +63,8 @@ public class GameLevel implements Animation  {
 
     private Paddle paddle;
     private Block deathRegion;  // the death region
+    private List<Block> blocks;  // the blocks of the level, in the order they were added
+    private BallSystem ballSystem;  // the balls of the current turn
 
     // Indicators
     private ScoreIndicator showScore;
@@ -74,13 +85,14 @@ public class GameLevel implements Animation  {
     // Animation
     private AnimationRunner runner;
     private boolean running;
+    private StepListener stepListener;  // null if no one listens
 
     /**
      * Create a new Game with the levels.
      *
      * @param levelInfo the order of the level to run
      * @param ks the player's keyboard
-     * @param runner the animation runner
+     * @param runner the animation runner (null to run without a screen)
      * @param scoreCounter the score of the player
      * @param live the number of lives of the player
      */
@@ -94,6 +106,7 @@ public class GameLevel implements Animation  {
         this.environment = new GameEnvironment();
 
         this.screen = new Screen(800, 600);  // the Screen of the game
+        this.staticLayer = new StaticLayer(this.screen.width(), this.screen.height());
 
         this.scoreCounter = scoreCounter;
         this.live = live;
@@ -107,6 +120,8 @@ public class GameLevel implements Animation  {
 
         // initialize runing
         this.running = false;
+        this.blocks = new ArrayList<Block>();
+        this.ballSystem = new BallSystem(this.environment);
 
         // initialize counters
         this.ballsCounter = new Counter();
@@ -122,7 +137,9 @@ public class GameLevel implements Animation  {
         this.showLives = new LivesIndicator(this.live);
         this.showLevel = new LevelIndicator(this.levelInfo.levelName());
 
-        this.sprites.addSprite(this.levelInfo.getBackground());
+        // the background and the blocks are drawn first, from one image
+        this.staticLayer.setBackground(this.levelInfo.getBackground());
+        this.sprites.addSprite(this.staticLayer);
 
         // initialize for the death region
         this.deathRegion = new Block(new Point(0, this.screen.height() + 10), this.screen.width(),
@@ -133,6 +150,7 @@ public class GameLevel implements Animation  {
         // create the level objects
         this.createBorderBlocks();
         this.createBlocks();
+        this.environment.setCollisionIndex(GameEnvironment.collisionIndex(this.levelInfo.collisionIndex()));
 
         this.paddle = new Paddle(this.keyboard, new Point(this.screen.width() / 2 - this.levelInfo.paddleWidth() / 2,
                                  this.screen.height() - 20 - DISTANCE_FROM_EDGE),
@@ -146,6 +164,9 @@ public class GameLevel implements Animation  {
         this.sprites.addSprite(this.showScore);
         this.sprites.addSprite(this.showLives);
         this.sprites.addSprite(this.showLevel);
+
+        // the balls are drawn and moved after the other sprites
+        this.sprites.addSprite(this.ballSystem);
     }
 
     /**
@@ -153,16 +174,61 @@ public class GameLevel implements Animation  {
      */
     public void playOneTurn() {
 
-        this.createBalls();
+        this.startTurn();
         this.runner.run(new CountdownAnimation(2, 3, this.sprites)); // count down before turn starts.
 
-        this.running = true;
         this.runner.run(this);
     }
 
+    /**
+     * start a turn: create the balls, and let the level run
+     * until the balls or the blocks are over.
+     */
+    public void startTurn() {
+        this.createBalls();
+        this.running = true;
+    }
+
+    /**
+     * finish a turn after it stopped: if the blocks are over the bonus
+     * is added, otherwise a life is lost.
+     */
+    public void finishTurn() {
+        if (this.remainingBlocks.getValue() <= 0) {
+            this.scoreCounter.increase(100);
+
+        } else {
+            this.paddle.alignToCenter();
+            this.live.decrease(1);
+        }
+    }
+
+    /**
+     * check if the level is over.
+     *
+     * @return true if there are no more blocks or no more lives,
+     *         otherwise, false
+     */
+    public boolean isOver() {
+        return this.remainingBlocks.getValue() <= 0 || this.live.getValue() <= 0;
+    }
+
     @Override
     public void doOneFrame(DrawSurface d, double dt) {
         this.sprites.drawAllOn(d);
+        this.step(dt);
+    }
+
+    @Override
+    public void render(DrawSurface d, double alpha) {
+        this.sprites.drawAllOn(d, alpha);
+    }
+
+    @Override
+    public void step(double dt) {
+        if (this.stepListener != null) {
+            this.stepListener.beforeStep(dt);
+        }
         this.sprites.notifyAllTimePassed(dt);
 
         if (this.ballsCounter.getValue() <= 0) {
@@ -173,7 +239,7 @@ public class GameLevel implements Animation  {
             this.running = false;
         }
 
-        if (this.keyboard.isPressed("p")) {
+        if (this.runner != null && this.keyboard.isPressed("p")) {
             this.runner.run(new KeyPressStoppableAnimation(this.keyboard, KeyboardSensor.SPACE_KEY, new PauseScreen()));
         }
     }
@@ -187,19 +253,143 @@ public class GameLevel implements Animation  {
      * Run the game -- start the animation loop.
      */
     public void run() {
-        while ((this.remainingBlocks.getValue() > 0)
-                && this.live.getValue() > 0) {
+        while (!this.isOver()) {
             this.playOneTurn();
+            this.finishTurn();
+        }
+    }
+
+    /**
+     * set the listener that is called before each step (like a recorder of the keys).
+     *
+     * @param listener the listener, or null
+     */
+    public void setStepListener(StepListener listener) {
+        this.stepListener = listener;
+    }
+
+    /**
+     * move the balls on worker threads when there are many of them
+     * (after initialize). the game is the same as without them.
+     *
+     * @param pool the threads of the workers, or null for no workers
+     * @param count the number of workers
+     */
+    public void setBallWorkers(ExecutorService pool, int count) {
+        this.ballSystem.setWorkers(pool, count);
+    }
+
+    /**
+     * take a snapshot of the state of the level between steps.
+     *
+     * @param tick the number of steps that were run in the level
+     * @return the snapshot
+     */
+    public LevelSnapshot snapshot(long tick) {
+        int bits = (this.blocks.size() + 7) / 8;
+        ByteBuffer out = ByteBuffer.allocate(4 * 4 + 1 + 2 * 8 + 4 + bits + 4 * this.blocks.size()
+                                             + 4 + this.ballSystem.size() * (4 + 6 * 8));
+        out.putInt(this.scoreCounter.getValue()).putInt(this.live.getValue());
+        out.putInt(this.ballsCounter.getValue()).putInt(this.remainingBlocks.getValue());
+        out.put((byte) (this.running ? 1 : 0));
+        this.paddle.saveState(out);
+
+        out.putInt(this.blocks.size());
+        byte[] alive = new byte[bits];
+        for (int i = 0; i < this.blocks.size(); i++) {
+            if (this.environment.contains(this.blocks.get(i))) {
+                alive[i / 8] |= 1 << (i % 8);
+            }
+        }
+        out.put(alive);
+        for (Block b : this.blocks) {
+            out.putInt(b.getHitPoints());
+        }
+
+        out.putInt(this.ballSystem.size());
+        for (int i = 0; i < this.ballSystem.slots(); i++) {
+            if (this.ballSystem.isAlive(i)) {
+                out.putInt(i);
+                this.ballSystem.saveState(i, out);
+            }
+        }
+        return new LevelSnapshot(tick, out.array());
+    }
+
+    /**
+     * restore a snapshot of a level with the same level information.
+     * the level must be new (initialized, before the first turn), so the
+     * objects are added in the same order as in the level of the snapshot,
+     * and the level goes on exactly as that level.
+     *
+     * @param snapshot the snapshot
+     */
+    public void restore(LevelSnapshot snapshot) {
+        if (this.ballSystem.slots() > 0 || this.running) {
+            throw new RuntimeException("a snapshot can be restored only to a new level");
+        }
+        ByteBuffer in = ByteBuffer.wrap(snapshot.getData());
+
+        this.scoreCounter.increase(in.getInt() - this.scoreCounter.getValue());
+        this.live.increase(in.getInt() - this.live.getValue());
+        this.ballsCounter.increase(in.getInt() - this.ballsCounter.getValue());
+        this.remainingBlocks.increase(in.getInt() - this.remainingBlocks.getValue());
+        boolean wasRunning = in.get() == 1;
+        this.paddle.loadState(in);
 
-            if (this.remainingBlocks.getValue() <= 0) {
-                this.scoreCounter.increase(100);
-                break;
+        if (in.getInt() != this.blocks.size()) {
+            throw new RuntimeException("the snapshot is of another level");
+        }
+        byte[] alive = new byte[(this.blocks.size() + 7) / 8];
+        in.get(alive);
+        for (int i = 0; i < this.blocks.size(); i++) {
+            Block b = this.blocks.get(i);
+            int hits = in.getInt();
+            if (hits != b.getHitPoints()) {
+                b.setHitPoints(hits);
+                this.staticLayer.hitEvent(b, null);  // its fill changed
+            }
+            if ((alive[i / 8] & (1 << (i % 8))) == 0) {
+                b.removeFromGame(this);
+            }
+        }
 
-            } else {
-                this.paddle.alignToCenter();
-                this.live.decrease(1);
+        // the balls of the turn are added in their order, like createBalls,
+        // and the balls that are not in the snapshot are removed
+        for (Ball ball : this.levelInfo.balls()) {
+            this.ballSystem.add(ball);
+        }
+        boolean[] inGame = new boolean[this.ballSystem.slots()];
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            int slot = in.getInt();
+            this.ballSystem.loadState(slot, in);
+            inGame[slot] = true;
+        }
+        for (int i = 0; i < inGame.length; i++) {
+            if (!inGame[i]) {
+                this.ballSystem.remove(i);
             }
         }
+        this.running = wasRunning;
+    }
+
+    /**
+     * get the number of blocks that are left to remove.
+     *
+     * @return the number of remaining blocks
+     */
+    public int getRemainingBlocks() {
+        return this.remainingBlocks.getValue();
+    }
+
+    /**
+     * get the number of balls in the game.
+     *
+     * @return the number of remaining balls
+     */
+    public int getRemainingBalls() {
+        return this.ballsCounter.getValue();
     }
 
     /**
@@ -220,6 +410,15 @@ public class GameLevel implements Animation  {
         return this.sprites;
     }
 
+    /**
+     * A get function of the layer of the background and the blocks.
+     *
+     * @return the static layer of the game
+     */
+    public StaticLayer getStaticLayer() {
+        return this.staticLayer;
+    }
+
     /**
      * remove from the game the Collidable object.
      *
@@ -236,6 +435,7 @@ public class GameLevel implements Animation  {
      */
     public void removeSprite(Sprite s) {
         this.sprites.removeSprite(s);
+        this.staticLayer.removeSprite(s);
     }
 
     /**
@@ -244,6 +444,7 @@ public class GameLevel implements Animation  {
     public void createBlocks() {
         for (Block block : this.levelInfo.blocks()) {
             Block b = new Block(block);
+            this.blocks.add(b);
             b.addToGame(this);
             b.addHitListener(this.blockRemover);
             b.addHitListener(this.scoreListener);
@@ -251,12 +452,12 @@ public class GameLevel implements Animation  {
     }
 
     /**
-     * create the Balls.
+     * create the Balls, in the ball system of the level.
      */
     public void createBalls() {
+        this.ballSystem.clear();
         for (Ball ball : this.levelInfo.balls()) {
-            ball.addToGame(this);
-            ball.setGameEnvironment(this.environment);
+            this.ballSystem.add(ball);
         }
         this.ballsCounter.increase(this.levelInfo.numberOfBalls());
     }
@@ -0,0 +1,128 @@
+package game;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.List;
+
+import interfaces.InputSource;
+import interfaces.LevelInformation;
+
+import objects.Counter;
+import objects.KeyScript;
+import objects.ScriptedKeyboard;
+
+import readers.LevelSpecificationReader;
+
+/**
+ * run a level without a screen, as fast as possible.
+ * the keys are taken from an InputSource.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-17
+ */
+public class HeadlessEngine {
+
+    private double dt;  // the time of each step
+    private long maxSteps;  // the most steps of a level
+
+    /**
+     * create the engine.
+     *
+     * @param stepsPerSecond the simulation steps per second of game time
+     * @param maxSteps the most steps to run a level (a ball can bounce forever)
+     */
+    public HeadlessEngine(int stepsPerSecond, long maxSteps) {
+        this.dt = 1.0 / ((double) stepsPerSecond);
+        this.maxSteps = maxSteps;
+    }
+
+    /**
+     * run the level until it's over, or until the steps are over.
+     *
+     * @param levelInfo the level to run
+     * @param input the pressed keys of each step
+     * @param lives the number of lives
+     * @return the result of the run
+     */
+    public SimulationResult run(LevelInformation levelInfo, InputSource input, int lives) {
+        return this.run(levelInfo, input, lives, 0);
+    }
+
+    /**
+     * run the level until it's over, or until the steps are over,
+     * starting with a score (like a level in the middle of a game).
+     *
+     * @param levelInfo the level to run
+     * @param input the pressed keys of each step
+     * @param lives the number of lives
+     * @param startScore the score at the start of the level
+     * @return the result of the run
+     */
+    public SimulationResult run(LevelInformation levelInfo, InputSource input, int lives, int startScore) {
+        Counter score = new Counter(startScore);
+        Counter live = new Counter(lives);
+        ScriptedKeyboard keyboard = new ScriptedKeyboard(input);
+
+        long startTime = System.nanoTime();
+
+        GameLevel level = new GameLevel(levelInfo, keyboard, null, score, live);
+        level.initialize();
+
+        long tick = 0;
+        int ballsLost = 0;
+        while (!level.isOver() && tick < this.maxSteps) {
+            level.startTurn();
+
+            while (!level.shouldStop() && tick < this.maxSteps) {
+                keyboard.setTick(tick);
+                level.step(this.dt);
+                tick++;
+            }
+
+            if (level.shouldStop()) {
+                ballsLost += levelInfo.numberOfBalls() - level.getRemainingBalls();
+                level.finishTurn();
+            }
+        }
+
+        long elapsed = System.nanoTime() - startTime;
+        return new SimulationResult(levelInfo.levelName(), tick, elapsed,
+                                    levelInfo.numberOfBlocksToRemove() - level.getRemainingBlocks(),
+                                    ballsLost, score.getValue(), live.getValue(), level.getRemainingBlocks() <= 0);
+    }
+
+    /**
+     * run the levels of a level file without a screen,
+     * with random moves of the paddle.
+     *
+     * @param args the level file (in the resources), and optionally
+     *             the most steps of each level and the random seed
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("usage: HeadlessEngine <level file> [max steps] [seed]");
+            System.exit(1);
+        }
+        long maxSteps = 60 * 60 * 10;  // 10 minutes of game time
+        long seed = 0;
+        if (args.length >= 2) {
+            maxSteps = Long.parseLong(args[1]);
+        }
+        if (args.length >= 3) {
+            seed = Long.parseLong(args[2]);
+        }
+
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(args[0]);
+        if (is == null) {
+            System.out.println("Enable to read the file");
+            System.exit(1);
+        }
+        List<LevelInformation> levels = new LevelSpecificationReader().fromReader(new InputStreamReader(is));
+
+        HeadlessEngine engine = new HeadlessEngine(60, maxSteps);
+        for (LevelInformation levelInfo : levels) {
+            System.out.println(engine.run(levelInfo, KeyScript.random(seed, maxSteps), 7));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package game;
+
+/**
+ * the state of a GameLevel at a step, that can be restored to a new level
+ * of the same level information.
+ * the state is kept in one array of bytes (made by GameLevel.snapshot):
+ * <pre>
+ * counters: the score, the lives, the balls and the remaining blocks (ints),
+ *           and 1 if the turn is running (a byte)
+ * paddle:   its left, now and before the last step (doubles)
+ * blocks:   the number of blocks of the level (an int), a bit for each block
+ *           that is still in the game, and the hit points of each block (ints)
+ * balls:    the number of balls in the game (an int), and for each ball its
+ *           index in the balls of the turn (an int), its place, its place
+ *           before the last step and its velocity (doubles)
+ * </pre>
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-29
+ */
+public class LevelSnapshot {
+
+    private long tick;  // the step that the state is before
+    private byte[] data;
+
+    /**
+     * create a snapshot.
+     *
+     * @param tick the number of steps that were run in the level before it
+     * @param data the state
+     */
+    public LevelSnapshot(long tick, byte[] data) {
+        this.tick = tick;
+        this.data = data;
+    }
+
+    /**
+     * get the number of steps that were run in the level before the snapshot.
+     *
+     * @return the step
+     */
+    public long getTick() {
+        return this.tick;
+    }
+
+    /**
+     * get the state.
+     *
+     * @return the bytes of the state
+     */
+    public byte[] getData() {
+        return this.data;
+    }
+}
@@ -0,0 +1,141 @@
+package game;
+
+/**
+ * the result of a level that ran without a screen.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-17
+ */
+public class SimulationResult {
+
+    private String levelName;
+    private long steps;  // the number of simulation steps
+    private long elapsedNanos;  // the time that the simulation took
+    private int blocksRemoved;
+    private int ballsLost;
+    private int finalScore;
+    private int livesLeft;
+    private boolean cleared;  // all the blocks were removed
+
+    /**
+     * create the result.
+     *
+     * @param levelName the name of the level
+     * @param steps the number of simulation steps
+     * @param elapsedNanos the time that the simulation took, in nanoseconds
+     * @param blocksRemoved the number of removed blocks
+     * @param ballsLost the number of balls that fell
+     * @param finalScore the score at the end
+     * @param livesLeft the lives at the end
+     * @param cleared true if all the blocks were removed
+     */
+    public SimulationResult(String levelName, long steps, long elapsedNanos, int blocksRemoved, int ballsLost,
+                            int finalScore, int livesLeft, boolean cleared) {
+        this.levelName = levelName;
+        this.steps = steps;
+        this.elapsedNanos = elapsedNanos;
+        this.blocksRemoved = blocksRemoved;
+        this.ballsLost = ballsLost;
+        this.finalScore = finalScore;
+        this.livesLeft = livesLeft;
+        this.cleared = cleared;
+    }
+
+    /**
+     * get the name of the level.
+     *
+     * @return the name of the level
+     */
+    public String getLevelName() {
+        return this.levelName;
+    }
+
+    /**
+     * get the number of simulation steps.
+     *
+     * @return the number of steps
+     */
+    public long getSteps() {
+        return this.steps;
+    }
+
+    /**
+     * get the time that the simulation took.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    /**
+     * get the speed of the simulation.
+     *
+     * @return the simulation steps per second
+     */
+    public double stepsPerSecond() {
+        if (this.elapsedNanos <= 0) {
+            return 0;
+        }
+        return this.steps * 1e9 / this.elapsedNanos;
+    }
+
+    /**
+     * get the number of removed blocks.
+     *
+     * @return the number of removed blocks
+     */
+    public int getBlocksRemoved() {
+        return this.blocksRemoved;
+    }
+
+    /**
+     * get the number of balls that fell.
+     *
+     * @return the number of lost balls
+     */
+    public int getBallsLost() {
+        return this.ballsLost;
+    }
+
+    /**
+     * get the score at the end.
+     *
+     * @return the final score
+     */
+    public int getFinalScore() {
+        return this.finalScore;
+    }
+
+    /**
+     * get the lives at the end.
+     *
+     * @return the lives left
+     */
+    public int getLivesLeft() {
+        return this.livesLeft;
+    }
+
+    /**
+     * check if all the blocks were removed.
+     *
+     * @return true if the level was cleared, otherwise, false
+     */
+    public boolean isCleared() {
+        return this.cleared;
+    }
+
+    /**
+     * the toString,
+     * represent the result in one line.
+     *
+     * @return the result as a string
+     */
+    public String toString() {
+        return this.levelName + ": steps=" + this.steps
+               + " steps/s=" + String.format("%.0f", this.stepsPerSecond())
+               + " blocksRemoved=" + this.blocksRemoved + " ballsLost=" + this.ballsLost
+               + " score=" + this.finalScore + " lives=" + this.livesLeft + " cleared=" + this.cleared;
+    }
+}
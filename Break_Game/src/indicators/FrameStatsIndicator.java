@@ -0,0 +1,60 @@
+package indicators;
+
+import java.awt.Color;
+
+import biuoop.DrawSurface;
+import interfaces.Sprite;
+import objects.FrameHistogram;
+import objects.FrameStats;
+
+/**
+ * A FrameStatsIndicator shows the frames per second and the times of the
+ * frames (the median, the 99th percentile and the longest) at the bottom
+ * of the screen. the text is made again once a second.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-07-03
+ */
+public class FrameStatsIndicator implements Sprite {
+
+    private static final long SECOND = 1000000000L;
+    private static final int HEIGHT = 18;
+    private static final int WIDTH = 330;
+
+    private FrameStats stats;
+    private String text;
+    private long madeAt;  // the time the text was made in nanoseconds
+
+    /**
+     * Create new FrameStatsIndicator.
+     *
+     * @param stats the times of the frames
+     */
+    public FrameStatsIndicator(FrameStats stats) {
+        this.stats = stats;
+        this.text = "";
+        this.madeAt = 0;
+    }
+
+    @Override
+    public void drawOn(DrawSurface d) {
+        long now = System.nanoTime();
+        if (this.madeAt == 0 || now - this.madeAt >= SECOND) {
+            FrameHistogram frames = this.stats.get(FrameStats.FRAME);
+            this.text = String.format("fps %.1f  p50 %.1f  p99 %.1f  max %.1f ms", this.stats.getFps(),
+                                      frames.getValueAtPercentile(50) / 1e6,
+                                      frames.getValueAtPercentile(99) / 1e6, frames.getMax() / 1e6);
+            this.madeAt = now;
+        }
+        d.setColor(Color.BLACK);
+        d.fillRectangle(0, d.getHeight() - HEIGHT, WIDTH, HEIGHT);
+        d.setColor(Color.GREEN);
+        d.drawText(5, d.getHeight() - 5, this.text, 13);
+    }
+
+    @Override
+    public void timePassed(double dt) {
+        return;
+    }
+}
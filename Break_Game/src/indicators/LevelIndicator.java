@@ -4,7 +4,7 @@ import java.awt.Color;
 
 import biuoop.DrawSurface;
 import game.GameLevel;
-import interfaces.Sprite;
+import interfaces.StaticSprite;
 
 /**
  * A LevelIndicator is in charge of show the level of the player.
@@ -13,7 +13,7 @@ import interfaces.Sprite;
  * @version 1.0
  * @since 2018-05-19
  */
-public class LevelIndicator implements Sprite {
+public class LevelIndicator implements StaticSprite {
 
     private String levelName;
 
@@ -6,7 +6,7 @@ import biuoop.DrawSurface;
 
 import game.GameLevel;
 
-import interfaces.Sprite;
+import interfaces.StaticSprite;
 
 import objects.Counter;
 
@@ -17,7 +17,7 @@ import objects.Counter;
  * @version 1.0
  * @since 2018-05-18
  */
-public class ScoreIndicator implements Sprite {
+public class ScoreIndicator implements StaticSprite {
 
     private Counter score;
 
@@ -32,4 +32,16 @@ public interface Collidable {
      *         (based on the force the object inflicted on us).
      */
     Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity);
+
+    /**
+     * get the velocity after a hit, without hitting the object: the object
+     * is not changed and no one is notified (the hit is the same velocity
+     * and its changes). it can be called by many threads at the same time,
+     * while the object is not changed.
+     *
+     * @param collisionPoint the collision Point with the object
+     * @param currentVelocity the current Velocity
+     * @return new velocity expected after the hit
+     */
+    Velocity deflect(Point collisionPoint, Velocity currentVelocity);
 }
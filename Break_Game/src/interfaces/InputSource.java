@@ -0,0 +1,21 @@
+package interfaces;
+
+/**
+ * the keys that are pressed on each simulation step,
+ * for running the game without a real keyboard.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-17
+ */
+public interface InputSource {
+
+    /**
+     * check if the key is pressed on the step.
+     *
+     * @param key the key (like KeyboardSensor.LEFT_KEY)
+     * @param tick the number of the simulation step
+     * @return true if the key is pressed, otherwise, false
+     */
+    boolean isPressed(String key, long tick);
+}
@@ -0,0 +1,23 @@
+package interfaces;
+
+import biuoop.DrawSurface;
+
+/**
+ * A Sprite that moves, and can be drawn between two steps.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-16
+ */
+public interface InterpolatedSprite extends Sprite {
+
+    /**
+     * Draw the sprite between its place before the last step
+     * and its current place.
+     *
+     * @param d a DrawSurface
+     * @param alpha 0 for the place before the last step,
+     *              1 for the current place
+     */
+    void drawOn(DrawSurface d, double alpha);
+}
@@ -81,4 +81,13 @@ public interface LevelInformation {
      * @return the number of blocks to remove
      */
     int numberOfBlocksToRemove();
+
+    /**
+     * the index that finds the blocks that a ball can hit: "grid" (the
+     * uniform grid, for most levels), "bvh" (for sparse or very large
+     * levels) or "linear" (all the blocks).
+     *
+     * @return the name of the collision index
+     */
+    String collisionIndex();
 }
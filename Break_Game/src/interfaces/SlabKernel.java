@@ -0,0 +1,35 @@
+package interfaces;
+
+/**
+ * the first (broad) test of a moving circle against many boxes at once:
+ * the boxes are packed in arrays, and for each box the kernel finds when
+ * the center of the circle enters the box grown by the radius (the slab
+ * method). a circle can touch a box only if its center enters the grown box,
+ * and not before that time, so only these boxes need the exact test.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-07-01
+ */
+public interface SlabKernel {
+
+    /**
+     * find the enter times of the center into the grown boxes.
+     * a center that starts in a grown box enters it at 0.
+     *
+     * @param left the left of each box
+     * @param top the top of each box
+     * @param right the right of each box
+     * @param bottom the bottom of each box
+     * @param count the number of boxes (from index 0)
+     * @param x the x value of the start of the center
+     * @param y the y value of the start of the center
+     * @param dx the move of the center on the x axis
+     * @param dy the move of the center on the y axis
+     * @param r the radius to grow the boxes by
+     * @param times the enter time of each box (from 0 to 1), or Double.POSITIVE_INFINITY
+     *              if the center doesn't enter it
+     */
+    void enterTimes(double[] left, double[] top, double[] right, double[] bottom, int count,
+                    double x, double y, double dx, double dy, double r, double[] times);
+}
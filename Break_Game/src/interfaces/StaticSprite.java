@@ -0,0 +1,12 @@
+package interfaces;
+
+/**
+ * A sprite that doesn't change with time: its timePassed does nothing,
+ * so the SpriteCollection doesn't call it.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-21
+ */
+public interface StaticSprite extends Sprite {
+}
@@ -0,0 +1,19 @@
+package interfaces;
+
+/**
+ * an object that is told about each simulation step of a level,
+ * before the sprites get the time.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-28
+ */
+public interface StepListener {
+
+    /**
+     * called before each simulation step.
+     *
+     * @param dt the amount of seconds of the step
+     */
+    void beforeStep(double dt);
+}
@@ -0,0 +1,30 @@
+package interfaces;
+
+import biuoop.DrawSurface;
+
+/**
+ * An Animation that can advance its simulation in fixed steps,
+ * separately from drawing it.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-16
+ */
+public interface SteppedAnimation extends Animation {
+
+    /**
+     * advance the simulation by one step.
+     *
+     * @param dt the fixed amount of seconds of the step
+     */
+    void step(double dt);
+
+    /**
+     * draw the current state.
+     *
+     * @param d the DrawSurface to draw with
+     * @param alpha how far (from 0 to 1) the time is between the
+     *              previous step and the last step
+     */
+    void render(DrawSurface d, double alpha);
+}
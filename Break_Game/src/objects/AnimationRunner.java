@@ -6,6 +6,8 @@ import biuoop.GUI;
 import biuoop.Sleeper;
 
 import interfaces.Animation;
+import interfaces.Sprite;
+import interfaces.SteppedAnimation;
 
 /**
  * Run the Animation.
@@ -16,10 +18,20 @@ import interfaces.Animation;
  */
 public class AnimationRunner {
 
+    // the most steps that run before a frame is drawn, the rest of the late time is dropped
+    private static final int MAX_CATCH_UP_STEPS = 5;
+
     private GUI gui;
     private int framesPerSecond;
+    private int stepsPerSecond;  // 0 if the simulation runs once per frame
     private Sleeper sleeper;
 
+    // statistics
+    private long simulationSteps;
+    private long renderedFrames;
+    private FrameStats frameStats;  // the times of the phases of the frames
+    private Sprite overlay;  // drawn over every frame, or null
+
     /**
      * create the AnimationRunner.
      *
@@ -27,9 +39,78 @@ public class AnimationRunner {
      * @param framesPerSecond the frames Per Second
      */
     public AnimationRunner(GUI gui, int framesPerSecond) {
+        this(gui, framesPerSecond, 0);
+    }
+
+    /**
+     * create the AnimationRunner that runs a SteppedAnimation
+     * in fixed steps, separately from drawing it.
+     *
+     * @param gui the GUI
+     * @param framesPerSecond the frames Per Second
+     * @param stepsPerSecond the simulation steps per second
+     *                       (0 to simulate once per frame)
+     */
+    public AnimationRunner(GUI gui, int framesPerSecond, int stepsPerSecond) {
         this.gui = gui;
         this.framesPerSecond = framesPerSecond;
+        this.stepsPerSecond = stepsPerSecond;
         this.sleeper = new Sleeper();
+        this.simulationSteps = 0;
+        this.renderedFrames = 0;
+        this.frameStats = new FrameStats();
+        this.overlay = null;
+    }
+
+    /**
+     * get the number of the simulation steps that ran.
+     *
+     * @return the number of simulation steps
+     */
+    public long getSimulationSteps() {
+        return this.simulationSteps;
+    }
+
+    /**
+     * get the number of simulation steps in a second, the time of
+     * a step of a SteppedAnimation is 1 / the rate.
+     *
+     * @return the steps per second, or the frames per second if the
+     *         simulation runs once per frame
+     */
+    public int getStepRate() {
+        if (this.stepsPerSecond > 0) {
+            return this.stepsPerSecond;
+        }
+        return this.framesPerSecond;
+    }
+
+    /**
+     * get the number of the frames that were drawn.
+     *
+     * @return the number of drawn frames
+     */
+    public long getRenderedFrames() {
+        return this.renderedFrames;
+    }
+
+    /**
+     * get the times of the frames.
+     *
+     * @return the frame statistics
+     */
+    public FrameStats getFrameStats() {
+        return this.frameStats;
+    }
+
+    /**
+     * set a sprite that is drawn over every frame (after the animation),
+     * like the frame times. it doesn't get timePassed.
+     *
+     * @param sprite the sprite, or null for none
+     */
+    public void setOverlay(Sprite sprite) {
+        this.overlay = sprite;
     }
 
     /**
@@ -50,20 +131,108 @@ public class AnimationRunner {
      * @param animation the animation to run
      */
     public void run(Animation animation) {
+        if (this.stepsPerSecond > 0 && animation instanceof SteppedAnimation) {
+            this.runFixedSteps((SteppedAnimation) animation);
+            return;
+        }
+
         int millisecondsPerFrame = 1000 / this.framesPerSecond;
 
         while (!animation.shouldStop()) {
            long startTime = System.currentTimeMillis(); // timing
+           long frameStart = System.nanoTime();
+           this.frameStats.frameStarted(frameStart);
            DrawSurface d = gui.getDrawSurface();
 
+           // the frame is moved and drawn together, it is counted as the update
            animation.doOneFrame(d, 1.0 / ((double) framesPerSecond));
+           long updated = System.nanoTime();
+           this.frameStats.record(FrameStats.UPDATE, updated - frameStart);
 
-           gui.show(d);
+           this.show(d, updated);
+           this.simulationSteps++;
+           this.renderedFrames++;
            long usedTime = System.currentTimeMillis() - startTime;
            long milliSecondLeftToSleep = millisecondsPerFrame - usedTime;
            if (milliSecondLeftToSleep > 0) {
-               this.sleeper.sleepFor(milliSecondLeftToSleep);
+               this.sleep(milliSecondLeftToSleep);
            }
         }
      }
+
+    /**
+     * Run the animation with a fixed simulation step:
+     * the passed time is collected, and the simulation runs one step
+     * for each step time that passed. then a frame is drawn between
+     * the last two steps.
+     *
+     * @param animation the animation to run
+     */
+    private void runFixedSteps(SteppedAnimation animation) {
+        long nanosPerStep = 1000000000L / this.stepsPerSecond;
+        long nanosPerFrame = 1000000000L / this.framesPerSecond;
+        double dt = 1.0 / ((double) this.stepsPerSecond);
+
+        long accumulator = 0;  // the time that wasn't simulated yet
+        long previous = System.nanoTime();
+
+        while (!animation.shouldStop()) {
+            long frameStart = System.nanoTime();
+            this.frameStats.frameStarted(frameStart);
+            accumulator += frameStart - previous;
+            previous = frameStart;
+
+            int steps = 0;
+            while (accumulator >= nanosPerStep && steps < MAX_CATCH_UP_STEPS && !animation.shouldStop()) {
+                animation.step(dt);
+                accumulator -= nanosPerStep;
+                steps++;
+                this.simulationSteps++;
+            }
+            if (accumulator >= nanosPerStep) {  // too late to catch up
+                accumulator %= nanosPerStep;
+            }
+
+            long updated = System.nanoTime();
+            this.frameStats.record(FrameStats.UPDATE, updated - frameStart);
+
+            DrawSurface d = gui.getDrawSurface();
+            animation.render(d, (double) accumulator / nanosPerStep);
+            this.show(d, updated);
+            this.renderedFrames++;
+
+            long nanoSecondLeftToSleep = nanosPerFrame - (System.nanoTime() - frameStart);
+            if (nanoSecondLeftToSleep >= 1000000) {
+                this.sleep(nanoSecondLeftToSleep / 1000000);
+            }
+        }
+    }
+
+    /**
+     * draw the overlay on the frame and show it, and count the time of
+     * the draw (from the given start) and of the show.
+     *
+     * @param d the drawn frame
+     * @param drawStart the time the draw started in nanoseconds
+     */
+    private void show(DrawSurface d, long drawStart) {
+        if (this.overlay != null) {
+            this.overlay.drawOn(d);
+        }
+        long drawn = System.nanoTime();
+        this.frameStats.record(FrameStats.DRAW, drawn - drawStart);
+        gui.show(d);
+        this.frameStats.record(FrameStats.SHOW, System.nanoTime() - drawn);
+    }
+
+    /**
+     * sleep, and count the time that the sleep was longer than it was asked for.
+     *
+     * @param milliseconds the time to sleep
+     */
+    private void sleep(long milliseconds) {
+        long start = System.nanoTime();
+        this.sleeper.sleepFor(milliseconds);
+        this.frameStats.record(FrameStats.OVERSHOOT, System.nanoTime() - start - milliseconds * 1000000);
+    }
 }
@@ -1,10 +1,12 @@
 package objects;
 
 import java.awt.Color;
+import java.nio.ByteBuffer;
+import java.util.List;
 
 import game.GameLevel;
 
-import interfaces.Sprite;
+import interfaces.InterpolatedSprite;
 
 import biuoop.DrawSurface;
 
@@ -16,12 +18,19 @@ import biuoop.DrawSurface;
  * @version 1.1
  * @since 2018-03-23
  */
-public class Ball implements Sprite {
+public class Ball implements InterpolatedSprite {
+
+    private static final int MAX_BOUNCES = 4;  // the most touches in one step
 
     private int size;  // the radius of the ball
     private Color color;  // the color of the ball
-    private Point location;  // the location of the ball in [XY] axes
+    private double x;  // the x location of the ball in [XY] axes
+    private double y;  // the y location of the ball in [XY] axes
+    private double prevX;  // the x location before the last step
+    private double prevY;  // the y location before the last step
     private Velocity velocity; // the velocity of the ball
+    private Velocity dtVec;  // the movement of the current step -- reused on each step
+    private double[] place;  // the center while it moves -- reused on each step
     private Point strartP;  // the start point of the screen
     private Point endP;  // the end point of the screen
     private GameEnvironment gameEnv;  // the GameEnvironment of the ball
@@ -37,8 +46,13 @@ public class Ball implements Sprite {
     public Ball(Point center, int r, java.awt.Color color) {
         this.size = r;
         this.color = color;
-        this.location = center;
+        this.x = center.getX();
+        this.y = center.getY();
+        this.prevX = this.x;
+        this.prevY = this.y;
         this.velocity = new Velocity(0, 0);  // the ball is static
+        this.dtVec = new Velocity(0, 0);
+        this.place = new double[2];
         setScreenSize(new Point(0, 0), new Point(800, 800));  // default
         this.gameEnv = null;
     }
@@ -72,7 +86,7 @@ public class Ball implements Sprite {
      * @return the x value of the ball in the [XY] axes
      */
     public int getX() {
-        return (int) this.location.getX();
+        return (int) this.x;
     }
 
     /**
@@ -81,7 +95,25 @@ public class Ball implements Sprite {
      * @return the y value of the ball in the [XY] axes
      */
     public int getY() {
-        return (int) this.location.getY();
+        return (int) this.y;
+    }
+
+    /**
+     * get the exact x value of the center of the ball.
+     *
+     * @return the x value of the center
+     */
+    public double getCenterX() {
+        return this.x;
+    }
+
+    /**
+     * get the exact y value of the center of the ball.
+     *
+     * @return the y value of the center
+     */
+    public double getCenterY() {
+        return this.y;
     }
 
     /**
@@ -118,7 +150,8 @@ public class Ball implements Sprite {
      * @param v the velocity to change to
      */
     public void setVelocity(Velocity v) {
-        this.velocity = v;
+        // a copy, the ball changes its velocity on each step
+        this.velocity = new Velocity(v.getDx(), v.getDy());
     }
 
     /**
@@ -130,22 +163,25 @@ public class Ball implements Sprite {
     public void setScreenSize(Point p1, Point p2) {
         this.strartP = new Point(Math.min(p1.getX(), p2.getX()), Math.min(p1.getY(), p2.getY()));  // top left point
         this.endP = new Point(Math.max(p1.getX(), p2.getX()), Math.max(p1.getY(), p2.getY()));  // bottom right point
-        double posX = this.location.getX();  // the x position of the center
-        double posY = this.location.getY();  // the y position of the center
+        double posX = this.x;  // the x position of the center
+        double posY = this.y;  // the y position of the center
 
-        if (this.location.getX() - this.size < this.strartP.getX()) {
+        if (this.x - this.size < this.strartP.getX()) {
             posX = this.strartP.getX() + this.size;
-        } else if (this.location.getX() + this.size > this.endP.getX()) {
+        } else if (this.x + this.size > this.endP.getX()) {
             posX = this.endP.getX() - this.size;
         }
 
-        if (this.location.getY() - this.size < this.strartP.getY()) {
+        if (this.y - this.size < this.strartP.getY()) {
             posY = this.strartP.getY() + this.size;
-        } else if (this.location.getY() + this.size > this.endP.getY()) {
+        } else if (this.y + this.size > this.endP.getY()) {
             posY = this.endP.getY() - this.size;
         }
 
-        this.location = new Point(posX, posY);
+        this.x = posX;
+        this.y = posY;
+        this.prevX = posX;
+        this.prevY = posY;
     }
 
     /**
@@ -167,6 +203,31 @@ public class Ball implements Sprite {
         this.velocity = new Velocity(dx, dy);
     }
 
+    /**
+     * write the state of the ball that changes while it moves: its place,
+     * its place before the last step and its velocity (6 doubles).
+     *
+     * @param out the buffer to write to
+     */
+    public void saveState(ByteBuffer out) {
+        out.putDouble(this.x).putDouble(this.y).putDouble(this.prevX).putDouble(this.prevY);
+        out.putDouble(this.velocity.getDx()).putDouble(this.velocity.getDy());
+    }
+
+    /**
+     * read the state of the ball that saveState wrote.
+     *
+     * @param in the buffer to read from
+     */
+    public void loadState(ByteBuffer in) {
+        this.x = in.getDouble();
+        this.y = in.getDouble();
+        this.prevX = in.getDouble();
+        this.prevY = in.getDouble();
+        double dx = in.getDouble();
+        this.velocity = new Velocity(dx, in.getDouble());
+    }
+
     @Override
     public void drawOn(DrawSurface surface) {
         surface.setColor(this.color);  // set the color to the ball color
@@ -175,272 +236,168 @@ public class Ball implements Sprite {
         surface.drawCircle(this.getX(), this.getY(), this.size);  // create the circle
     }
 
+    @Override
+    public void drawOn(DrawSurface surface, double alpha) {
+        int drawX = (int) (this.prevX + (this.x - this.prevX) * alpha);
+        int drawY = (int) (this.prevY + (this.y - this.prevY) * alpha);
+
+        surface.setColor(this.color);  // set the color to the ball color
+        surface.fillCircle(drawX, drawY, this.size);  // create the circle
+        surface.setColor(Color.BLACK);  // set the color to the border of the ball
+        surface.drawCircle(drawX, drawY, this.size);  // create the circle
+    }
+
     /**
      * moving one step forward.
+     * the ball is a circle that moves until it touches something, bounces,
+     * and goes on with the rest of the step (up to MAX_BOUNCES touches),
+     * so a fast ball doesn't pass through a block.
+     * objects are created only when the ball hits something.
      *
      * @param dt the amount of seconds passed since the last call
      */
     public void moveOneStep(double dt) {
+        this.prevX = this.x;
+        this.prevY = this.y;
 
-        Velocity dtVec = new Velocity(this.velocity.getDx() * dt, this.velocity.getDy() * dt);
-
-        Point nextPoint = dtVec.applyToPoint(this.location);  // the next point of movement
-        Line trajectory = new Line(this.location, nextPoint);  // the way without obstacles
-        CollisionInfo theClosestObstacle = this.gameEnv.getClosestCollision(trajectory);
-        if (theClosestObstacle != null) {
+        Velocity step = this.dtVec;
+        step.setDx(this.velocity.getDx() * dt);
+        step.setDy(this.velocity.getDy() * dt);
 
-            this.location = moveTheBallToClosePoint(theClosestObstacle.collisionPoint(), dtVec);
+        this.place[0] = this.x;
+        this.place[1] = this.y;
+        move(this.gameEnv, this, this.size, this.place, step);
+        this.x = this.place[0];
+        this.y = this.place[1];
 
-            Block insideBlock = pointInblock();
-            if (insideBlock != null) {
-                this.location = moveTheBallOutOfTheBlock(insideBlock, dtVec);
-            }
-
-            dtVec = theClosestObstacle.collisionObject().hit(this, theClosestObstacle.collisionPoint(), dtVec);
-
-        } else {
-                this.location = dtVec.applyToPoint(this.location);
-        }
-
-        ///////////////////
-        Paddle pad = this.getGamePaddle();
-        double epsilone = 0.01;
-
-        //System.out.println("velocity is: " + this.velocity);
-        if (pad != null) {
-            if (this.isInPaddle(pad, this.location)) {
-                this.location = moveFromPaddle(pad, dtVec);
-
-                /*
-                double paddleUpperY = pad.getCollisionRectangle().getUpperLeft().getY();
-                double newX = pad.getCollisionRectangle().getUpperLeft().getX()
-                              + pad.getCollisionRectangle().getWidth() / 2;
-
-                this.location = new Point(newX, paddleUpperY - epislon);
-                this.velocity = pad.hit(new Point(newX, paddleUpperY), this.velocity);
-                */
-            } else if (theClosestObstacle != null) {
-                if (theClosestObstacle.collisionObject() instanceof Paddle) {
-                    if (this.location.getY() > pad.getCollisionRectangle().getUpperLeft().getY()) {
-                        dtVec.setDx(-1 * dtVec.getDx());
-                    }
-                }
-            }
-
-            /*if (this.velocity.getDy() > 0 && this.location.getY() > this.endP.getY() - epsilone) {
-                this.location = new Point(this.location.getX(), this.endP.getY() - epsilone);
-                this.velocity.setDy(-1 * Math.abs(this.velocity.getDy()));
-            }*/
-        }
-
-        // check if the block is not go out of the frame
-        if (this.location.getX() > this.endP.getX()) {
-            this.location = new Point(this.endP.getX() - epsilone, this.location.getY());
-            dtVec.setDx(Math.abs(-1 * dtVec.getDx()));
-
-        } else if (this.location.getX() < this.strartP.getX()) {
-            this.location = new Point(this.strartP.getX() + epsilone, this.location.getY());
-            dtVec.setDx(Math.abs(dtVec.getDx()));
-        }
-
-        if (this.location.getY() < this.strartP.getY() + epsilone) {
-            this.location = new Point(this.location.getX(), this.strartP.getY() + epsilone);
-            dtVec.setDy(Math.abs(dtVec.getDy()));
-
-        }
-        /*else if (this.location.getY() > this.endP.getY() - epsilone) {
-            this.location = new Point(this.location.getX(), this.endP.getY() - epsilone);
-            this.velocity.setDy(-1 * Math.abs(this.velocity.getDy()));
-        }*/
-
-        // check if the ball not enter to a block
-        Block insideBlock = pointInblock();
-        if (insideBlock != null) {
-            this.location = moveTheBallOutOfTheBlock(insideBlock, dtVec);
-        }
-
-        this.velocity = new Velocity(dtVec.getDx() / dt, dtVec.getDy() / dt);
-        //System.out.println("location: " + this.location + "   velocity: " + this.velocity);
-        ///////////////////
+        this.velocity.setDx(step.getDx() / dt);
+        this.velocity.setDy(step.getDy() / dt);
     }
 
     /**
-     * moving the ball outside the block.
+     * move a ball one step (the way of moveOneStep), on primitive values,
+     * so a ball that is kept in a BallSystem moves exactly like a Ball.
      *
-     * @param block the block
-     * @param dtVec the velocity
-     * @return a point outside the block
+     * @param env the game environment
+     * @param hitter the ball that is given to the objects it hits
+     * @param r the radius of the ball
+     * @param place the center of the ball (x in place[0], y in place[1]), changed to the new center
+     * @param step the movement of the step, changed to the movement after the bounces
      */
-    private Point moveTheBallOutOfTheBlock(Block block, Velocity dtVec) {
-        double epsilon = 0.01;
-
-        double valueX = this.location.getX();
-        double valueY = this.location.getY();
-
-        double startXblock = block.getCollisionRectangle().getUpperLeft().getX();
-        double startYblock = block.getCollisionRectangle().getUpperLeft().getY();
-        double endXblock = block.getCollisionRectangle().getLineArr()[1].end().getX();
-        double endYblock = block.getCollisionRectangle().getLineArr()[1].end().getY();
-
-        if (dtVec.getDx() > 0) {
-            valueX = startXblock - epsilon;
-        } else if (dtVec.getDx() < 0) {
-            valueX = endXblock + epsilon;
-        }
-
-        if (dtVec.getDy() > 0) {
-            valueY = startYblock - epsilon;
-
-        } else if (dtVec.getDy() < 0) {
-            valueY = endYblock + epsilon;
-        }
-
-        return new Point(valueX, valueY);
+    static void move(GameEnvironment env, Ball hitter, int r, double[] place, Velocity step) {
+        move(env, null, hitter, r, place, step, null, null);
     }
 
     /**
-     * check if the ball in any block.
+     * move a ball one step, like move(env, hitter, r, place, step).
+     * if hits is not null the objects are not hit, only their deflect is
+     * used (so nothing is changed but place and step): each touch is added
+     * to hits, and the velocity before it to hitVelocities, so the objects
+     * can be hit later in the same order.
      *
-     * @return if exist block the ball inside it return the block
-     *         otherwise null.
+     * @param env the game environment
+     * @param query the query state of the calling thread, or null for the one of env
+     * @param hitter the ball that is given to the objects it hits (not used if hits is not null)
+     * @param r the radius of the ball
+     * @param place the center of the ball, changed to the new center
+     * @param step the movement of the step, changed to the movement after the bounces
+     * @param hits the list to add the touches to, or null to hit the objects
+     * @param hitVelocities the list to add the velocities before the touches to
+     * @return true if a paddle pushed the ball out of it
      */
-    private Block pointInblock() {
-        for (int i = 0; i < this.gameEnv.getSize(); i++) {
-            if (this.gameEnv.getIndexI(i) instanceof Block) {
-                Rectangle rec = this.gameEnv.getIndexI(i).getCollisionRectangle();
-                if (rec.inPointInRec(this.location)) {
-                    return (Block) this.gameEnv.getIndexI(i);
-                }
-            }
+    static boolean move(GameEnvironment env, GameEnvironment.Query query, Ball hitter, int r, double[] place,
+                        Velocity step, List<CollisionInfo> hits, List<Velocity> hitVelocities) {
+        // the paddle moves by itself, it can move into the ball
+        boolean pushed = false;
+        List<Paddle> paddles = env.getPaddles();
+        for (int i = 0; i < paddles.size(); i++) {
+            pushed |= moveOutOfPaddle(env, paddles.get(i), r, place, step);
         }
-        return null;
-    }
-
-    /**
-     * in a case that the ball intersect with the vertical lines of the paddle.
-     *
-     * @param pad the paddle
-     * @param dtVec the velocity
-     * @return a new Point outside the paddle with the current speed
-     */
-    private Point moveFromPaddle(Paddle pad, Velocity dtVec) {
-        double epsilone = 0.015;
-        double midPaddle = pad.getCollisionRectangle().getUpperLeft().getX()
-                           + pad.getCollisionRectangle().getWidth() / 2;
-        Point newPoint = new Point(this.location.getX(), this.location.getY());
-        if (dtVec.getDx() > 0 && this.location.getX() <= midPaddle) {
-            dtVec.setDx(-1 * dtVec.getDx());
-
-            if (pad.getCollisionRectangle().getUpperLeft().getX() > pad.getPaddleMove() + epsilone) {
-                newPoint = new Point(pad.getCollisionRectangle().getUpperLeft().getX() - pad.getPaddleMove() - epsilone,
-                                        this.location.getY());
-            } else {
-                newPoint = new Point(epsilone, this.location.getY());
-            }
 
-        } else if (dtVec.getDx() < 0 && this.location.getX() <= midPaddle) {
-            if (pad.getCollisionRectangle().getUpperLeft().getX() > pad.getPaddleMove() + epsilone) {
-                newPoint = new Point(pad.getCollisionRectangle().getUpperLeft().getX() - pad.getPaddleMove() - epsilone,
-                                        this.location.getY());
+        double rest = 1;  // the part of the step that is left
+        for (int bounce = 0; bounce < MAX_BOUNCES && rest > 0; bounce++) {
+            CollisionInfo hit;
+            if (query == null) {
+                hit = env.getClosestCollision(place[0], place[1], step.getDx() * rest, step.getDy() * rest, r);
             } else {
-                newPoint = new Point(epsilone, this.location.getY());
+                hit = env.getClosestCollision(place[0], place[1], step.getDx() * rest, step.getDy() * rest, r,
+                                              query);
             }
-
-        } else if (dtVec.getDx() < 0 && this.location.getX() > midPaddle) {
-            dtVec.setDx(-1 * dtVec.getDx());
-
-            if (pad.getCollisionRectangle().getLineArr()[1].end().getX() < this.endP.getX()
-                                                                           - pad.getPaddleMove() - epsilone) {
-                newPoint = new Point(pad.getCollisionRectangle().getLineArr()[1].end().getX() + pad.getPaddleMove()
-                                     + epsilone, this.location.getY());
-            } else {
-                newPoint = new Point(this.endP.getX() - epsilone, this.location.getY());
+            if (hit == null) {
+                place[0] += step.getDx() * rest;
+                place[1] += step.getDy() * rest;
+                break;
             }
 
-        } else if (dtVec.getDx() > 0 && this.location.getX() > midPaddle) {
+            // move until the touch
+            place[0] += step.getDx() * rest * hit.time();
+            place[1] += step.getDy() * rest * hit.time();
+            rest *= 1 - hit.time();
 
-            if (pad.getCollisionRectangle().getLineArr()[1].end().getX() < this.endP.getX()
-                                                                           - pad.getPaddleMove() - epsilone) {
-                newPoint = new Point(pad.getCollisionRectangle().getLineArr()[1].end().getX() + pad.getPaddleMove()
-                                     + epsilone, this.location.getY());
+            Velocity afterHit;
+            if (hits == null) {
+                afterHit = hit.collisionObject().hit(hitter, hit.collisionPoint(), step);
             } else {
-                newPoint = new Point(this.endP.getX() - epsilone, this.location.getY());
+                hits.add(hit);
+                hitVelocities.add(new Velocity(step.getDx(), step.getDy()));
+                afterHit = hit.collisionObject().deflect(hit.collisionPoint(), step);
             }
-
-        } else {  // the velocity == 0
-            /*this.velocity = pad.hit(this, new Point(this.location.getX(),
-                                      pad.getCollisionRectangle().getUpperLeft().getY()),
-                                      this.velocity);
-            newPoint = new Point(this.location.getX(), pad.getCollisionRectangle().getUpperLeft().getY() - epsilone);*/
-
-            if (this.location.getX() > midPaddle) {
-
-                if (pad.getCollisionRectangle().getLineArr()[1].end().getX() < this.endP.getX()
-                        - pad.getPaddleMove() - epsilone) {
-
-                    newPoint = new Point(pad.getCollisionRectangle().getLineArr()[1].end().getX() + pad.getPaddleMove()
-                               + epsilone, this.location.getY());
-                } else {
-                    newPoint = new Point(this.endP.getX() - epsilone, this.location.getY());
-                }
-            } else {
-
-                if (pad.getCollisionRectangle().getUpperLeft().getX() > pad.getPaddleMove() + epsilone) {
-                    newPoint = new Point(pad.getCollisionRectangle().getUpperLeft().getX()
-                                         - pad.getPaddleMove() - epsilone,
-                                            this.location.getY());
-                } else {
-                    newPoint = new Point(epsilone, this.location.getY());
-                }
+            double dx = afterHit.getDx();
+            double dy = afterHit.getDy();
+
+            // an object that doesn't turn the ball away (like the side of the paddle)
+            // reflects it on the normal of the touch
+            double into = dx * hit.normalX() + dy * hit.normalY();
+            if (into < 0) {
+                dx -= 2 * into * hit.normalX();
+                dy -= 2 * into * hit.normalY();
             }
+            step.setDx(dx);
+            step.setDy(dy);
         }
-
-       /** if (this.velocity.getDy() > 0 && ((newPoint.getY() > this.endP.getY() - epsilone)
-                                            || this.location.getY() > this.endP.getY() - epsilone)) {
-
-            newPoint = new Point(newPoint.getX(), this.endP.getY() - epsilone);
-            this.velocity.setDy(-1 * this.velocity.getDy());
-        }*/
-        return newPoint;
+        return pushed;
     }
 
     /**
-     * check if the point in the paddle.
+     * if the paddle moved into the ball, move the ball out to the closest side
+     * of the paddle that has room for it (the top always has), and turn it
+     * away from the paddle.
      *
+     * @param env the game environment
      * @param pad the paddle
-     * @param p the point to check
-     * @return true if in the paddle else, false
+     * @param r the radius of the ball
+     * @param place the center of the ball
+     * @param step the movement of the step
+     * @return true if the ball was moved
      */
-    private boolean isInPaddle(Paddle pad, Point p) {
+    private static boolean moveOutOfPaddle(GameEnvironment env, Paddle pad, int r, double[] place, Velocity step) {
         Rectangle rec = pad.getCollisionRectangle();
-        return rec.inPointInRec(p);
-    }
-
-    /**
-     * moving the ball almost to the point.
-     *
-     * @param pointToGo the point to go to
-     * @param dtVec the velocity
-     * @return the new ball location
-     */
-    private Point moveTheBallToClosePoint(Point pointToGo, Velocity dtVec) {
-        double valueX = pointToGo.getX();  // the x value
-        double valueY = pointToGo.getY();  // the y value
-        double epsilon = 0.015;
-
-        if (dtVec.getDx() > 0) {
-            valueX -= epsilon;
-        } else if (dtVec.getDx() < 0) {
-            valueX += epsilon;
+        double x = place[0];
+        double y = place[1];
+        double qx = Math.max(rec.getLeft(), Math.min(rec.getRight(), x));
+        double qy = Math.max(rec.getTop(), Math.min(rec.getBottom(), y));
+        if ((x - qx) * (x - qx) + (y - qy) * (y - qy) >= r * r) {
+            return false;
         }
 
-        if (dtVec.getDy() > 0) {
-            valueY -= epsilon;
-        } else if (dtVec.getDy() < 0) {
-            valueY += epsilon;
+        double toTop = y + r - rec.getTop();
+        double toLeft = x + r - rec.getLeft();
+        double toRight = rec.getRight() - (x - r);
+        // the far side of the ball on each side, not in a block (like a border)
+        boolean leftRoom = env.getBlockAt(rec.getLeft() - 2 * r, y) == null;
+        boolean rightRoom = env.getBlockAt(rec.getRight() + 2 * r, y) == null;
+
+        if (leftRoom && toLeft < toTop && (!rightRoom || toLeft <= toRight)) {
+            place[0] = rec.getLeft() - r;
+            step.setDx(-Math.abs(step.getDx()));
+        } else if (rightRoom && toRight < toTop) {
+            place[0] = rec.getRight() + r;
+            step.setDx(Math.abs(step.getDx()));
+        } else {
+            place[1] = rec.getTop() - r;
+            step.setDy(-Math.abs(step.getDy()));
         }
-
-        return new Point(valueX, valueY);
+        return true;
     }
 
     @Override
@@ -457,20 +414,6 @@ public class Ball implements Sprite {
         g.getSpriteCollection().addSprite(this);
     }
 
-    /**
-     * get the game paddle.
-     *
-     * @return the game paddle
-     */
-    private Paddle getGamePaddle() {
-       for (int i = 0; i < this.gameEnv.getSize(); i++) {
-           if (this.gameEnv.getIndexI(i) instanceof Paddle) {
-                return (Paddle) this.gameEnv.getIndexI(i);
-           }
-       }
-        return null;
-    }
-
     /**
      * remove the block from the game.
      *
@@ -0,0 +1,623 @@
+package objects;
+
+import java.awt.Color;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import biuoop.DrawSurface;
+
+import game.GameLevel;
+
+import interfaces.Collidable;
+import interfaces.InterpolatedSprite;
+
+/**
+ * the balls of a level, kept in parallel arrays (a slot of each array for
+ * each ball) instead of a Ball object for each one, and moved in one loop.
+ * a ball moves exactly like a Ball (by Ball.move), in the order the balls
+ * were added.
+ * the objects that a ball hits get a Ball that is a proxy of its slot, so
+ * the hit listeners (like BallRemover) work the same: removing the proxy
+ * from the game removes the ball from the system. the proxy of a slot is
+ * created the first time it is needed, and it is kept for the balls that
+ * get the slot after it.
+ *
+ * with workers (setWorkers), a step of many balls has two phases: the
+ * workers move the balls on copies of their state, and don't hit the
+ * objects (only Collidable.deflect is used, the environment is only read),
+ * and then the balls are merged in their order on this thread: the objects
+ * that a ball touched are hit in the order of its touches, and its new
+ * state is written. the result is the same as moving the balls one by one,
+ * as long as a hit only removes the object that was hit, removes balls or
+ * changes their velocity. a ball whose move could be different because of
+ * the hits of the balls before it (it touched an object that was removed,
+ * it touched an object twice, its velocity was changed, an object was
+ * added, or a paddle pushed it) is moved again on this thread.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-30
+ */
+public class BallSystem implements InterpolatedSprite {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final int PARALLEL_MIN = 256;  // the fewest balls that the workers move
+
+    private GameEnvironment env;
+
+    // the state of the balls, slot i of each array is the ball i
+    private double[] x;
+    private double[] y;
+    private double[] prevX;  // the place before the last step
+    private double[] prevY;
+    private double[] dx;  // the velocity, in pixels per second
+    private double[] dy;
+    private int[] radius;
+    private int[] colors;  // the index of the color in the palette
+    private boolean[] alive;
+    private Ball[] proxies;  // the proxy of each slot, null until it is needed
+    private int slots;  // the number of balls that were added
+
+    private int[] live;  // the slots of the balls in the game, in the order they were added
+    private int liveCount;
+    private boolean stepping;  // the balls are moving, the removed slots are dropped after it
+    private boolean removed;
+
+    private List<Color> palette;
+    private Map<Color, Integer> paletteIndexes;
+
+    // reused on each step
+    private double[] place;
+    private Velocity step;
+
+    // the workers, and the moves that they found, by slot
+    private ExecutorService workers;
+    private List<Callable<Void>> parts;
+    private double stepTime;  // the dt of the step the workers do
+    private double[] startDx;  // the velocity the move started with
+    private double[] startDy;
+    private double[] nextX;  // the place after the move
+    private double[] nextY;
+    private double[] nextDx;  // the movement of the step after the bounces
+    private double[] nextDy;
+    private boolean[] pushed;  // a paddle pushed the ball
+    private List<List<CollisionInfo>> hits;  // the touches of the move
+    private List<List<Velocity>> hitVelocities;  // the velocity before each touch
+
+    /**
+     * create an empty system.
+     *
+     * @param env the game environment that the balls move in
+     */
+    public BallSystem(GameEnvironment env) {
+        this.env = env;
+        this.palette = new ArrayList<Color>();
+        this.paletteIndexes = new HashMap<Color, Integer>();
+        this.place = new double[2];
+        this.step = new Velocity(0, 0);
+        this.hits = new ArrayList<List<CollisionInfo>>();
+        this.hitVelocities = new ArrayList<List<Velocity>>();
+        this.allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * move the balls of each step on worker threads, when there are many
+     * of them. the result is the same as without workers.
+     *
+     * @param pool the threads to run the workers on, or null for no workers
+     * @param count the number of workers, each one moves a part of the balls
+     */
+    public void setWorkers(ExecutorService pool, int count) {
+        this.workers = pool;
+        this.parts = new ArrayList<Callable<Void>>();
+        for (int p = 0; p < count && pool != null; p++) {
+            this.parts.add(new Part(p, count));
+        }
+    }
+
+    /**
+     * create the arrays (the balls are removed).
+     *
+     * @param capacity the number of slots
+     */
+    private void allocate(int capacity) {
+        this.x = new double[capacity];
+        this.y = new double[capacity];
+        this.prevX = new double[capacity];
+        this.prevY = new double[capacity];
+        this.dx = new double[capacity];
+        this.dy = new double[capacity];
+        this.radius = new int[capacity];
+        this.colors = new int[capacity];
+        this.alive = new boolean[capacity];
+        this.proxies = new Ball[capacity];
+        this.live = new int[capacity];
+        this.slots = 0;
+        this.liveCount = 0;
+    }
+
+    /**
+     * remove all the balls, the slots (and their proxies) are used again from 0.
+     */
+    public void clear() {
+        Arrays.fill(this.alive, 0, this.slots, false);
+        this.slots = 0;
+        this.liveCount = 0;
+        this.removed = false;
+    }
+
+    /**
+     * add a ball: its place, velocity, radius and color are copied.
+     *
+     * @param ball the ball
+     * @return the slot of the ball
+     */
+    public int add(Ball ball) {
+        if (this.slots == this.x.length) {
+            this.grow();
+        }
+        int i = this.slots++;
+        this.x[i] = ball.getCenterX();
+        this.y[i] = ball.getCenterY();
+        this.prevX[i] = this.x[i];
+        this.prevY[i] = this.y[i];
+        this.dx[i] = ball.getVelocity().getDx();
+        this.dy[i] = ball.getVelocity().getDy();
+        this.radius[i] = ball.getSize();
+        this.colors[i] = this.colorIndex(ball.getColor());
+        this.alive[i] = true;
+        this.live[this.liveCount++] = i;
+        return i;
+    }
+
+    /**
+     * remove a ball from the game. while the balls move, it is dropped
+     * from the order after all of them moved.
+     *
+     * @param i the slot of the ball
+     */
+    public void remove(int i) {
+        if (i >= this.slots || !this.alive[i]) {
+            return;
+        }
+        this.alive[i] = false;
+        this.removed = true;
+        if (!this.stepping) {
+            this.dropRemoved();
+        }
+    }
+
+    /**
+     * check if a ball is in the game.
+     *
+     * @param i the slot of the ball
+     * @return true if it was added and not removed
+     */
+    public boolean isAlive(int i) {
+        return i < this.slots && this.alive[i];
+    }
+
+    /**
+     * get the number of balls that were added since the last clear.
+     *
+     * @return the number of slots
+     */
+    public int slots() {
+        return this.slots;
+    }
+
+    /**
+     * get the number of balls in the game.
+     *
+     * @return the number of balls that were not removed
+     */
+    public int size() {
+        return this.liveCount;
+    }
+
+    /**
+     * get the ball of a slot, as the objects it hits get it.
+     * the proxy of the slot is created on the first time.
+     *
+     * @param i the slot of the ball
+     * @return the proxy of the slot
+     */
+    public Ball getBall(int i) {
+        if (this.proxies[i] == null) {
+            this.proxies[i] = new Proxy(i);
+        }
+        return this.proxies[i];
+    }
+
+    /**
+     * write the state of a ball that changes while it moves (like Ball.saveState).
+     *
+     * @param i the slot of the ball
+     * @param out the buffer to write to
+     */
+    public void saveState(int i, ByteBuffer out) {
+        out.putDouble(this.x[i]).putDouble(this.y[i]).putDouble(this.prevX[i]).putDouble(this.prevY[i]);
+        out.putDouble(this.dx[i]).putDouble(this.dy[i]);
+    }
+
+    /**
+     * read the state of a ball that saveState wrote.
+     *
+     * @param i the slot of the ball
+     * @param in the buffer to read from
+     */
+    public void loadState(int i, ByteBuffer in) {
+        this.x[i] = in.getDouble();
+        this.y[i] = in.getDouble();
+        this.prevX[i] = in.getDouble();
+        this.prevY[i] = in.getDouble();
+        this.dx[i] = in.getDouble();
+        this.dy[i] = in.getDouble();
+    }
+
+    @Override
+    public void timePassed(double dt) {
+        this.env.updateIndex();  // before the workers query the environment
+        int moved = 0;  // the balls that the workers moved
+        long added = this.env.getAddedCount();
+        if (this.workers != null && this.parts.size() > 1 && this.liveCount >= PARALLEL_MIN) {
+            this.runWorkers(dt);
+            moved = this.liveCount;
+        }
+
+        this.stepping = true;
+        try {
+            for (int k = 0; k < this.liveCount; k++) {
+                int i = this.live[k];
+                if (!this.alive[i]) {
+                    continue;
+                }
+                if (k < moved && this.env.getAddedCount() == added && this.isMoveValid(i)) {
+                    this.mergeMove(i, dt);
+                } else {
+                    this.moveOneStep(i, dt);
+                }
+            }
+        } finally {
+            this.stepping = false;
+        }
+        if (this.removed) {
+            this.dropRemoved();
+        }
+    }
+
+    /**
+     * move a ball one step.
+     *
+     * @param i the slot of the ball
+     * @param dt the amount of seconds passed since the last call
+     */
+    private void moveOneStep(int i, double dt) {
+        this.prevX[i] = this.x[i];
+        this.prevY[i] = this.y[i];
+        this.step.setDx(this.dx[i] * dt);
+        this.step.setDy(this.dy[i] * dt);
+
+        this.place[0] = this.x[i];
+        this.place[1] = this.y[i];
+        Ball.move(this.env, this.getBall(i), this.radius[i], this.place, this.step);
+        this.x[i] = this.place[0];
+        this.y[i] = this.place[1];
+
+        this.dx[i] = this.step.getDx() / dt;
+        this.dy[i] = this.step.getDy() / dt;
+    }
+
+    /**
+     * move the balls on the workers, the moves are kept in the next arrays.
+     *
+     * @param dt the amount of seconds passed since the last call
+     */
+    private void runWorkers(double dt) {
+        if (this.nextX == null || this.nextX.length < this.x.length) {
+            int capacity = this.x.length;
+            this.startDx = new double[capacity];
+            this.startDy = new double[capacity];
+            this.nextX = new double[capacity];
+            this.nextY = new double[capacity];
+            this.nextDx = new double[capacity];
+            this.nextDy = new double[capacity];
+            this.pushed = new boolean[capacity];
+        }
+        while (this.hits.size() < this.x.length) {
+            this.hits.add(new ArrayList<CollisionInfo>(4));
+            this.hitVelocities.add(new ArrayList<Velocity>(4));
+        }
+        this.stepTime = dt;
+
+        try {
+            for (Future<Void> done : this.workers.invokeAll(this.parts)) {
+                done.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Problem with moving the balls: interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Problem with moving the balls: " + e.getCause());
+        }
+    }
+
+    /**
+     * check that the move a worker found is the move the ball does now,
+     * after the hits of the balls before it.
+     *
+     * @param i the slot of the ball
+     * @return true if the move can be merged
+     */
+    private boolean isMoveValid(int i) {
+        if (this.pushed[i] || this.dx[i] != this.startDx[i] || this.dy[i] != this.startDy[i]) {
+            return false;
+        }
+        List<CollisionInfo> touches = this.hits.get(i);
+        for (int h = 0; h < touches.size(); h++) {
+            Collidable c = touches.get(h).collisionObject();
+            if (!this.env.contains(c)) {
+                return false;
+            }
+            for (int before = 0; before < h; before++) {
+                if (touches.get(before).collisionObject() == c) {
+                    return false;  // the first hit could remove it
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * hit the objects that a worker found the ball touches, in their order,
+     * and write the move of the ball.
+     *
+     * @param i the slot of the ball
+     * @param dt the amount of seconds passed since the last call
+     */
+    private void mergeMove(int i, double dt) {
+        List<CollisionInfo> touches = this.hits.get(i);
+        List<Velocity> velocities = this.hitVelocities.get(i);
+        for (int h = 0; h < touches.size(); h++) {
+            CollisionInfo touch = touches.get(h);
+            touch.collisionObject().hit(this.getBall(i), touch.collisionPoint(), velocities.get(h));
+        }
+
+        this.prevX[i] = this.x[i];
+        this.prevY[i] = this.y[i];
+        this.x[i] = this.nextX[i];
+        this.y[i] = this.nextY[i];
+        this.dx[i] = this.nextDx[i] / dt;
+        this.dy[i] = this.nextDy[i] / dt;
+    }
+
+    @Override
+    public void drawOn(DrawSurface d) {
+        this.drawOn(d, 1);
+    }
+
+    @Override
+    public void drawOn(DrawSurface d, double alpha) {
+        for (int k = 0; k < this.liveCount; k++) {
+            this.drawBall(d, this.live[k], alpha);
+        }
+    }
+
+    /**
+     * draw a ball between its place before the last step and its place now.
+     *
+     * @param d the surface to draw on
+     * @param i the slot of the ball
+     * @param alpha the part of the last step, from 0 to 1
+     */
+    private void drawBall(DrawSurface d, int i, double alpha) {
+        int drawX = (int) (this.prevX[i] + (this.x[i] - this.prevX[i]) * alpha);
+        int drawY = (int) (this.prevY[i] + (this.y[i] - this.prevY[i]) * alpha);
+
+        d.setColor(this.palette.get(this.colors[i]));  // set the color to the ball color
+        d.fillCircle(drawX, drawY, this.radius[i]);  // create the circle
+        d.setColor(Color.BLACK);  // set the color to the border of the ball
+        d.drawCircle(drawX, drawY, this.radius[i]);  // create the circle
+    }
+
+    /**
+     * drop the removed slots from the order, the others keep their order.
+     */
+    private void dropRemoved() {
+        int count = 0;
+        for (int k = 0; k < this.liveCount; k++) {
+            if (this.alive[this.live[k]]) {
+                this.live[count++] = this.live[k];
+            }
+        }
+        this.liveCount = count;
+        this.removed = false;
+    }
+
+    /**
+     * double the slots, the balls keep their slots.
+     */
+    private void grow() {
+        int capacity = this.x.length * 2;
+        this.x = Arrays.copyOf(this.x, capacity);
+        this.y = Arrays.copyOf(this.y, capacity);
+        this.prevX = Arrays.copyOf(this.prevX, capacity);
+        this.prevY = Arrays.copyOf(this.prevY, capacity);
+        this.dx = Arrays.copyOf(this.dx, capacity);
+        this.dy = Arrays.copyOf(this.dy, capacity);
+        this.radius = Arrays.copyOf(this.radius, capacity);
+        this.colors = Arrays.copyOf(this.colors, capacity);
+        this.alive = Arrays.copyOf(this.alive, capacity);
+        this.proxies = Arrays.copyOf(this.proxies, capacity);
+        this.live = Arrays.copyOf(this.live, capacity);
+    }
+
+    /**
+     * get the index of a color in the palette, add it if it is new.
+     *
+     * @param color the color
+     * @return the index of the color
+     */
+    private int colorIndex(Color color) {
+        Integer index = this.paletteIndexes.get(color);
+        if (index == null) {
+            index = this.palette.size();
+            this.palette.add(color);
+            this.paletteIndexes.put(color, index);
+        }
+        return index;
+    }
+
+    /**
+     * a worker: it moves a part of the balls (by their order) without hitting
+     * the objects, with its own query state.
+     */
+    private class Part implements Callable<Void> {
+
+        private int index;
+        private int count;  // the number of parts
+        private GameEnvironment.Query query;
+        private double[] partPlace;
+        private Velocity partStep;
+
+        /**
+         * create a worker.
+         *
+         * @param index the index of the part
+         * @param count the number of parts
+         */
+        Part(int index, int count) {
+            this.index = index;
+            this.count = count;
+            this.query = new GameEnvironment.Query();
+            this.partPlace = new double[2];
+            this.partStep = new Velocity(0, 0);
+        }
+
+        @Override
+        public Void call() {
+            int from = (int) ((long) liveCount * this.index / this.count);
+            int to = (int) ((long) liveCount * (this.index + 1) / this.count);
+            double dt = stepTime;
+            for (int k = from; k < to; k++) {
+                int i = live[k];
+                if (!alive[i]) {
+                    continue;
+                }
+                startDx[i] = dx[i];
+                startDy[i] = dy[i];
+                this.partStep.setDx(dx[i] * dt);
+                this.partStep.setDy(dy[i] * dt);
+                this.partPlace[0] = x[i];
+                this.partPlace[1] = y[i];
+                hits.get(i).clear();
+                hitVelocities.get(i).clear();
+
+                pushed[i] = Ball.move(env, this.query, null, radius[i], this.partPlace, this.partStep,
+                                      hits.get(i), hitVelocities.get(i));
+                nextX[i] = this.partPlace[0];
+                nextY[i] = this.partPlace[1];
+                nextDx[i] = this.partStep.getDx();
+                nextDy[i] = this.partStep.getDy();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * the Ball of a slot, its values are the values of the slot.
+     */
+    private class Proxy extends Ball {
+
+        private int slot;
+
+        /**
+         * create the proxy of a slot.
+         *
+         * @param slot the slot
+         */
+        Proxy(int slot) {
+            super(new Point(x[slot], y[slot]), radius[slot], palette.get(colors[slot]));
+            this.slot = slot;
+        }
+
+        @Override
+        public int getX() {
+            return (int) x[this.slot];
+        }
+
+        @Override
+        public int getY() {
+            return (int) y[this.slot];
+        }
+
+        @Override
+        public double getCenterX() {
+            return x[this.slot];
+        }
+
+        @Override
+        public double getCenterY() {
+            return y[this.slot];
+        }
+
+        @Override
+        public int getSize() {
+            return radius[this.slot];
+        }
+
+        @Override
+        public Color getColor() {
+            return palette.get(colors[this.slot]);
+        }
+
+        @Override
+        public Velocity getVelocity() {
+            return new Velocity(dx[this.slot], dy[this.slot]);
+        }
+
+        @Override
+        public void setVelocity(Velocity v) {
+            this.setVelocity(v.getDx(), v.getDy());
+        }
+
+        @Override
+        public void setVelocity(double newDx, double newDy) {
+            dx[this.slot] = newDx;
+            dy[this.slot] = newDy;
+        }
+
+        @Override
+        public void moveOneStep(double dt) {
+            BallSystem.this.moveOneStep(this.slot, dt);
+        }
+
+        @Override
+        public void drawOn(DrawSurface surface) {
+            drawBall(surface, this.slot, 1);
+        }
+
+        @Override
+        public void drawOn(DrawSurface surface, double alpha) {
+            drawBall(surface, this.slot, alpha);
+        }
+
+        @Override
+        public void addToGame(GameLevel g) {
+            throw new RuntimeException("a ball of a ball system is added by BallSystem.add");
+        }
+
+        @Override
+        public void removeFromGame(GameLevel game) {
+            remove(this.slot);
+        }
+    }
+}
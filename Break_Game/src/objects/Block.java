@@ -5,7 +5,7 @@ import game.GameLevel;
 import interfaces.Collidable;
 import interfaces.FillableForBlock;
 import interfaces.HitNotifier;
-import interfaces.Sprite;
+import interfaces.StaticSprite;
 import interfaces.HitListener;
 
 import java.awt.Image;
@@ -21,7 +21,7 @@ import biuoop.DrawSurface;
  * @version 1.0
  * @since 2018-04-13
  */
-public class Block implements Collidable, Sprite, HitNotifier {
+public class Block implements Collidable, StaticSprite, HitNotifier {
 
     private Rectangle recBlock;  // the rectangle of the block
     private int hits;
@@ -185,6 +185,16 @@ public class Block implements Collidable, Sprite, HitNotifier {
 
     @Override
     public Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity) {
+        if (this.hits != 0) {
+            this.hits--;
+        }
+        Velocity newVelocity = this.deflect(collisionPoint, currentVelocity);
+        this.notifyHit(hitter);
+        return newVelocity;
+    }
+
+    @Override
+    public Velocity deflect(Point collisionPoint, Velocity currentVelocity) {
 
         // the new velocity
         Velocity newVelocity = new Velocity(currentVelocity.getDx(), currentVelocity.getDy());
@@ -199,14 +209,9 @@ public class Block implements Collidable, Sprite, HitNotifier {
         double enX = this.recBlock.getUpperLeft().getX() + this.recBlock.getWidth();
         double enY = this.recBlock.getUpperLeft().getY() + this.recBlock.getHeight();
 
-        if (this.hits != 0) {
-            this.hits--;
-        }
-
         // if the collision on the edge
         if (collisionPoint.equals(recLines[0].start()) || collisionPoint.equals(recLines[0].end())
             || collisionPoint.equals(recLines[2].start()) || collisionPoint.equals(recLines[2].end())) {
-            this.notifyHit(hitter);
             return new Velocity(-1 * newVelocity.getDx(), -1 * newVelocity.getDy());
         }
 
@@ -217,7 +222,6 @@ public class Block implements Collidable, Sprite, HitNotifier {
         if (stY < thisY && thisY < enY) {
             newVelocity.setDx(-1 * newVelocity.getDx());
         }
-        this.notifyHit(hitter);
 
         return newVelocity;
     }
@@ -269,12 +273,12 @@ public class Block implements Collidable, Sprite, HitNotifier {
 
     /**
      * add the block
-     * as a Sprite and as a Collidable object to the game.
+     * as a Sprite (of the static layer) and as a Collidable object to the game.
      *
      * @param g the game
      */
     public void addToGame(GameLevel g) {
-        g.getSpriteCollection().addSprite(this);
+        g.getStaticLayer().addBlock(this);
         g.getGameEnvironment().addCollidable(this);
     }
 
@@ -311,6 +315,24 @@ public class Block implements Collidable, Sprite, HitNotifier {
         }
      }
 
+    /**
+     * get the fills of the block, the fill of k hit points is in k - 1.
+     *
+     * @return the fills of the block
+     */
+    public List<FillableForBlock> getFills() {
+        return this.fillK;
+    }
+
+    /**
+     * get the color of the border of the block.
+     *
+     * @return the color of the border, or null if there is no border
+     */
+    public java.awt.Color getStroke() {
+        return this.stroke;
+    }
+
     /**
      * the function return the number of
      * hit points of the block.
@@ -320,4 +342,13 @@ public class Block implements Collidable, Sprite, HitNotifier {
     public int getHitPoints() {
         return this.hits;
     }
+
+    /**
+     * set the number of hit points of the block (like when a level is restored).
+     *
+     * @param hitPoints the number of hit points
+     */
+    public void setHitPoints(int hitPoints) {
+        this.hits = hitPoints;
+    }
 }
@@ -0,0 +1,329 @@
+package objects;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * a bounding volume hierarchy over the blocks of an environment: a binary
+ * tree of boxes, each box holds the boxes of its children, and a leaf holds
+ * a few blocks. it is built by splitting the blocks at the median of their
+ * centers on the longer axis, so a query only goes down the boxes it
+ * touches, on sparse levels and on very large ones as well.
+ *
+ * a removed block is only marked (a tombstone), and an added block is
+ * kept after the blocks of the tree and checked by every query, so the
+ * queries are right after any change. update() fits the boxes to the blocks
+ * that are left, and builds the tree again when more than half of its blocks
+ * were removed or a block was added.
+ * the queries only read the tree, so many threads can query it at the same
+ * time, while it is not changed (update, add and remove are called on one
+ * thread, between the queries).
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-07-02
+ */
+public class BlockBvh {
+
+    private static final int LEAF_SIZE = 4;  // the most blocks in a leaf
+
+    // the blocks, the blocks of a leaf are next to each other
+    private CollisionGrid.Entry[] items;
+    private boolean[] dead;  // the removed blocks (tombstones)
+    private double[] left;  // the rectangle of each block, by its index in items
+    private double[] top;
+    private double[] right;
+    private double[] bottom;
+    private Map<CollisionGrid.Entry, Integer> indexes;  // the index of each block in items
+    private int count;
+    private int builtCount;  // the blocks of the tree, the blocks after them were added
+    private int deadCount;
+
+    // the nodes, a parent is before its children and its left child is right after it
+    private double[] minX;
+    private double[] minY;
+    private double[] maxX;
+    private double[] maxY;
+    private int[] first;  // the first block of a leaf
+    private int[] size;  // the number of blocks of a leaf, 0 for an inner node
+    private int[] rightChild;
+    private int nodes;
+    private int depth;  // the number of levels of the tree
+
+    private boolean changed;  // the boxes have to be fitted or the tree built
+
+    /**
+     * build the tree of blocks.
+     *
+     * @param entries the entries of the blocks
+     */
+    public BlockBvh(List<CollisionGrid.Entry> entries) {
+        this.indexes = new IdentityHashMap<CollisionGrid.Entry, Integer>();
+        this.items = entries.toArray(new CollisionGrid.Entry[entries.size()]);
+        this.count = this.items.length;
+        this.build();
+    }
+
+    /**
+     * add a block, it is checked by every query until the tree is built again.
+     *
+     * @param e the entry of the block
+     */
+    public void add(CollisionGrid.Entry e) {
+        if (this.count == this.items.length) {
+            int capacity = Math.max(LEAF_SIZE, this.count * 2);
+            this.items = Arrays.copyOf(this.items, capacity);
+            this.dead = Arrays.copyOf(this.dead, capacity);
+            this.left = Arrays.copyOf(this.left, capacity);
+            this.top = Arrays.copyOf(this.top, capacity);
+            this.right = Arrays.copyOf(this.right, capacity);
+            this.bottom = Arrays.copyOf(this.bottom, capacity);
+        }
+        this.items[this.count] = e;
+        this.indexes.put(e, this.count);
+        this.setBox(this.count);
+        this.count++;
+        this.changed = true;
+    }
+
+    /**
+     * remove a block: it is marked, and the boxes are fitted by the next update.
+     *
+     * @param e the entry of the block
+     */
+    public void remove(CollisionGrid.Entry e) {
+        Integer index = this.indexes.remove(e);
+        if (index == null) {
+            return;
+        }
+        this.dead[index] = true;
+        this.deadCount++;
+        this.changed = true;
+    }
+
+    /**
+     * get the number of blocks that were not removed.
+     *
+     * @return the number of blocks
+     */
+    public int size() {
+        return this.count - this.deadCount;
+    }
+
+    /**
+     * fit the boxes (or build the tree) after the changes, if there were.
+     * it is not called while the tree is queried.
+     */
+    public void update() {
+        if (!this.changed) {
+            return;
+        }
+        if (this.count > this.builtCount || 2 * this.deadCount > this.count) {
+            this.build();
+        } else {
+            this.refit();
+        }
+        this.changed = false;
+    }
+
+    /**
+     * get the size of a stack that a query needs.
+     *
+     * @return the size of the stack
+     */
+    public int stackSize() {
+        return this.depth + 2;
+    }
+
+    /**
+     * collect the blocks whose boxes the box touches.
+     *
+     * @param left the left of the box
+     * @param top the top of the box
+     * @param right the right of the box
+     * @param bottom the bottom of the box
+     * @param out the list to add the entries to
+     * @param stack the nodes to visit, at least stackSize() long
+     */
+    public void query(double left, double top, double right, double bottom, List<CollisionGrid.Entry> out,
+                      int[] stack) {
+        // the blocks that were added after the tree was built
+        for (int i = this.builtCount; i < this.count; i++) {
+            if (!this.dead[i] && this.left[i] <= right && this.right[i] >= left
+                && this.top[i] <= bottom && this.bottom[i] >= top) {
+                out.add(this.items[i]);
+            }
+        }
+
+        if (this.nodes == 0) {
+            return;
+        }
+        int pending = 0;
+        stack[pending++] = 0;
+        while (pending > 0) {
+            int n = stack[--pending];
+            if (this.minX[n] > right || this.maxX[n] < left || this.minY[n] > bottom || this.maxY[n] < top) {
+                continue;  // an empty node has no box (min > max) and is skipped too
+            }
+            if (this.size[n] > 0) {
+                for (int i = this.first[n]; i < this.first[n] + this.size[n]; i++) {
+                    if (!this.dead[i] && this.left[i] <= right && this.right[i] >= left
+                        && this.top[i] <= bottom && this.bottom[i] >= top) {
+                        out.add(this.items[i]);
+                    }
+                }
+            } else {
+                stack[pending++] = this.rightChild[n];
+                stack[pending++] = n + 1;
+            }
+        }
+    }
+
+    /**
+     * build the tree of the blocks that were not removed.
+     */
+    private void build() {
+        int live = 0;
+        for (int i = 0; i < this.count; i++) {
+            if (this.dead == null || !this.dead[i]) {
+                this.items[live++] = this.items[i];
+            }
+        }
+        Arrays.fill(this.items, live, this.count, null);
+        this.count = live;
+        this.deadCount = 0;
+        this.dead = new boolean[this.items.length];
+        this.indexes.clear();
+
+        // a tree of n leaves has less than 2n nodes
+        int capacity = Math.max(1, 2 * this.count);
+        this.minX = new double[capacity];
+        this.minY = new double[capacity];
+        this.maxX = new double[capacity];
+        this.maxY = new double[capacity];
+        this.first = new int[capacity];
+        this.size = new int[capacity];
+        this.rightChild = new int[capacity];
+        this.nodes = 0;
+        this.depth = 0;
+        if (this.count > 0) {
+            this.buildNode(0, this.count, 1);
+        }
+        this.left = new double[this.items.length];
+        this.top = new double[this.items.length];
+        this.right = new double[this.items.length];
+        this.bottom = new double[this.items.length];
+        for (int i = 0; i < this.count; i++) {
+            this.indexes.put(this.items[i], i);
+            this.setBox(i);
+        }
+        this.builtCount = this.count;
+    }
+
+    /**
+     * keep the rectangle of a block.
+     *
+     * @param i the index of the block in items
+     */
+    private void setBox(int i) {
+        Rectangle rec = this.items[i].getCollidable().getCollisionRectangle();
+        this.left[i] = rec.getLeft();
+        this.top[i] = rec.getTop();
+        this.right[i] = rec.getRight();
+        this.bottom[i] = rec.getBottom();
+    }
+
+    /**
+     * build the node of a range of the blocks, and its children.
+     *
+     * @param from the first block
+     * @param to the end of the range (not in it)
+     * @param level the level of the node (1 for the root)
+     * @return the index of the node
+     */
+    private int buildNode(int from, int to, int level) {
+        int n = this.nodes++;
+        this.depth = Math.max(this.depth, level);
+        this.fitLeaf(n, from, to);
+        if (to - from <= LEAF_SIZE) {
+            this.first[n] = from;
+            this.size[n] = to - from;
+            return n;
+        }
+
+        // split at the median of the centers, on the longer side of the box
+        final boolean onX = this.maxX[n] - this.minX[n] >= this.maxY[n] - this.minY[n];
+        Arrays.sort(this.items, from, to, new Comparator<CollisionGrid.Entry>() {
+            @Override
+            public int compare(CollisionGrid.Entry a, CollisionGrid.Entry b) {
+                return Double.compare(center(a, onX), center(b, onX));
+            }
+        });
+        int mid = (from + to) / 2;
+        this.size[n] = 0;
+        this.buildNode(from, mid, level + 1);
+        this.rightChild[n] = this.buildNode(mid, to, level + 1);
+        return n;
+    }
+
+    /**
+     * fit the boxes to the blocks that were not removed, children first.
+     */
+    private void refit() {
+        for (int n = this.nodes - 1; n >= 0; n--) {
+            if (this.size[n] > 0) {
+                this.fitLeaf(n, this.first[n], this.first[n] + this.size[n]);
+            } else {
+                int left = n + 1;
+                int right = this.rightChild[n];
+                this.minX[n] = Math.min(this.minX[left], this.minX[right]);
+                this.minY[n] = Math.min(this.minY[left], this.minY[right]);
+                this.maxX[n] = Math.max(this.maxX[left], this.maxX[right]);
+                this.maxY[n] = Math.max(this.maxY[left], this.maxY[right]);
+            }
+        }
+    }
+
+    /**
+     * set the box of a node to the box of a range of blocks, without the
+     * removed ones (no block gives an empty box).
+     *
+     * @param n the node
+     * @param from the first block
+     * @param to the end of the range (not in it)
+     */
+    private void fitLeaf(int n, int from, int to) {
+        this.minX[n] = Double.POSITIVE_INFINITY;
+        this.minY[n] = Double.POSITIVE_INFINITY;
+        this.maxX[n] = Double.NEGATIVE_INFINITY;
+        this.maxY[n] = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            if (this.dead[i]) {
+                continue;
+            }
+            Rectangle rec = this.items[i].getCollidable().getCollisionRectangle();
+            this.minX[n] = Math.min(this.minX[n], rec.getLeft());
+            this.minY[n] = Math.min(this.minY[n], rec.getTop());
+            this.maxX[n] = Math.max(this.maxX[n], rec.getRight());
+            this.maxY[n] = Math.max(this.maxY[n], rec.getBottom());
+        }
+    }
+
+    /**
+     * get the center of a block on an axis.
+     *
+     * @param e the entry of the block
+     * @param onX true for the x axis, false for the y axis
+     * @return the center
+     */
+    private static double center(CollisionGrid.Entry e, boolean onX) {
+        Rectangle rec = e.getCollidable().getCollisionRectangle();
+        if (onX) {
+            return (rec.getLeft() + rec.getRight()) / 2;
+        }
+        return (rec.getTop() + rec.getBottom()) / 2;
+    }
+}
@@ -6,9 +6,11 @@ import interfaces.BlockCreator;
 
 /**
  * Block Factory.
+ * the one char symbols are kept in tables indexed by the char,
+ * so reading the blocks of a level doesn't create strings.
  *
  * @author Daniel Kaganovich
- * @version 1.0
+ * @version 1.1
  * @since 2018-06-07
  */
 public class BlocksFromSymbolsFactory {
@@ -16,6 +18,11 @@ public class BlocksFromSymbolsFactory {
     private Map<String, Integer> spacerWidths;
     private Map<String, BlockCreator> blockCreators;
 
+    // indexed by the symbol char
+    private boolean[] isSpacer;
+    private int[] spacerTable;
+    private BlockCreator[] creatorTable;
+
     /**
      * a block factory.
      *
@@ -25,6 +32,39 @@ public class BlocksFromSymbolsFactory {
     public BlocksFromSymbolsFactory(Map<String, Integer> spacerWidths, Map<String, BlockCreator> blockCreators) {
         this.spacerWidths = spacerWidths;
         this.blockCreators = blockCreators;
+
+        int size = Math.max(tableSize(spacerWidths), tableSize(blockCreators));
+        this.isSpacer = new boolean[size];
+        this.spacerTable = new int[size];
+        this.creatorTable = new BlockCreator[size];
+
+        for (Map.Entry<String, Integer> e : spacerWidths.entrySet()) {
+            if (e.getKey().length() == 1) {
+                this.isSpacer[e.getKey().charAt(0)] = true;
+                this.spacerTable[e.getKey().charAt(0)] = e.getValue();
+            }
+        }
+        for (Map.Entry<String, BlockCreator> e : blockCreators.entrySet()) {
+            if (e.getKey().length() == 1) {
+                this.creatorTable[e.getKey().charAt(0)] = e.getValue();
+            }
+        }
+    }
+
+    /**
+     * the size of a table for the one char symbols of the map.
+     *
+     * @param map the map of the symbols
+     * @return the biggest symbol char + 1
+     */
+    private static int tableSize(Map<String, ?> map) {
+        int size = 0;
+        for (String s : map.keySet()) {
+            if (s.length() == 1) {
+                size = Math.max(size, s.charAt(0) + 1);
+            }
+        }
+        return size;
     }
 
     /**
@@ -38,6 +78,17 @@ public class BlocksFromSymbolsFactory {
         return this.spacerWidths.containsKey((String) s);
     }
 
+    /**
+     * returns true if 'c' is a valid space symbol.
+     *
+     * @param c space symbol
+     * @return true if 'c' is a valid space symbol.
+     *         otherwise, false
+     */
+    public boolean isSpaceSymbol(char c) {
+        return c < this.isSpacer.length && this.isSpacer[c];
+    }
+
     /**
      * returns true if 's' is a valid block symbol.
      *
@@ -49,6 +100,17 @@ public class BlocksFromSymbolsFactory {
         return this.blockCreators.containsKey((String) s);
     }
 
+    /**
+     * returns true if 'c' is a valid block symbol.
+     *
+     * @param c block symbol
+     * @return true if 'c' is a valid block symbol.
+     *         otherwise, false
+     */
+    public boolean isBlockSymbol(char c) {
+        return c < this.creatorTable.length && this.creatorTable[c] != null;
+    }
+
     /**
      * Return a block according to the definitions associated
      * with symbol s. The block will be located at position (xpos, ypos).
@@ -62,6 +124,19 @@ public class BlocksFromSymbolsFactory {
         return this.blockCreators.get(s).create(xpos, ypos);
     }
 
+    /**
+     * Return a block according to the definitions associated
+     * with symbol c. The block will be located at position (xpos, ypos).
+     *
+     * @param c block symbol
+     * @param xpos the x position
+     * @param ypos the y position
+     * @return a block according to the definitions associated
+     */
+    public Block getBlock(char c, int xpos, int ypos) {
+        return this.creatorTable[c].create(xpos, ypos);
+    }
+
     /**
      * Returns the width in pixels associated with the given spacer-symbol.
      *
@@ -71,4 +146,14 @@ public class BlocksFromSymbolsFactory {
     public int getSpaceWidth(String s) {
         return this.spacerWidths.get(s);
     }
+
+    /**
+     * Returns the width in pixels associated with the given spacer-symbol.
+     *
+     * @param c space symbol
+     * @return the width in pixels associated with the given spacer-symbol.
+     */
+    public int getSpaceWidth(char c) {
+        return this.spacerTable[c];
+    }
 }
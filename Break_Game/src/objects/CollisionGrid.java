@@ -0,0 +1,243 @@
+package objects;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import interfaces.Collidable;
+
+/**
+ * a uniform grid over the game area that holds the static collidables,
+ * so a query only looks at the cells that a box touches.
+ * positions outside the grid are clamped into the border cells.
+ * the queries don't change the grid, so many threads can query it at the
+ * same time (each with its own Query) while it is not changed.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-14
+ */
+public class CollisionGrid {
+
+    private double cellSize;  // the width and height of each cell
+    private int cols;  // the number of columns
+    private int rows;  // the number of rows
+    private List<List<Entry>> cells;  // the cells, row after row
+    private int nextId;  // the id of the next entry that is added
+
+    /**
+     * an object that registered in the grid.
+     */
+    public static class Entry {
+
+        private Collidable collidable;
+        private long order;  // the order of insertion to the environment
+        private int fromCol;
+        private int toCol;
+        private int fromRow;
+        private int toRow;
+        private int id;  // the index of the entry in the marks of a query
+
+        /**
+         * create a new entry.
+         *
+         * @param collidable the collidable object
+         * @param order the order of insertion to the environment
+         */
+        public Entry(Collidable collidable, long order) {
+            this.collidable = collidable;
+            this.order = order;
+        }
+
+        /**
+         * get the collidable object.
+         *
+         * @return the collidable object
+         */
+        public Collidable getCollidable() {
+            return this.collidable;
+        }
+
+        /**
+         * get the order of insertion to the environment.
+         *
+         * @return the order of insertion
+         */
+        public long getOrder() {
+            return this.order;
+        }
+    }
+
+    /**
+     * the state of the queries of a user of the grid: the found entries,
+     * and the marks of the entries that were found by each query.
+     */
+    public static class Query {
+
+        private List<Entry> found;
+        private int[] marks;  // the last query that found each entry, by its id
+        private int mark;  // the number of the last query
+
+        /**
+         * create a query state.
+         */
+        public Query() {
+            this.found = new ArrayList<Entry>();
+            this.marks = new int[64];
+            this.mark = 0;
+        }
+
+        /**
+         * get the entries that the last query found.
+         *
+         * @return the found entries
+         */
+        public List<Entry> getFound() {
+            return this.found;
+        }
+    }
+
+    /**
+     * create a new grid.
+     *
+     * @param width the width of the game area
+     * @param height the height of the game area
+     * @param cellSize the size of each cell
+     */
+    public CollisionGrid(double width, double height, double cellSize) {
+        this.cellSize = cellSize;
+        this.cols = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        this.cells = new ArrayList<List<Entry>>(this.cols * this.rows);
+        for (int i = 0; i < this.cols * this.rows; i++) {
+            this.cells.add(new ArrayList<Entry>(4));
+        }
+        this.nextId = 0;
+    }
+
+    /**
+     * add the entry to every cell its rectangle touches.
+     *
+     * @param e the entry to add
+     */
+    public void add(Entry e) {
+        Rectangle rec = e.collidable.getCollisionRectangle();
+        e.id = this.nextId++;
+
+        e.fromCol = this.col(rec.getLeft());
+        e.toCol = this.col(rec.getRight());
+        e.fromRow = this.row(rec.getTop());
+        e.toRow = this.row(rec.getBottom());
+
+        for (int r = e.fromRow; r <= e.toRow; r++) {
+            for (int c = e.fromCol; c <= e.toCol; c++) {
+                this.cells.get(r * this.cols + c).add(e);
+            }
+        }
+    }
+
+    /**
+     * remove the entry from the cells it was added to.
+     *
+     * @param e the entry to remove
+     */
+    public void remove(Entry e) {
+        for (int r = e.fromRow; r <= e.toRow; r++) {
+            for (int c = e.fromCol; c <= e.toCol; c++) {
+                this.cells.get(r * this.cols + c).remove(e);
+            }
+        }
+    }
+
+    /**
+     * collect every entry in the cells that the box touches, into a query
+     * state (the grid is not changed). each entry is collected once.
+     *
+     * @param minX the left of the box
+     * @param minY the top of the box
+     * @param maxX the right of the box
+     * @param maxY the bottom of the box
+     * @param q the query state, its found entries are replaced
+     */
+    public void query(double minX, double minY, double maxX, double maxY, Query q) {
+        List<Entry> out = q.found;
+        out.clear();
+        if (q.marks.length < this.nextId) {
+            q.marks = new int[Math.max(this.nextId, q.marks.length * 2)];
+            q.mark = 0;
+        }
+        q.mark++;
+
+        int toCol = this.col(maxX);
+        int toRow = this.row(maxY);
+        for (int r = this.row(minY); r <= toRow; r++) {
+            for (int c = this.col(minX); c <= toCol; c++) {
+                List<Entry> cell = this.cells.get(r * this.cols + c);
+
+                for (int i = 0; i < cell.size(); i++) {
+                    Entry e = cell.get(i);
+                    if (q.marks[e.id] != q.mark) {
+                        q.marks[e.id] = q.mark;
+                        out.add(e);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * find the entry whose rectangle contains a point.
+     * only the cell of the point is checked.
+     *
+     * @param x the x value of the point
+     * @param y the y value of the point
+     * @return the entry (the last added one if there are some), or null
+     */
+    public Entry find(double x, double y) {
+        List<Entry> cell = this.cells.get(this.row(y) * this.cols + this.col(x));
+        Entry found = null;
+        for (int i = 0; i < cell.size(); i++) {
+            Entry e = cell.get(i);
+            if (e.collidable.getCollisionRectangle().contains(x, y) && (found == null || e.order > found.order)) {
+                found = e;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * get the column of the x value, clamped to the grid.
+     *
+     * @param x the x value
+     * @return the column
+     */
+    private int col(double x) {
+        return this.clamp(Math.floor(x / this.cellSize), this.cols);
+    }
+
+    /**
+     * get the row of the y value, clamped to the grid.
+     *
+     * @param y the y value
+     * @return the row
+     */
+    private int row(double y) {
+        return this.clamp(Math.floor(y / this.cellSize), this.rows);
+    }
+
+    /**
+     * clamp the cell index to [0, count - 1].
+     *
+     * @param index the cell index
+     * @param count the number of cells
+     * @return the clamped index
+     */
+    private int clamp(double index, int count) {
+        if (!(index > 0)) {  // also NaN
+            return 0;
+        }
+        if (index >= count - 1) {
+            return count - 1;
+        }
+        return (int) index;
+    }
+}
@@ -4,15 +4,20 @@ import interfaces.Collidable;
 
 /**
  * the information class of the Collision.
+ * a collision of a moving circle also has the time of the touch and its
+ * normal (from the object to the circle).
  *
  * @author Daniel Kaganovich
- * @version 1.0
+ * @version 1.1
  * @since 2018-04-13
  */
 public class CollisionInfo {
 
     private Point collisionP;  // the collision Point
     private Collidable collisionO;  // the collision Object
+    private double time;  // the part of the move before the touch, from 0 to 1
+    private double normalX;
+    private double normalY;
 
     /**
      * the constructor of the CollisionInfo.
@@ -25,6 +30,22 @@ public class CollisionInfo {
         this.collisionP = collisionP;
     }
 
+    /**
+     * the constructor of the CollisionInfo of a moving circle.
+     *
+     * @param collisionObj the collision Object
+     * @param collisionP the collision Point (on the object)
+     * @param time the part of the move before the touch, from 0 to 1
+     * @param normalX the x value of the normal of the touch
+     * @param normalY the y value of the normal of the touch
+     */
+    public CollisionInfo(Collidable collisionObj, Point collisionP, double time, double normalX, double normalY) {
+        this(collisionObj, collisionP);
+        this.time = time;
+        this.normalX = normalX;
+        this.normalY = normalY;
+    }
+
     /**
      * get the collision Point.
      *
@@ -42,4 +63,31 @@ public class CollisionInfo {
     public Collidable collisionObject() {
         return this.collisionO;
     }
+
+    /**
+     * get the time of the touch.
+     *
+     * @return the part of the move before the touch, from 0 to 1
+     */
+    public double time() {
+        return this.time;
+    }
+
+    /**
+     * get the x value of the normal of the touch.
+     *
+     * @return the x value of the normal (from the object to the circle)
+     */
+    public double normalX() {
+        return this.normalX;
+    }
+
+    /**
+     * get the y value of the normal of the touch.
+     *
+     * @return the y value of the normal (from the object to the circle)
+     */
+    public double normalY() {
+        return this.normalY;
+    }
 }
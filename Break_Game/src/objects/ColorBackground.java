@@ -0,0 +1,48 @@
+package objects;
+
+import java.awt.Color;
+
+import biuoop.DrawSurface;
+
+import interfaces.StaticSprite;
+
+/**
+ * a background of one color.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-24
+ */
+public class ColorBackground implements StaticSprite {
+
+    private Color color;
+
+    /**
+     * create the background.
+     *
+     * @param color the color of the background
+     */
+    public ColorBackground(Color color) {
+        this.color = color;
+    }
+
+    /**
+     * get the color of the background.
+     *
+     * @return the color
+     */
+    public Color getColor() {
+        return this.color;
+    }
+
+    @Override
+    public void drawOn(DrawSurface d) {
+        d.setColor(this.color);
+        d.fillRectangle(0, 0, 800, 600);
+    }
+
+    @Override
+    public void timePassed(double dt) {
+        return;
+    }
+}
@@ -26,6 +26,15 @@ public class FillBlockWithColor implements FillableForBlock {
         this.color = color;
     }
 
+    /**
+     * get the color of the fill.
+     *
+     * @return the color
+     */
+    public Color getColor() {
+        return this.color;
+    }
+
     @Override
     public void fill(DrawSurface d, Block block) {
         d.setColor(this.color);
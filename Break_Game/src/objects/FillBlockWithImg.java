@@ -25,6 +25,15 @@ public class FillBlockWithImg implements FillableForBlock {
         this.img = img;
     }
 
+    /**
+     * get the image of the fill.
+     *
+     * @return the image
+     */
+    public Image getImage() {
+        return this.img;
+    }
+
     @Override
     public void fill(DrawSurface d, Block block) {
         d.drawImage((int) block.getCollisionRectangle().getUpperLeft().getX(),
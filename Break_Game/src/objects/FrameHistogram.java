@@ -0,0 +1,164 @@
+package objects;
+
+import java.util.Arrays;
+
+/**
+ * a histogram of times in nanoseconds, in the way of HdrHistogram: the times
+ * below 128 have a bucket each, and every power of two above it is split to
+ * 64 buckets of the same width, so a bucket is less than 1/64 of its times
+ * wide. the counts are kept in one array that is created with the histogram,
+ * so recording a time doesn't create objects.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-07-03
+ */
+public class FrameHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;  // 64 buckets in a power of two
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final long HIGHEST = 1L << 40;  // the highest time (about 18 minutes), higher ones are counted as it
+
+    private long[] counts;  // the count of each bucket
+    private long total;
+    private long min;
+    private long max;
+
+    /**
+     * create an empty histogram.
+     */
+    public FrameHistogram() {
+        this.counts = new long[indexOf(HIGHEST) + 1];
+        this.reset();
+    }
+
+    /**
+     * count a time.
+     *
+     * @param nanos the time in nanoseconds, a negative time is counted as 0
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(0, nanos), HIGHEST);
+        this.counts[indexOf(value)]++;
+        this.total++;
+        this.min = Math.min(this.min, value);
+        this.max = Math.max(this.max, value);
+    }
+
+    /**
+     * remove all the times.
+     */
+    public void reset() {
+        Arrays.fill(this.counts, 0);
+        this.total = 0;
+        this.min = Long.MAX_VALUE;
+        this.max = 0;
+    }
+
+    /**
+     * get the number of times that were counted.
+     *
+     * @return the number of times
+     */
+    public long getCount() {
+        return this.total;
+    }
+
+    /**
+     * get the lowest time.
+     *
+     * @return the lowest time, 0 if there are no times
+     */
+    public long getMin() {
+        return this.total == 0 ? 0 : this.min;
+    }
+
+    /**
+     * get the highest time.
+     *
+     * @return the highest time, 0 if there are no times
+     */
+    public long getMax() {
+        return this.max;
+    }
+
+    /**
+     * get the time that the percentile of the times are not above it
+     * (up to the width of its bucket, it is never above the highest time).
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the time, 0 if there are no times
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (this.total == 0) {
+            return 0;
+        }
+        long wanted = Math.max(1, (long) Math.ceil(percentile / 100 * this.total));
+        long seen = 0;
+        for (int i = 0; i < this.counts.length; i++) {
+            seen += this.counts[i];
+            if (seen >= wanted) {
+                return Math.min(bucketEnd(i) - 1, this.max);
+            }
+        }
+        return this.max;
+    }
+
+    /**
+     * get the number of buckets.
+     *
+     * @return the number of buckets
+     */
+    public int getBucketCount() {
+        return this.counts.length;
+    }
+
+    /**
+     * get the count of a bucket.
+     *
+     * @param bucket the index of the bucket
+     * @return the number of times in it
+     */
+    public long getBucketCount(int bucket) {
+        return this.counts[bucket];
+    }
+
+    /**
+     * get the lowest time of a bucket.
+     *
+     * @param bucket the index of the bucket
+     * @return the lowest time in it
+     */
+    public static long bucketStart(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (bucket - shift * SUB_BUCKETS) << shift;
+    }
+
+    /**
+     * get the end of a bucket, the lowest time of the next one.
+     *
+     * @param bucket the index of the bucket
+     * @return the end of the bucket (not in it)
+     */
+    public static long bucketEnd(int bucket) {
+        return bucketStart(bucket + 1);
+    }
+
+    /**
+     * get the index of the bucket of a time.
+     *
+     * @param value the time, not negative
+     * @return the index of its bucket
+     */
+    private static int indexOf(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        // the shift that leaves the top 7 bits of the time, between 64 and 127
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+}
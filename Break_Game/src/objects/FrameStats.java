@@ -0,0 +1,143 @@
+package objects;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * the times of the frames of the animation runner: a histogram for each
+ * phase of a frame, and the frames per second of the last second.
+ *
+ * the phases are the update (the simulation steps), the draw, the show of
+ * the frame on the screen, the time that the sleep was longer than it was
+ * asked for, and the whole frame (from its start to the start of the next one).
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-07-03
+ */
+public class FrameStats {
+
+    public static final int UPDATE = 0;
+    public static final int DRAW = 1;
+    public static final int SHOW = 2;
+    public static final int OVERSHOOT = 3;
+    public static final int FRAME = 4;
+
+    private static final String[] NAMES = {"update", "draw", "show", "sleep_overshoot", "frame"};
+    private static final long SECOND = 1000000000L;
+
+    private FrameHistogram[] phases;
+    private long lastStart;  // the start of the last frame, 0 before the first frame
+    private long windowStart;  // the start of the second that the frames are counted in
+    private int windowFrames;
+    private double fps;  // of the last second that ended
+
+    /**
+     * create empty statistics.
+     */
+    public FrameStats() {
+        this.phases = new FrameHistogram[NAMES.length];
+        for (int i = 0; i < NAMES.length; i++) {
+            this.phases[i] = new FrameHistogram();
+        }
+        this.reset();
+    }
+
+    /**
+     * notify that a frame started, the time from the start of the frame
+     * before it is the time of a frame.
+     *
+     * @param now the time of the start in nanoseconds (of System.nanoTime)
+     */
+    public void frameStarted(long now) {
+        if (this.lastStart != 0) {
+            this.phases[FRAME].record(now - this.lastStart);
+        } else {
+            this.windowStart = now;
+        }
+        this.lastStart = now;
+
+        this.windowFrames++;
+        if (now - this.windowStart >= SECOND) {
+            this.fps = (double) this.windowFrames * SECOND / (now - this.windowStart);
+            this.windowStart = now;
+            this.windowFrames = 0;
+        }
+    }
+
+    /**
+     * count the time of a phase of a frame.
+     *
+     * @param phase the phase, UPDATE, DRAW, SHOW or OVERSHOOT
+     * @param nanos the time in nanoseconds
+     */
+    public void record(int phase, long nanos) {
+        this.phases[phase].record(nanos);
+    }
+
+    /**
+     * get the histogram of a phase.
+     *
+     * @param phase the phase
+     * @return its histogram
+     */
+    public FrameHistogram get(int phase) {
+        return this.phases[phase];
+    }
+
+    /**
+     * get the frames per second.
+     *
+     * @return the frames per second of the last second, 0 before a second passed
+     */
+    public double getFps() {
+        return this.fps;
+    }
+
+    /**
+     * remove all the times, the next frame is the first one.
+     */
+    public void reset() {
+        for (FrameHistogram histogram : this.phases) {
+            histogram.reset();
+        }
+        this.lastStart = 0;
+        this.windowStart = 0;
+        this.windowFrames = 0;
+        this.fps = 0;
+    }
+
+    /**
+     * write the histograms to a csv file: a line for each bucket that has
+     * times, with its phase, its range in nanoseconds, its count and the
+     * percentile of the times of the phase up to its end.
+     *
+     * @param file the file
+     * @throws IOException if the file can't be written
+     */
+    public void writeCsv(File file) throws IOException {
+        Writer out = new BufferedWriter(new FileWriter(file));
+        try {
+            out.write("phase,from_ns,to_ns,count,percentile\n");
+            for (int phase = 0; phase < NAMES.length; phase++) {
+                FrameHistogram histogram = this.phases[phase];
+                long seen = 0;
+                for (int i = 0; i < histogram.getBucketCount(); i++) {
+                    long count = histogram.getBucketCount(i);
+                    if (count == 0) {
+                        continue;
+                    }
+                    seen += count;
+                    out.write(NAMES[phase] + "," + FrameHistogram.bucketStart(i) + ","
+                              + FrameHistogram.bucketEnd(i) + "," + count + ","
+                              + (100.0 * seen / histogram.getCount()) + "\n");
+                }
+            }
+        } finally {
+            out.close();
+        }
+    }
+}
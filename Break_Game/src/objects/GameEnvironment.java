@@ -1,9 +1,19 @@
 package objects;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
 import interfaces.Collidable;
+import interfaces.SlabKernel;
 
 /**
  * the game environment.
+ * the queries only read the environment, so many threads can query it at
+ * the same time, each with its own Query, while it is not changed.
+ * the changes of the index are fitted by updateIndex, on one thread
+ * before the queries.
  *
  * @author Daniel Kaganovich
  * @version 1.0
@@ -11,14 +21,180 @@ import interfaces.Collidable;
  */
 public class GameEnvironment {
 
-    // the list of collidable objects
-    private java.util.List<Collidable> collisionList;
+    // the indexes that find the blocks of the circle queries (the result is the same)
+    public static final int GRID = 0;  // the uniform grid
+    public static final int LINEAR = 1;  // all the blocks, packed for a slab kernel
+    public static final int BVH = 2;  // a bounding volume hierarchy
+
+    private static final double CELL_SIZE = 50;  // the size of a grid cell -- the width of a standard block
+    private static final double SLAB_MARGIN = 1e-6;  // the boxes of the slab test are a bit bigger, to be sure
+
+    // the collidable objects, in the order they were added
+    private IndexedList<Collidable> collisionList;
+
+    // blocks never move, so they are kept in the grid.
+    // any other collidable (like the paddle) is checked on every query.
+    private CollisionGrid grid;
+    private List<CollisionGrid.Entry> movingList;
+    private List<Paddle> paddles;  // the paddles, found without going over the objects
+    private Map<Collidable, CollisionGrid.Entry> entries;
+
+    // the index of the circle queries, the blocks are also in the grid
+    // (for the other queries)
+    private int index;
+    private PackedBlocks packed;  // the blocks of the LINEAR index
+    private SlabKernel kernel;
+    private BlockBvh bvh;  // the blocks of the BVH index
+    private Query query;  // the query of the methods without a Query
+    private long nextOrder;
 
     /**
      * Create new Game Environment.
      */
     public GameEnvironment() {
-        this.collisionList = new java.util.ArrayList<Collidable>();
+        this(800, 600);
+    }
+
+    /**
+     * Create new Game Environment for a game area.
+     *
+     * @param width the width of the game area
+     * @param height the height of the game area
+     */
+    public GameEnvironment(int width, int height) {
+        this.collisionList = new IndexedList<Collidable>();
+        this.grid = new CollisionGrid(width, height, CELL_SIZE);
+        this.movingList = new ArrayList<CollisionGrid.Entry>();
+        this.paddles = new ArrayList<Paddle>();
+        this.entries = new IdentityHashMap<Collidable, CollisionGrid.Entry>();
+        this.query = new Query();
+        this.nextOrder = 0;
+    }
+
+    /**
+     * the state that a query reuses (the found grid entries and the closest
+     * point), each thread that queries the environment needs its own one.
+     */
+    public static class Query {
+
+        private CollisionGrid.Query grid;
+        private double[] closest;
+        private double[] times;  // the enter times of the slab kernel
+        private int[] stack;  // the nodes of the bvh to visit
+
+        /**
+         * create a query state.
+         */
+        public Query() {
+            this.grid = new CollisionGrid.Query();
+            this.closest = new double[5];
+            this.times = new double[0];
+            this.stack = new int[0];
+        }
+    }
+
+    /**
+     * find the blocks that a moving circle can touch (getClosestCollision
+     * with a radius) by a slab kernel on all the blocks, instead of the grid.
+     * the result is the same, only the speed is different.
+     *
+     * @param slabKernel the kernel (like PackedBlocks.loadKernel()), or null for the grid
+     */
+    public void setSlabKernel(SlabKernel slabKernel) {
+        this.kernel = slabKernel;
+        this.setCollisionIndex(slabKernel == null ? GRID : LINEAR);
+    }
+
+    /**
+     * get the slab kernel of the circle queries.
+     *
+     * @return the kernel, or null if the grid is used
+     */
+    public SlabKernel getSlabKernel() {
+        return this.kernel;
+    }
+
+    /**
+     * set the index that finds the blocks of the circle queries (the
+     * blocks that are in the environment are added to it).
+     *
+     * @param collisionIndex GRID, LINEAR or BVH
+     */
+    public void setCollisionIndex(int collisionIndex) {
+        List<CollisionGrid.Entry> blocks = new ArrayList<CollisionGrid.Entry>();
+        for (int i = 0; i < this.collisionList.slots(); i++) {
+            Collidable c = this.collisionList.get(i);
+            if (c instanceof Block) {
+                blocks.add(this.entries.get(c));
+            }
+        }
+
+        this.index = collisionIndex;
+        this.packed = null;
+        this.bvh = null;
+        if (collisionIndex == LINEAR) {
+            if (this.kernel == null) {
+                this.kernel = new ScalarSlabKernel();
+            }
+            this.packed = new PackedBlocks();
+            for (CollisionGrid.Entry e : blocks) {
+                this.packed.add(e);
+            }
+        } else if (collisionIndex == BVH) {
+            this.bvh = new BlockBvh(blocks);
+        } else if (collisionIndex != GRID) {
+            throw new RuntimeException("there is no collision index " + collisionIndex);
+        }
+        if (collisionIndex != LINEAR) {
+            this.kernel = null;
+        }
+    }
+
+    /**
+     * fit the index of the circle queries to the objects that were added
+     * and removed since the last update. the queries are right without it,
+     * only slower. it is called before the queries of a step, not while
+     * other threads query the environment.
+     */
+    public void updateIndex() {
+        if (this.bvh != null) {
+            this.bvh.update();
+        }
+    }
+
+    /**
+     * get the index that finds the blocks of the circle queries.
+     *
+     * @return GRID, LINEAR or BVH
+     */
+    public int getCollisionIndex() {
+        return this.index;
+    }
+
+    /**
+     * get the index of a name in a level file.
+     *
+     * @param name "grid", "linear" or "bvh"
+     * @return GRID, LINEAR or BVH
+     */
+    public static int collisionIndex(String name) {
+        if (name.equals("grid")) {
+            return GRID;
+        } else if (name.equals("linear")) {
+            return LINEAR;
+        } else if (name.equals("bvh")) {
+            return BVH;
+        }
+        throw new RuntimeException("there is no collision index " + name);
+    }
+
+    /**
+     * get the number of objects that were ever added, it changes on each add.
+     *
+     * @return the number of added objects
+     */
+    public long getAddedCount() {
+        return this.nextOrder;
     }
 
     /**
@@ -27,7 +203,26 @@ public class GameEnvironment {
      * @param c the collision object
      */
     public void addCollidable(Collidable c) {
-        collisionList.add(c);
+        if (!this.collisionList.add(c)) {
+            return;  // already in the environment
+        }
+
+        CollisionGrid.Entry e = new CollisionGrid.Entry(c, this.nextOrder++);
+        this.entries.put(c, e);
+        if (c instanceof Block) {
+            this.grid.add(e);
+            if (this.packed != null) {
+                this.packed.add(e);
+            }
+            if (this.bvh != null) {
+                this.bvh.add(e);
+            }
+        } else {
+            this.movingList.add(e);
+        }
+        if (c instanceof Paddle) {
+            this.paddles.add((Paddle) c);
+        }
     }
 
     /**
@@ -36,26 +231,80 @@ public class GameEnvironment {
      * @param c the collision object to remove
      */
     public void removeCollidable(Collidable c) {
-        collisionList.remove(c);
+        if (!this.collisionList.remove(c)) {
+            return;
+        }
+
+        CollisionGrid.Entry e = this.entries.remove(c);
+        if (c instanceof Block) {
+            this.grid.remove(e);
+            if (this.packed != null) {
+                this.packed.remove(e);
+            }
+            if (this.bvh != null) {
+                this.bvh.remove(e);
+            }
+        } else {
+            this.movingList.remove(e);
+        }
+        if (c instanceof Paddle) {
+            this.paddles.remove(c);
+        }
+    }
+
+    /**
+     * check if a Collidable is in the environment.
+     *
+     * @param c the collision object
+     * @return true if it was added and not removed
+     */
+    public boolean contains(Collidable c) {
+        return this.collisionList.contains(c);
+    }
+
+    /**
+     * get the paddles in the environment.
+     *
+     * @return the paddles, in the order they were added (don't change the list)
+     */
+    public List<Paddle> getPaddles() {
+        return this.paddles;
+    }
+
+    /**
+     * find the block that contains a point, by the grid.
+     *
+     * @param x the x value of the point
+     * @param y the y value of the point
+     * @return the block (the last added one if there are some), or null
+     */
+    public Block getBlockAt(double x, double y) {
+        CollisionGrid.Entry e = this.grid.find(x, y);
+        if (e == null) {
+            return null;
+        }
+        return (Block) e.getCollidable();
     }
 
     /**
      * get the i index object.
+     * a removed object leaves an empty place, until there are
+     * more empty places than objects.
      *
-     * @param i the index
-     * @return the object in the i index
+     * @param i the index, from 0 to getSize() - 1
+     * @return the object in the i index, or null if the place is empty
      */
     public Collidable getIndexI(int i) {
         return this.collisionList.get(i);
     }
 
     /**
-     * get the number of objects.
+     * get the number of places for getIndexI.
      *
-     * @return the number of objects
+     * @return the number of places (objects and empty places)
      */
     public int getSize() {
-        return this.collisionList.size();
+        return this.collisionList.slots();
     }
 
     /**
@@ -67,39 +316,179 @@ public class GameEnvironment {
      *         about the closest collision that is going to occur.
      */
     public CollisionInfo getClosestCollision(Line trajectory) {
+        return this.getClosestCollision(trajectory.start().getX(), trajectory.start().getY(),
+                                        trajectory.end().getX(), trajectory.end().getY());
+    }
+
+    /**
+     * Assume an object moving from (x1, y1) to (x2, y2).
+     * get the information of the closest Collidable object.
+     * objects are created only when there is a collision.
+     *
+     * @param x1 the x value of the start of the trajectory
+     * @param y1 the y value of the start of the trajectory
+     * @param x2 the x value of the end of the trajectory
+     * @param y2 the y value of the end of the trajectory
+     * @return If this object will not collide with any of the collidables
+     *         in this collection, return null. Else, return the information
+     *         about the closest collision that is going to occur.
+     */
+    public CollisionInfo getClosestCollision(double x1, double y1, double x2, double y2) {
 
-        if (collisionList.isEmpty()) {
+        if (this.collisionList.size() == 0) {
             return null;
         }
+        List<CollisionGrid.Entry> candidates = this.query.grid.getFound();
+        double[] closest = this.query.closest;
 
-        //Collidable closestCollision = collisionList.get(0);  // the closest Collidable object
-        // the closest Collidable Points of the closest Collidable object
-        //Point closestPoint = trajectory.closestIntersectionToStartOfLine(closestCollision.getCollisionRectangle());
+        double len = Geometry.distance(x1, y1, x2, y2);  // the length of the trajectory
 
-        Collidable closestCollision = null;
-        Point closestPoint = null;
-        double minDis = trajectory.length();  // the minimum distance
+        // on an axis aligned trajectory Line can report a corner of a rectangle
+        // that is next to the line (the same lines case), not more than its length away
+        if (x1 == x2 || y1 == y2) {
+            this.grid.query(x1 - len, y1 - len, x1 + len, y1 + len, this.query.grid);
+        } else {
+            this.grid.query(Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2),
+                            this.query.grid);
+        }
 
-        for (int i = 0; i < collisionList.size(); i++) {
-            Collidable objI = collisionList.get(i);  // the Collidable in i place
-            // the closest Collidable Points of the closest Collidable object in i place
-            Point objectIPoint = trajectory.closestIntersectionToStartOfLine(objI.getCollisionRectangle());
-            double distance = minDis;  // the distance
+        // like checking the whole list in order: the closest wins,
+        // and on the same distance the later added object wins
+        CollisionGrid.Entry closestEntry = null;
+        double closestX = 0;
+        double closestY = 0;
+        double minDis = len;  // the minimum distance
 
-            if (objectIPoint != null) {  // there is an obstacle
-                 distance = objectIPoint.distance(trajectory.start());
+        for (int i = 0; i < candidates.size() + this.movingList.size(); i++) {
+            CollisionGrid.Entry e;
+            if (i < candidates.size()) {
+                e = candidates.get(i);
+            } else {
+                e = this.movingList.get(i - candidates.size());
             }
 
-            if (objectIPoint != null && minDis >= distance) {
+            // the closest Collidable Points of the Collidable object
+            if (!e.getCollidable().getCollisionRectangle().closestIntersection(x1, y1, x2, y2, closest)) {
+                continue;
+            }
 
+            double distance = closest[2];  // the distance
+            if (distance < minDis
+                || (distance == minDis && (closestEntry == null || e.getOrder() > closestEntry.getOrder()))) {
                 minDis = distance;
-                closestCollision = objI;
-                closestPoint = objectIPoint;
+                closestEntry = e;
+                closestX = closest[0];
+                closestY = closest[1];
+            }
+        }
+        candidates.clear();
+
+        if (closestEntry == null) {
+            return null;
+        }
+        return new CollisionInfo(closestEntry.getCollidable(), new Point(closestX, closestY));
+    }
+
+    /**
+     * Assume a circle that its center moves from (x, y) by (dx, dy).
+     * get the information of the first Collidable object it touches.
+     * objects are created only when there is a collision.
+     *
+     * @param x the x value of the start of the center
+     * @param y the y value of the start of the center
+     * @param dx the move of the center on the x axis
+     * @param dy the move of the center on the y axis
+     * @param r the radius of the circle
+     * @return If the circle will not touch any of the collidables in this
+     *         collection, return null. Else, return the information about
+     *         the first touch, with its time and normal.
+     */
+    public CollisionInfo getClosestCollision(double x, double y, double dx, double dy, double r) {
+        return this.getClosestCollision(x, y, dx, dy, r, this.query);
+    }
+
+    /**
+     * like getClosestCollision(x, y, dx, dy, r), with the query state of
+     * the calling thread.
+     *
+     * @param x the x value of the start of the center
+     * @param y the y value of the start of the center
+     * @param dx the move of the center on the x axis
+     * @param dy the move of the center on the y axis
+     * @param r the radius of the circle
+     * @param q the query state of the thread
+     * @return the information about the first touch, or null
+     */
+    public CollisionInfo getClosestCollision(double x, double y, double dx, double dy, double r, Query q) {
+
+        if (this.collisionList.size() == 0) {
+            return null;
+        }
+        List<CollisionGrid.Entry> candidates = q.grid.getFound();
+        double[] closest = q.closest;
+
+        if (this.index == GRID) {
+            this.grid.query(Math.min(x, x + dx) - r, Math.min(y, y + dy) - r,
+                            Math.max(x, x + dx) + r, Math.max(y, y + dy) + r, q.grid);
+        } else if (this.index == BVH) {
+            if (q.stack.length < this.bvh.stackSize()) {
+                q.stack = new int[this.bvh.stackSize()];
+            }
+            candidates.clear();
+            this.bvh.query(Math.min(x, x + dx) - r, Math.min(y, y + dy) - r,
+                           Math.max(x, x + dx) + r, Math.max(y, y + dy) + r, candidates, q.stack);
+        } else {
+            // only the blocks that the center enters when they are grown by r
+            // can be touched, they get the exact test
+            if (q.times.length < this.packed.size()) {
+                q.times = new double[this.packed.size() * 2];
+            }
+            this.packed.enterTimes(this.kernel, x, y, dx, dy, r + SLAB_MARGIN, q.times);
+            candidates.clear();
+            for (int i = 0; i < this.packed.size(); i++) {
+                if (q.times[i] <= 1) {
+                    candidates.add(this.packed.get(i));
+                }
+            }
+        }
+
+        // the first touch wins, and on the same time the later added object wins
+        CollisionGrid.Entry closestEntry = null;
+        double closestX = 0;
+        double closestY = 0;
+        double minTime = 1;
+        double normalX = 0;
+        double normalY = 0;
+
+        for (int i = 0; i < candidates.size() + this.movingList.size(); i++) {
+            CollisionGrid.Entry e;
+            if (i < candidates.size()) {
+                e = candidates.get(i);
+            } else {
+                e = this.movingList.get(i - candidates.size());
+            }
+
+            if (!e.getCollidable().getCollisionRectangle().sweepCircle(x, y, dx, dy, r, closest)) {
+                continue;
+            }
+
+            double time = closest[2];
+            if (time < minTime
+                || (time == minTime && (closestEntry == null || e.getOrder() > closestEntry.getOrder()))) {
+                minTime = time;
+                closestEntry = e;
+                closestX = closest[0];
+                closestY = closest[1];
+                normalX = closest[3];
+                normalY = closest[4];
             }
         }
-        if (closestCollision == null || closestPoint == null) {
+        candidates.clear();
+
+        if (closestEntry == null) {
             return null;
         }
-        return new CollisionInfo(closestCollision, closestPoint);
+        return new CollisionInfo(closestEntry.getCollidable(), new Point(closestX, closestY), minTime,
+                                 normalX, normalY);
     }
 }
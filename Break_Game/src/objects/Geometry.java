@@ -0,0 +1,402 @@
+package objects;
+
+/**
+ * the geometry calculations on primitive values,
+ * so the collision path doesn't create objects.
+ * Line and Rectangle use the same calculations, so both ways
+ * give exactly the same results.
+ *
+ * a segment is given by its start (x1, y1) and its end (x2, y2).
+ * a rectangle is given by its left, top, right and bottom values.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-15
+ */
+public final class Geometry {
+
+    /**
+     * no instances.
+     */
+    private Geometry() {
+    }
+
+    /**
+     * the distance between two points.
+     *
+     * @param x1 the x value of the first point
+     * @param y1 the y value of the first point
+     * @param x2 the x value of the second point
+     * @param y2 the y value of the second point
+     * @return the distance between the points
+     */
+    public static double distance(double x1, double y1, double x2, double y2) {
+        // the sum of the (delta x)^2 + (delta y)^2
+        double powCalc = Math.pow(x1 - x2, 2) + Math.pow(y1 - y2, 2);
+
+        return Math.sqrt(powCalc);
+    }
+
+    /**
+     * checks if the segment contains the point.
+     *
+     * @param x1 the x value of the start of the segment
+     * @param y1 the y value of the start of the segment
+     * @param x2 the x value of the end of the segment
+     * @param y2 the y value of the end of the segment
+     * @param px the x value of the point
+     * @param py the y value of the point
+     * @return true if the point in the segment, else, false
+     */
+    public static boolean isPointInSegment(double x1, double y1, double x2, double y2, double px, double py) {
+
+        if (x1 == x2 && y1 == y2) {
+            return px == x1 && py == y1;
+        }
+
+        if ((px == x1 && py == y1) || (px == x2 && py == y2)) {
+            return true;
+        }
+
+        if (x1 <= px && px <= x2) {
+            return (y1 <= py && py <= y2) || (y2 <= py && py <= y1);
+
+        } else if (x2 <= px && px <= x1) {
+            return (y1 <= py && py <= y2) || (y2 <= py && py <= y1);
+        }
+
+        return false;
+    }
+
+    /**
+     * the intersection point of segment a with segment b.
+     *
+     * @param ax1 the x value of the start of a
+     * @param ay1 the y value of the start of a
+     * @param ax2 the x value of the end of a
+     * @param ay2 the y value of the end of a
+     * @param bx1 the x value of the start of b
+     * @param by1 the y value of the start of b
+     * @param bx2 the x value of the end of b
+     * @param by2 the y value of the end of b
+     * @param out gets the intersection point in out[0], out[1]
+     * @return true if the segments intersect, false otherwise
+     */
+    public static boolean intersection(double ax1, double ay1, double ax2, double ay2,
+                                       double bx1, double by1, double bx2, double by2, double[] out) {
+        boolean aIsPoint = ax1 == ax2 && ay1 == ay2;
+        boolean bIsPoint = bx1 == bx2 && by1 == by2;
+
+        // if at least one of the lines is a point line
+        if (aIsPoint) {
+            return isPointInSegment(bx1, by1, bx2, by2, ax1, ay1) && set(out, ax1, ay1);
+        }
+        if (bIsPoint) {
+            return isPointInSegment(ax1, ay1, ax2, ay2, bx1, by1) && set(out, bx1, by1);
+        }
+
+        boolean aVertical = ax1 == ax2;
+        boolean bVertical = bx1 == bx2;
+
+        // if both of the lines are vertical
+        if (aVertical && bVertical) {
+            return sameLinesIntersection(ax1, ay1, ax2, ay2, bx1, by1, bx2, by2, out);
+        }
+
+        // if one of the lines is vertical
+        if (aVertical || bVertical) {
+            double meetX;  // the x value of the meeting
+            double meetY;  // the y value of the meeting
+            if (aVertical) {
+                double bSlope = (by1 - by2) / (bx1 - bx2);
+                meetX = ax1;
+                meetY = bSlope * ax1 + (by1 - bSlope * bx1);
+            } else {
+                double aSlope = (ay1 - ay2) / (ax1 - ax2);
+                meetX = bx1;
+                meetY = aSlope * bx1 + (ay1 - aSlope * ax1);
+            }
+            return isPointInSegment(ax1, ay1, ax2, ay2, meetX, meetY)
+                   && isPointInSegment(bx1, by1, bx2, by2, meetX, meetY) && set(out, meetX, meetY);
+        }
+
+        double aSlope = (ay1 - ay2) / (ax1 - ax2);
+        double aFree = ay1 - aSlope * ax1;  // the intersection value with y axes
+        double bSlope = (by1 - by2) / (bx1 - bx2);
+        double bFree = by1 - bSlope * bx1;
+
+        // parallel lines have no intersection point, even if they are the
+        // same line (the collision was always found with the other edges)
+        if (aSlope == bSlope) {
+            return false;
+        }
+
+        // if the lines are different
+        double meetX = (bFree - aFree) / (aSlope - bSlope);
+        double meetY = aSlope * meetX + aFree;
+
+        return isPointInSegment(bx1, by1, bx2, by2, meetX, meetY)
+               && isPointInSegment(ax1, ay1, ax2, ay2, meetX, meetY) && set(out, meetX, meetY);
+    }
+
+    /**
+     * the intersection point of segment a with segment b
+     * when the lines are the same (with no connection to the length).
+     *
+     * @param ax1 the x value of the start of a
+     * @param ay1 the y value of the start of a
+     * @param ax2 the x value of the end of a
+     * @param ay2 the y value of the end of a
+     * @param bx1 the x value of the start of b
+     * @param by1 the y value of the start of b
+     * @param bx2 the x value of the end of b
+     * @param by2 the y value of the end of b
+     * @param out gets the intersection point in out[0], out[1]
+     * @return true if the segments intersect, false otherwise
+     */
+    private static boolean sameLinesIntersection(double ax1, double ay1, double ax2, double ay2,
+                                                 double bx1, double by1, double bx2, double by2, double[] out) {
+        // check start to start
+        if (ay1 == by1) {
+            return !isPointInSegment(bx1, by1, bx2, by2, ax2, ay2) && set(out, ax1, ay1);
+        }
+
+        // check end to end
+        if (ay2 == by2) {
+            return !isPointInSegment(bx1, by1, bx2, by2, ax1, ay1) && set(out, ax2, ay2);
+        }
+
+        // check start to end
+        if (ay1 == by2) {
+            return !isPointInSegment(bx1, by1, bx2, by2, ax2, ay2) && set(out, ax1, ay1);
+        }
+
+        // check end to start
+        if (ay2 == by1) {
+            return !isPointInSegment(bx1, by1, bx2, by2, ax1, ay1) && set(out, ax2, ay2);
+        }
+
+        // if there are no connection point or infinity connection points
+        return false;
+    }
+
+    /**
+     * the closest intersection point of the segment with the rectangle
+     * to the start of the segment.
+     * the edges are checked in the order of the rectangle lines:
+     * upper, right, down and left.
+     *
+     * @param left the left of the rectangle
+     * @param top the top of the rectangle
+     * @param right the right of the rectangle
+     * @param bottom the bottom of the rectangle
+     * @param x1 the x value of the start of the segment
+     * @param y1 the y value of the start of the segment
+     * @param x2 the x value of the end of the segment
+     * @param y2 the y value of the end of the segment
+     * @param out gets the point in out[0], out[1] and its distance
+     *            from the start in out[2]
+     * @return true if the segment intersects the rectangle, false otherwise
+     */
+    public static boolean closestIntersection(double left, double top, double right, double bottom,
+                                              double x1, double y1, double x2, double y2, double[] out) {
+        double minDistance = distance(x1, y1, x2, y2);  // the minimum distance
+        double closestX = 0;
+        double closestY = 0;
+        boolean found = false;
+
+        for (int i = 0; i < 4; i++) {
+            boolean meet;
+            if (i == 0) {
+                meet = intersection(left, top, right, top, x1, y1, x2, y2, out);
+            } else if (i == 1) {
+                meet = intersection(right, top, right, bottom, x1, y1, x2, y2, out);
+            } else if (i == 2) {
+                meet = intersection(left, bottom, right, bottom, x1, y1, x2, y2, out);
+            } else {
+                meet = intersection(left, top, left, bottom, x1, y1, x2, y2, out);
+            }
+
+            if (meet) {
+                double dis = distance(x1, y1, out[0], out[1]);
+                if (minDistance >= dis) {
+                    minDistance = dis;
+                    closestX = out[0];
+                    closestY = out[1];
+                    found = true;
+                }
+            }
+        }
+
+        if (found) {
+            out[0] = closestX;
+            out[1] = closestY;
+            out[2] = minDistance;
+        }
+        return found;
+    }
+
+    /**
+     * the first time a moving circle touches the rectangle (swept circle).
+     * the center moves from (x, y) by (dx, dy) at times 0 to 1. the circle
+     * touches the rectangle when its center meets the rectangle grown by r
+     * with round corners: a side of the grown rectangle, or a circle of
+     * radius r around a corner.
+     * a circle that already touches the rectangle collides at time 0 if it
+     * moves into it, and doesn't collide if it moves away from it.
+     *
+     * @param left the left of the rectangle
+     * @param top the top of the rectangle
+     * @param right the right of the rectangle
+     * @param bottom the bottom of the rectangle
+     * @param x the x value of the start of the center
+     * @param y the y value of the start of the center
+     * @param dx the move of the center on the x axis
+     * @param dy the move of the center on the y axis
+     * @param r the radius of the circle
+     * @param out gets the touched point of the rectangle in out[0], out[1],
+     *            the time in out[2], and the normal of the touch (from the
+     *            rectangle to the circle, length 1) in out[3], out[4]
+     * @return true if the circle touches the rectangle, false otherwise
+     */
+    public static boolean sweepCircle(double left, double top, double right, double bottom,
+                                      double x, double y, double dx, double dy, double r, double[] out) {
+        // the point of the rectangle that is the closest to the center
+        double qx = Math.max(left, Math.min(right, x));
+        double qy = Math.max(top, Math.min(bottom, y));
+        double ox = x - qx;
+        double oy = y - qy;
+        double dist2 = ox * ox + oy * oy;
+
+        if (dist2 <= r * r) {
+            // it touches now, the normal is from the closest point
+            double nx = 0;
+            double ny = 0;
+            if (dist2 > 0) {
+                double dist = Math.sqrt(dist2);
+                nx = ox / dist;
+                ny = oy / dist;
+            } else {
+                // the center is inside, the closest side
+                double toLeft = x - left;
+                double toRight = right - x;
+                double toTop = y - top;
+                double toBottom = bottom - y;
+                double min = Math.min(Math.min(toLeft, toRight), Math.min(toTop, toBottom));
+                if (min == toTop) {
+                    ny = -1;
+                    qy = top;
+                } else if (min == toBottom) {
+                    ny = 1;
+                    qy = bottom;
+                } else if (min == toLeft) {
+                    nx = -1;
+                    qx = left;
+                } else {
+                    nx = 1;
+                    qx = right;
+                }
+            }
+            if (dx * nx + dy * ny >= 0) {
+                return false;
+            }
+            return set(out, qx, qy, 0, nx, ny);
+        }
+
+        // the times the center is between the sides of the grown rectangle
+        double enter = Double.NEGATIVE_INFINITY;
+        double exit = 1;
+        boolean enterOnX = false;
+        if (dx == 0) {
+            if (x < left - r || x > right + r) {
+                return false;
+            }
+        } else {
+            double t1 = (left - r - x) / dx;
+            double t2 = (right + r - x) / dx;
+            enter = Math.min(t1, t2);
+            exit = Math.min(exit, Math.max(t1, t2));
+            enterOnX = true;
+        }
+        if (dy == 0) {
+            if (y < top - r || y > bottom + r) {
+                return false;
+            }
+        } else {
+            double t1 = (top - r - y) / dy;
+            double t2 = (bottom + r - y) / dy;
+            if (Math.min(t1, t2) > enter) {
+                enter = Math.min(t1, t2);
+                enterOnX = false;
+            }
+            exit = Math.min(exit, Math.max(t1, t2));
+        }
+        if (enter > exit || exit < 0 || enter > 1) {
+            return false;
+        }
+
+        double t = Math.max(enter, 0);
+        double hx = x + t * dx;
+        double hy = y + t * dy;
+        if (enter >= 0) {
+            if (enterOnX && hy >= top && hy <= bottom) {
+                return set(out, dx > 0 ? left : right, hy, t, dx > 0 ? -1 : 1, 0);
+            }
+            if (!enterOnX && hx >= left && hx <= right) {
+                return set(out, hx, dy > 0 ? top : bottom, t, 0, dy > 0 ? -1 : 1);
+            }
+        }
+
+        // the center is near a corner, it touches the corner or passes by it
+        double cx = hx < left ? left : right;
+        double cy = hy < top ? top : bottom;
+        double fx = x - cx;
+        double fy = y - cy;
+        double a = dx * dx + dy * dy;
+        double b = fx * dx + fy * dy;
+        double c = fx * fx + fy * fy - r * r;
+        double disc = b * b - a * c;
+        if (b >= 0 || disc < 0) {
+            return false;
+        }
+        double tc = (-b - Math.sqrt(disc)) / a;
+        if (tc < 0 || tc > 1) {
+            return false;
+        }
+        return set(out, cx, cy, tc, (x + tc * dx - cx) / r, (y + tc * dy - cy) / r);
+    }
+
+    /**
+     * set a touch to the out array.
+     *
+     * @param out the array
+     * @param x the x value of the point
+     * @param y the y value of the point
+     * @param t the time
+     * @param nx the x value of the normal
+     * @param ny the y value of the normal
+     * @return always true
+     */
+    private static boolean set(double[] out, double x, double y, double t, double nx, double ny) {
+        out[0] = x;
+        out[1] = y;
+        out[2] = t;
+        out[3] = nx;
+        out[4] = ny;
+        return true;
+    }
+
+    /**
+     * set the point to the out array.
+     *
+     * @param out the array
+     * @param x the x value
+     * @param y the y value
+     * @return always true
+     */
+    private static boolean set(double[] out, double x, double y) {
+        out[0] = x;
+        out[1] = y;
+        return true;
+    }
+}
@@ -2,19 +2,24 @@ package objects;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * the table of the best player's score.
+ * the table keeps every score that was added, in a Leaderboard, and shows
+ * the best size scores (or any other page of them).
+ * the table is stored by a ScoreLog: saving appends the new scores to its
+ * log, and the snapshot is rewritten only when the log is long.
+ * a file of the old format (java serialization) is read once and
+ * replaced by a snapshot.
  *
  * @author Daniel Kaganovich
- * @version 1.0
+ * @version 1.2
  * @since 2018-06-06
  */
 public class HighScoresTable implements Serializable {
@@ -25,46 +30,33 @@ public class HighScoresTable implements Serializable {
     private static final long serialVersionUID = 1L;
     private int size;
     private static final int DEFULT_SIZE = 5;
-    private ScoreInfo[] table;
+    private ScoreInfo[] table;  // only the old format has it
+
+    private transient Leaderboard scores;  // all the scores
+    private transient ScoreLog log;  // the store the table was loaded from or saved to
+    private transient File logFile;  // the file of the log
+    private transient List<ScoreInfo> unsaved;  // the scores that were added since then
 
     /**
      * Create an empty high-scores table with the specified size.
      *
-     * @param size means that the table holds up to size top scores.
+     * @param size means that the table shows up to size top scores.
      *        size should be bigger than 0.
      */
     public HighScoresTable(int size) {
         this.size = size;
-        table = new ScoreInfo[size];  // all elements are null now
+        this.scores = new Leaderboard();
+        this.unsaved = new ArrayList<ScoreInfo>();
     }
 
     /**
-     * Add a high-score.
+     * Add a score, every score is kept even if it is not a high score.
      *
      * @param score the score to add
      */
     public void add(ScoreInfo score) {
-
-        int addIndex = getRank(score.getScore());
-        if (addIndex > size) {
-            return;
-        }
-
-        addIndex -= 1;  // adjust to array
-
-        ScoreInfo temp = score;
-
-        for (int i = addIndex; i < size; i++) {
-            ScoreInfo scoreI = this.table[i];
-
-            if (scoreI == null) {
-                this.table[i] = temp;
-                return;
-            }
-
-            this.table[i] = temp;
-            temp = scoreI;
-        }
+        this.scores.add(score);
+        this.unsaved.add(score);
     }
 
     /**
@@ -76,6 +68,15 @@ public class HighScoresTable implements Serializable {
         return this.size;
     }
 
+    /**
+     * Return the number of scores that were added.
+     *
+     * @return the number of scores
+     */
+    public int count() {
+        return this.scores.size();
+    }
+
     /**
      * The list is sorted such that the highest
      * scores come first.
@@ -83,49 +84,50 @@ public class HighScoresTable implements Serializable {
      * @return the current high scores.
      */
     public List<ScoreInfo> getHighScores() {
-        List<ScoreInfo> list = new ArrayList<ScoreInfo>();
+        return this.scores.top(0, this.size);
+    }
 
-        for (int i = 0; i < this.size; i++) {
-            if (this.table[i] == null) {
-                return list;
-            }
-            list.add(this.table[i]);
-        }
-        return list;
+    /**
+     * get a page of the scores, the highest first.
+     *
+     * @param page the page, from 0
+     * @return up to size() scores, from rank page * size() + 1
+     */
+    public List<ScoreInfo> getPage(int page) {
+        return this.scores.top(page * this.size, this.size);
+    }
+
+    /**
+     * get some of the scores, the highest first.
+     *
+     * @param from the number of scores to skip
+     * @param count the number of scores
+     * @return up to count scores, from rank from + 1
+     */
+    public List<ScoreInfo> getScores(int from, int count) {
+        return this.scores.top(from, count);
     }
 
     /**
      * the function checks the rank of the current score
      * Rank 1 means the score will be highest on the list.
      * Rank `size` means the score will be lowest.
-     * Rank > `size` means the score is too low and will not
-     *               be added to the list.
+     * Rank > `size` means the score is too low to be shown
+     *               on the list.
      *
      * @param score the score to check
      * @return the rank of the current score: where will it
      *         be on the list if added?
      */
     public int getRank(int score) {
-        for (int i = 0; i < this.size; i++) {
-
-            if (this.table[i] == null) {
-                return (i + 1);
-            }
-
-            if (score > this.table[i].getScore()) {
-                return (i + 1);
-            }
-        }
-        return size + 1;
+        return this.scores.rank(score);
     }
 
     /**
      * Clears the table.
      */
     public void clear() {
-        for (int i = 0; i < this.size; i++) {
-            this.table[i] = null;
-        }
+        this.scores.clear();
     }
 
     /**
@@ -137,16 +139,77 @@ public class HighScoresTable implements Serializable {
      */
     public void load(File filename) throws IOException {
 
+        if (ScoreLog.isSerialized(filename)) {
+            this.loadSerialized(filename);
+
+            // replace the old file by a snapshot of the table
+            ScoreLog scoreLog = new ScoreLog(filename);
+            this.useLog(scoreLog, filename);
+            scoreLog.compact(this.getScores(0, this.count()));
+            this.unsaved.clear();
+            return;
+        }
+
+        ScoreLog scoreLog = new ScoreLog(filename);
+        if (!scoreLog.exists()) {
+            throw new FileNotFoundException(filename.getPath());
+        }
+
+        List<ScoreInfo> scores;
+        try {
+            scores = scoreLog.recover();
+        } catch (IOException e) {
+            scoreLog.close();
+            throw e;
+        }
+        this.clear();
+        for (ScoreInfo score : scores) {
+            this.add(score);
+        }
+
+        this.useLog(scoreLog, filename);
+        this.unsaved.clear();
+    }
+
+    /**
+     * store the table by a log from now, the log before it is closed.
+     *
+     * @param scoreLog the log
+     * @param filename the file of the log
+     * @throws IOException if the log before it can't be closed
+     */
+    private void useLog(ScoreLog scoreLog, File filename) throws IOException {
+        ScoreLog old = this.log;
+        this.log = scoreLog;
+        this.logFile = filename;
+        if (old != null && old != scoreLog) {
+            old.close();
+        }
+    }
+
+    /**
+     * Load table data from a file of the old format.
+     *
+     * @param filename the file name
+     * @throws IOException throws if not find or open the File
+     */
+    private void loadSerialized(File filename) throws IOException {
+
         FileInputStream file = new FileInputStream(filename);
         ObjectInputStream inputObjectFile = new ObjectInputStream(file);
         try {
             HighScoresTable obj = (HighScoresTable) inputObjectFile.readObject();
 
             this.size = obj.size;
-            this.table = obj.table;
+            this.clear();
+            for (int i = 0; obj.table != null && i < obj.table.length; i++) {
+                if (obj.table[i] != null) {
+                    this.scores.add(obj.table[i]);
+                }
+            }
 
         } catch (ClassNotFoundException e) {
-            e.printStackTrace();
+            throw new IOException("the old high scores file can't be read");
         } finally {
             inputObjectFile.close();
             file.close();
@@ -155,29 +218,69 @@ public class HighScoresTable implements Serializable {
 
     /**
      * Save table data to the specified file.
+     * if the table was loaded from (or saved to) this file, only the
+     * scores that were added since then are appended.
      *
      * @param filename the file name
      * @throws IOException throws if not find or open the File
      */
     public void save(File filename) throws IOException {
 
-        FileOutputStream file = new FileOutputStream(filename);
-        ObjectOutputStream outputObjectFile = new ObjectOutputStream(file);
+        if (this.log == null || !filename.equals(this.logFile)) {
+            ScoreLog scoreLog = new ScoreLog(filename);
+            try {
+                scoreLog.compact(this.getScores(0, this.count()));
+            } catch (IOException e) {
+                scoreLog.close();
+                throw e;
+            }
+            this.useLog(scoreLog, filename);
 
-        try {
-            outputObjectFile.writeObject(this);
+        } else {
+            for (ScoreInfo score : this.unsaved) {
+                this.log.append(score);
+            }
+            if (this.log.needsCompaction()) {
+                this.log.compact(this.getScores(0, this.count()));
+            }
+        }
 
-        } finally {
+        this.unsaved.clear();
+    }
 
-            outputObjectFile.close();
-            file.close();
+    /**
+     * Read a table from a file without changing the file: a file of the
+     * old format is not replaced by a snapshot, and a damaged log is not
+     * repaired. the table is not connected to the file, saving it
+     * writes a new file.
+     *
+     * @param filename the file name
+     * @return new table from the file
+     * @throws IOException if the file doesn't exist, can't be read or is damaged
+     */
+    public static HighScoresTable readFile(File filename) throws IOException {
+
+        HighScoresTable table = new HighScoresTable(HighScoresTable.DEFULT_SIZE);
+        if (ScoreLog.isSerialized(filename)) {
+            table.loadSerialized(filename);
+            return table;
         }
+
+        ScoreLog scoreLog = new ScoreLog(filename);
+        if (!scoreLog.exists()) {
+            throw new FileNotFoundException(filename.getPath());
+        }
+        for (ScoreInfo score : scoreLog.read()) {
+            table.scores.add(score);
+        }
+        return table;
     }
 
     /**
      * Read a table from file and return it.
      * If the file does not exist, or there is a problem with
-     * reading it, an empty table is returned.
+     * reading it, an empty table is returned. a file that can't be
+     * read is renamed to "filename.damaged", so it is not overwritten.
      *
      * @param filename the file name
      * @return new table from the file
@@ -188,7 +291,13 @@ public class HighScoresTable implements Serializable {
 
         try {
             table.load(filename);
+        } catch (FileNotFoundException e) {
+            return new HighScoresTable(HighScoresTable.DEFULT_SIZE);
         } catch (IOException e) {
+            File damaged = new File(filename.getPath() + ".damaged");
+            System.out.println("Problem with reading the high scores: " + e.getMessage()
+                               + ", the file is moved to " + damaged);
+            filename.renameTo(damaged);
             return new HighScoresTable(HighScoresTable.DEFULT_SIZE);
         }
 
@@ -0,0 +1,47 @@
+package objects;
+
+import java.awt.Image;
+
+import biuoop.DrawSurface;
+
+import interfaces.StaticSprite;
+
+/**
+ * a background of an image.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-24
+ */
+public class ImageBackground implements StaticSprite {
+
+    private Image img;
+
+    /**
+     * create the background.
+     *
+     * @param img the image of the background
+     */
+    public ImageBackground(Image img) {
+        this.img = img;
+    }
+
+    /**
+     * get the image of the background.
+     *
+     * @return the image
+     */
+    public Image getImage() {
+        return this.img;
+    }
+
+    @Override
+    public void drawOn(DrawSurface d) {
+        d.drawImage(0, 0, this.img);
+    }
+
+    @Override
+    public void timePassed(double dt) {
+        return;
+    }
+}
@@ -0,0 +1,126 @@
+package objects;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Polygon;
+import java.awt.image.BufferedImage;
+
+import biuoop.DrawSurface;
+
+/**
+ * a DrawSurface that draws on an image,
+ * with the same drawing as the surface of the GUI.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-20
+ */
+public class ImageDrawSurface implements DrawSurface {
+
+    private BufferedImage image;
+    private Graphics2D g;
+
+    /**
+     * create a surface on a new transparent image.
+     *
+     * @param width the width of the image
+     * @param height the height of the image
+     */
+    public ImageDrawSurface(int width, int height) {
+        this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        this.g = this.image.createGraphics();
+        this.g.setColor(Color.BLACK);
+    }
+
+    /**
+     * get the image of the surface.
+     *
+     * @return the image
+     */
+    public BufferedImage getImage() {
+        return this.image;
+    }
+
+    /**
+     * get the graphics of the image, to change the clip of the drawing.
+     *
+     * @return the graphics of the image
+     */
+    public Graphics2D getGraphics() {
+        return this.g;
+    }
+
+    @Override
+    public int getWidth() {
+        return this.image.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+        return this.image.getHeight();
+    }
+
+    @Override
+    public void setColor(Color color) {
+        this.g.setColor(color);
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        this.g.drawLine(x1, y1, x2, y2);
+    }
+
+    @Override
+    public void drawOval(int x, int y, int width, int height) {
+        this.g.drawOval(x, y, width, height);
+    }
+
+    @Override
+    public void fillOval(int x, int y, int width, int height) {
+        this.g.fillOval(x, y, width, height);
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int width, int height) {
+        this.g.drawRect(x, y, width, height);
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int width, int height) {
+        this.g.fillRect(x, y, width, height);
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image img) {
+        this.g.drawImage(img, x, y, null);
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+        this.g.drawOval(x - r, y - r, 2 * r, 2 * r);
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+        this.g.fillOval(x - r, y - r, 2 * r, 2 * r);
+    }
+
+    @Override
+    public void drawText(int x, int y, String text, int fontSize) {
+        Font font = this.g.getFont();
+        this.g.setFont(new Font(font.getFontName(), font.getStyle(), fontSize));
+        this.g.drawString(text, x, y);
+    }
+
+    @Override
+    public void drawPolygon(Polygon p) {
+        this.g.drawPolygon(p);
+    }
+
+    @Override
+    public void fillPolygon(Polygon p) {
+        this.g.fillPolygon(p);
+    }
+}
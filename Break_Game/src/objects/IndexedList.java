@@ -0,0 +1,124 @@
+package objects;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * a list that keeps the order of insertion, with removal in O(1).
+ * each item knows its place in the list, and a removed item leaves
+ * an empty (null) place. the empty places are removed all at once
+ * when they are more than the items, so the indexes change only then.
+ * an item can be in the list only once.
+ *
+ * @param <T> the type of the items
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-21
+ */
+public class IndexedList<T> {
+
+    private List<T> items;  // the items, null for a removed item
+    private Map<T, Integer> places;  // the place of each item in the list
+    private int holes;  // the number of empty places
+
+    /**
+     * create an empty list.
+     */
+    public IndexedList() {
+        this.items = new ArrayList<T>();
+        this.places = new IdentityHashMap<T, Integer>();
+        this.holes = 0;
+    }
+
+    /**
+     * add the item to the end of the list.
+     *
+     * @param item the item to add
+     * @return true if the item was added, false if it was already in the list
+     */
+    public boolean add(T item) {
+        if (this.places.containsKey(item)) {
+            return false;
+        }
+        this.places.put(item, this.items.size());
+        this.items.add(item);
+        return true;
+    }
+
+    /**
+     * remove the item from the list.
+     *
+     * @param item the item to remove
+     * @return true if the item was removed, false if it wasn't in the list
+     */
+    public boolean remove(T item) {
+        Integer place = this.places.remove(item);
+        if (place == null) {
+            return false;
+        }
+        this.items.set(place, null);
+        this.holes++;
+
+        if (this.holes > this.places.size()) {
+            this.compact();
+        }
+        return true;
+    }
+
+    /**
+     * check if the item is in the list.
+     *
+     * @param item the item
+     * @return true if the item is in the list, otherwise false
+     */
+    public boolean contains(T item) {
+        return this.places.containsKey(item);
+    }
+
+    /**
+     * get the item in a place.
+     *
+     * @param i the place, from 0 to slots() - 1
+     * @return the item, or null if the place is empty
+     */
+    public T get(int i) {
+        return this.items.get(i);
+    }
+
+    /**
+     * get the number of places in the list, with the empty places.
+     *
+     * @return the number of places
+     */
+    public int slots() {
+        return this.items.size();
+    }
+
+    /**
+     * get the number of items in the list.
+     *
+     * @return the number of items
+     */
+    public int size() {
+        return this.places.size();
+    }
+
+    /**
+     * remove the empty places, the items keep their order.
+     */
+    private void compact() {
+        int to = 0;
+        for (int from = 0; from < this.items.size(); from++) {
+            T item = this.items.get(from);
+            if (item != null) {
+                this.items.set(to, item);
+                this.places.put(item, to);
+                to++;
+            }
+        }
+        this.items.subList(to, this.items.size()).clear();
+        this.holes = 0;
+    }
+}
@@ -0,0 +1,137 @@
+package objects;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import biuoop.KeyboardSensor;
+
+import interfaces.InputSource;
+
+/**
+ * a script of key presses, each key is pressed from a step
+ * until (not including) another step.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-17
+ */
+public class KeyScript implements InputSource {
+
+    private List<String> keys;
+    private List<long[]> ranges;  // the [from, to) steps of each press
+
+    // for each key: the presses sorted by their first step,
+    // and the latest release step up to each press (built on demand)
+    private TreeMap<String, long[][]> index;
+
+    /**
+     * create an empty script -- no key is pressed.
+     */
+    public KeyScript() {
+        this.keys = new ArrayList<String>();
+        this.ranges = new ArrayList<long[]>();
+        this.index = null;
+    }
+
+    /**
+     * press the key from a step until another step.
+     *
+     * @param key the key to press
+     * @param from the first step of the press
+     * @param to the step that the key is released
+     * @return this script
+     */
+    public KeyScript press(String key, long from, long to) {
+        this.keys.add(key);
+        this.ranges.add(new long[] {from, to});
+        this.index = null;
+        return this;
+    }
+
+    /**
+     * create a script that moves the paddle left and right at random,
+     * the same for the same seed.
+     *
+     * @param seed the seed of the random moves
+     * @param steps the number of steps of the script
+     * @return the script
+     */
+    public static KeyScript random(long seed, long steps) {
+        Random random = new Random(seed);
+        KeyScript script = new KeyScript();
+
+        long tick = 0;
+        while (tick < steps) {
+            long length = 1 + random.nextInt(60);
+            int move = random.nextInt(3);
+
+            if (move == 1) {
+                script.press(KeyboardSensor.LEFT_KEY, tick, tick + length);
+            } else if (move == 2) {
+                script.press(KeyboardSensor.RIGHT_KEY, tick, tick + length);
+            }
+            tick += length;
+        }
+        return script;
+    }
+
+    @Override
+    public boolean isPressed(String key, long tick) {
+        if (this.index == null) {
+            this.buildIndex();
+        }
+
+        long[][] presses = this.index.get(key);
+        if (presses == null) {
+            return false;
+        }
+
+        // the last press that starts until the tick
+        int i = Arrays.binarySearch(presses[0], tick);
+        if (i < 0) {
+            i = -i - 2;
+        } else {
+            while (i + 1 < presses[0].length && presses[0][i + 1] == tick) {
+                i++;
+            }
+        }
+
+        // pressed if one of the presses that started is not released yet
+        return i >= 0 && presses[1][i] > tick;
+    }
+
+    /**
+     * build the index of the presses of each key.
+     */
+    private void buildIndex() {
+        this.index = new TreeMap<String, long[][]>();
+
+        for (String key : new TreeSet<String>(this.keys)) {
+            List<long[]> keyRanges = new ArrayList<long[]>();
+            for (int i = 0; i < this.keys.size(); i++) {
+                if (this.keys.get(i).equals(key)) {
+                    keyRanges.add(this.ranges.get(i));
+                }
+            }
+            keyRanges.sort(new Comparator<long[]>() {
+                @Override
+                public int compare(long[] a, long[] b) {
+                    return Long.compare(a[0], b[0]);
+                }
+            });
+
+            long[] starts = new long[keyRanges.size()];
+            long[] latestEnds = new long[keyRanges.size()];
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = keyRanges.get(i)[0];
+                latestEnds[i] = Math.max(keyRanges.get(i)[1], i > 0 ? latestEnds[i - 1] : Long.MIN_VALUE);
+            }
+            this.index.put(key, new long[][] {starts, latestEnds});
+        }
+    }
+}
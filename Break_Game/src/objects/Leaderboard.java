@@ -0,0 +1,216 @@
+package objects;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * all the scores that were ever played, ordered from the highest.
+ * the scores are counted in a Fenwick tree that has a bucket for each
+ * score, so adding a score and finding the rank of a score take
+ * O(log m) (m is the highest score), and a page of the top scores is
+ * found without going over the scores before it.
+ * equal scores are ordered by the time they were added.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-26
+ */
+public class Leaderboard {
+
+    private static final int MIN_CAPACITY = 1024;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private int[] tree;  // the Fenwick tree, tree[i] counts the scores of a range that ends at i - 1
+    private int[] counts;  // the number of scores in each bucket
+    private int[][] entries;  // the names of the scores of each bucket, in the order they were added
+    private int total;
+
+    // the names are kept once, the entries hold their indexes
+    private List<String> names;
+    private Map<String, Integer> nameIndexes;
+
+    /**
+     * create an empty leaderboard.
+     */
+    public Leaderboard() {
+        this.names = new ArrayList<String>();
+        this.nameIndexes = new HashMap<String, Integer>();
+        this.clear();
+    }
+
+    /**
+     * remove all the scores.
+     */
+    public void clear() {
+        this.tree = new int[MIN_CAPACITY + 1];
+        this.counts = new int[MIN_CAPACITY];
+        this.entries = new int[MIN_CAPACITY][];
+        this.total = 0;
+        this.names.clear();
+        this.nameIndexes.clear();
+    }
+
+    /**
+     * get the number of scores.
+     *
+     * @return the number of scores
+     */
+    public int size() {
+        return this.total;
+    }
+
+    /**
+     * get the rank a score would get if it is added now.
+     * rank 1 is the highest, a score is ranked after the equal scores.
+     *
+     * @param score the score
+     * @return the rank of the score
+     */
+    public int rank(int score) {
+        if (score < 0) {
+            throw new RuntimeException("a score can't be negative: " + score);
+        }
+        if (score >= this.counts.length) {
+            return 1;
+        }
+        // the scores that are not lower than it
+        return 1 + this.total - this.prefix(score - 1);
+    }
+
+    /**
+     * add a score.
+     *
+     * @param score the score to add
+     * @return the rank of the score
+     */
+    public int add(ScoreInfo score) {
+        int value = score.getScore();
+        int rank = this.rank(value);
+        if (value >= this.counts.length) {
+            this.grow(value);
+        }
+
+        int[] bucket = this.entries[value];
+        if (bucket == null) {
+            bucket = new int[2];
+        } else if (bucket.length == this.counts[value]) {
+            int[] bigger = new int[bucket.length * 2];
+            System.arraycopy(bucket, 0, bigger, 0, bucket.length);
+            bucket = bigger;
+        }
+        bucket[this.counts[value]] = this.nameIndex(score.getName());
+        this.entries[value] = bucket;
+        this.counts[value]++;
+        this.total++;
+
+        for (int i = value + 1; i < this.tree.length; i += i & -i) {
+            this.tree[i]++;
+        }
+        return rank;
+    }
+
+    /**
+     * get a page of the scores, from the highest.
+     *
+     * @param from the number of scores to skip (0 for the highest)
+     * @param count the number of scores
+     * @return up to count scores, from rank from + 1
+     */
+    public List<ScoreInfo> top(int from, int count) {
+        List<ScoreInfo> page = new ArrayList<ScoreInfo>(Math.max(0, Math.min(count, this.total - from)));
+        int next = Math.max(0, from);
+        int end = (int) Math.min((long) next + count, this.total);
+
+        while (next < end) {
+            // the bucket of the next score, and the scores above the bucket
+            int value = this.kth(this.total - next);
+            int above = this.total - this.prefix(value);
+            for (int i = next - above; i < this.counts[value] && next < end; i++, next++) {
+                page.add(new ScoreInfo(this.names.get(this.entries[value][i]), value));
+            }
+        }
+        return page;
+    }
+
+    /**
+     * count the scores that are not higher than a score.
+     *
+     * @param score the score
+     * @return the number of scores that are lower or equal
+     */
+    private int prefix(int score) {
+        int sum = 0;
+        for (int i = Math.min(score + 1, this.tree.length - 1); i > 0; i -= i & -i) {
+            sum += this.tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * find the k-th lowest score.
+     *
+     * @param k from 1 to size()
+     * @return the score
+     */
+    private int kth(int k) {
+        int pos = 0;
+        for (int step = Integer.highestOneBit(this.tree.length - 1); step > 0; step >>= 1) {
+            if (pos + step < this.tree.length && this.tree[pos + step] < k) {
+                pos += step;
+                k -= this.tree[pos];
+            }
+        }
+        return pos;  // the tree index pos + 1 is the bucket pos
+    }
+
+    /**
+     * make room for a score, the tree is built again from the counts.
+     *
+     * @param score the highest score to fit
+     */
+    private void grow(int score) {
+        if (score >= MAX_CAPACITY) {
+            throw new RuntimeException("the score " + score + " is too high");
+        }
+        int capacity = this.counts.length;
+        while (capacity <= score) {
+            capacity *= 2;
+        }
+
+        int[] newCounts = new int[capacity];
+        System.arraycopy(this.counts, 0, newCounts, 0, this.counts.length);
+        int[][] newEntries = new int[capacity][];
+        System.arraycopy(this.entries, 0, newEntries, 0, this.entries.length);
+
+        int[] newTree = new int[capacity + 1];
+        for (int i = 1; i <= capacity; i++) {
+            newTree[i] += newCounts[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                newTree[parent] += newTree[i];
+            }
+        }
+
+        this.counts = newCounts;
+        this.entries = newEntries;
+        this.tree = newTree;
+    }
+
+    /**
+     * get the index of a name, add it if it is new.
+     *
+     * @param name the name
+     * @return the index of the name
+     */
+    private int nameIndex(String name) {
+        Integer index = this.nameIndexes.get(name);
+        if (index == null) {
+            index = this.names.size();
+            this.names.add(name);
+            this.nameIndexes.put(name, index);
+        }
+        return index;
+    }
+}
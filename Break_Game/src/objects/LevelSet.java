@@ -0,0 +1,56 @@
+package objects;
+
+/**
+ * a level set from the level sets file:
+ * the key to select it, its name and the path of its level file.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-18
+ */
+public class LevelSet {
+
+    private String key;
+    private String name;
+    private String path;
+
+    /**
+     * create a new level set.
+     *
+     * @param key the key to select the set
+     * @param name the name of the set
+     * @param path the path of the level file, in the resources
+     */
+    public LevelSet(String key, String name, String path) {
+        this.key = key;
+        this.name = name;
+        this.path = path;
+    }
+
+    /**
+     * get the key to select the set.
+     *
+     * @return the key
+     */
+    public String getKey() {
+        return this.key;
+    }
+
+    /**
+     * get the name of the set.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * get the path of the level file.
+     *
+     * @return the path in the resources
+     */
+    public String getPath() {
+        return this.path;
+    }
+}
@@ -5,15 +5,13 @@ package objects;
  * by two points, start and end.
  *
  * @author Daniel Kaganovich
- * @version 1.1
+ * @version 1.2
  * @since 2018-03-20
  */
 public class Line {
 
   private Point start;  // the start point
   private Point end;  // the first point
-  private Double slopeLine;  // the slope of the line
-  private Double freeP;  // the intersection value with y axes
 
   /**
    * constructor for p1, p2 values that it's gets
@@ -25,20 +23,6 @@ public class Line {
   public Line(Point start, Point end) {
     this.start = start;
     this.end = end;
-
-    if (start.equals(end)) {
-      this.slopeLine = null;
-      this.freeP = null;
-
-    // if it's a vertical line
-    } else if (start.getX() == end.getX()) {
-      this.slopeLine = null;
-      this.freeP = null;
-
-    }  else {
-      this.slopeLine = (start.getY() - end.getY()) / (start.getX() - end.getX());
-      this.freeP = start.getY() - this.slopeLine * start.getX();
-    }
   }
 
   /**
@@ -118,36 +102,11 @@ public class Line {
    *         and null otherwise.
    */
   public Point intersectionWith(Line other) {
+    double[] meet = new double[2];  // the meeting point
 
-    // if at least one of the lines is a point line
-    if (this.start.equals(this.end) || other.start.equals(other.end)) {
-      return this.intersectionWithForPointLine(other);
-    }
-
-    // if both of the lines are vertical
-    if (this.slopeLine == null && other.slopeLine == null) {
-      return this.intersectionWithWhenBothVerticalLines(other);
-    }
-
-    // if one of the lines is vertical
-    if (this.slopeLine == null || other.slopeLine == null) {
-      return this.intersectionWithWhenOnlyOneLineVertical(other);
-    }
-
-    // if the lines are parallel
-    if (this.slopeLine == other.slopeLine) {
-      return this.intersectionWithWhenParallelLines(other);
-    }
-
-    // if the lines are different
-    // the x value of the meeting point
-    double meetX = (double) (other.freeP - this.freeP) / (this.slopeLine - other.slopeLine);
-    // the y value of the meeting point
-    double meetY = this.slopeLine * meetX + this.freeP;
-    Point meetPoint = new Point(meetX, meetY);  // the meeting point
-
-    if (other.isPointInLine(meetPoint) && this.isPointInLine(meetPoint)) {
-      return meetPoint;
+    if (Geometry.intersection(this.start.getX(), this.start.getY(), this.end.getX(), this.end.getY(),
+                              other.start.getX(), other.start.getY(), other.end.getX(), other.end.getY(), meet)) {
+      return new Point(meet[0], meet[1]);
     }
 
     return null;  // there is no intersection point
@@ -196,168 +155,8 @@ public class Line {
    *         else, false
    */
   public boolean isPointInLine(Point p) {
-
-    if (start.equals(end)) {
-      return p.equals(start);
-    }
-
-    if (p.equals(this.start) || p.equals(this.end)) {
-        return true;
-    }
-
-    if (this.start.getX() <= p.getX() && p.getX() <= this.end.getX()) {
-
-      if (this.start.getY() <= p.getY() && p.getY() <= this.end.getY()) {
-        return true;
-
-      } else if (this.end.getY() <= p.getY() && p.getY() <= this.start.getY()) {
-          return true;
-      }
-
-    } else if (this.end.getX() <= p.getX() && p.getX() <= this.start.getX()) {
-
-        if (this.start.getY() <= p.getY() && p.getY() <= this.end.getY()) {
-          return true;
-
-        } else if (this.end.getY() <= p.getY() && p.getY() <= this.start.getY()) {
-          return true;
-        }
-    }
-
-    return false;
-  }
-
-  /**
-   * the function checks if a line intersect with a line
-   * when one of the line is a point.
-   *
-   * @param other a line
-   * @return the intersection point if the lines intersect,
-   *         and null otherwise.
-   */
-  private Point intersectionWithForPointLine(Line other) {
-    if (this.start.equals(this.end)) {
-      if (other.isPointInLine(this.start)) {
-        return new Point(this.start.getX(), this.start.getY());
-      }
-      return null;
-    }
-
-    if (other.start.equals(other.end)) {
-      if (this.isPointInLine(other.start)) {
-        return new Point(other.start.getX(), other.start.getY());
-      }
-      return null;
-    }
-    return null;  // should not get here
-  }
-
-  /**
-   * the function checks if a line intersect with a line
-   * when both of the lines are vertical.
-   *
-   * @param other a line
-   * @return the intersection point if the lines intersect,
-   *         and null otherwise.
-   */
-  private Point intersectionWithWhenBothVerticalLines(Line other) {
-    return this.getPointInterectionForSameLines(other);
-  }
-
-  /**
-   * the function checks if a line intersect with a line
-   * when one of the lines is vertical.
-   *
-   * @param other a line
-   * @return the intersection point if the lines intersect,
-   *         and null otherwise.
-   */
-  private Point intersectionWithWhenOnlyOneLineVertical(Line other) {
-    double meetingY;  // the y value of the meeting
-    Point meetP;  // the meeting point
-
-    if (this.start.getX() == this.end.getX()) {
-      meetingY = other.slopeLine * this.start.getX() + other.freeP;
-      meetP = new Point(this.start.getX(), meetingY);
-
-      if (this.isPointInLine(meetP) && other.isPointInLine(meetP)) {
-        return meetP;
-      }
-      return null;
-    }
-
-    // the other is vertical
-    meetingY = this.slopeLine * other.start.getX() + this.freeP;
-    meetP = new Point(other.start.getX(), meetingY);
-
-    if (this.isPointInLine(meetP) && other.isPointInLine(meetP)) {
-      return meetP;
-    }
-
-    return null;
-  }
-
-  /**
-   * the function checks if a line intersect with a line
-   * when the lines are parallel.
-   *
-   * @param other a line
-   * @return the intersection point if the lines intersect,
-   *         and null otherwise.
-   */
-  private Point intersectionWithWhenParallelLines(Line other) {
-    if (this.freeP != other.freeP) {
-      return null;
-    }
-
-    return this.getPointInterectionForSameLines(other);
-  }
-
-  /**
-   * the function checks if a line intersect with a line
-   * when the lines are the same (with no connection to the length).
-   *
-   * @param other a line
-   * @return the intersection point if the lines intersect,
-   *         and null otherwise.
-   */
-  private Point getPointInterectionForSameLines(Line other) {
-
-    // check start to start
-    if (this.start.getY() == other.start.getY()) {
-
-      if (other.isPointInLine(this.end)) {
-        return null;
-      }
-      return new Point(this.start.getX(), this.start.getY());
-    }
-
-    // check end to end
-    if (this.end.getY() == other.end.getY()) {
-      if (other.isPointInLine(this.start)) {
-        return null;
-      }
-      return new Point(this.end.getX(), this.end.getY());
-    }
-
-    // check start to end
-    if (this.start.getY() == other.end.getY()) {
-      if (other.isPointInLine(this.end)) {
-        return null;
-      }
-      return new Point(this.start.getX(), this.start.getY());
-    }
-
-    // check end to start
-    if (this.end.getY() == other.start.getY()) {
-      if (other.isPointInLine(this.start)) {
-        return null;
-      }
-      return new Point(this.end.getX(), this.end.getY());
-    }
-
-    // if there are no connection point or infinity connection points
-    return null;
+    return Geometry.isPointInSegment(this.start.getX(), this.start.getY(), this.end.getX(), this.end.getY(),
+                                     p.getX(), p.getY());
   }
 
   /**
@@ -370,23 +169,13 @@ public class Line {
    *         tart of the line.
    */
   public Point closestIntersectionToStartOfLine(Rectangle rect) {
-    java.util.List<Point> intersectionPointsList = rect.intersectionPoints(this);
+    double[] closest = new double[3];  // the closest point and its distance
 
-    if (intersectionPointsList.isEmpty()) {
-      return null;
+    if (rect.closestIntersection(this.start.getX(), this.start.getY(), this.end.getX(), this.end.getY(),
+                                 closest)) {
+      return new Point(closest[0], closest[1]);
     }
-
-    Point closestPoint = null;  // the closest point
-    double minDistace = this.length();  // the minimum distance
-
-    for (int i = 0; i < intersectionPointsList.size(); i++) {
-      double dis = this.start.distance(intersectionPointsList.get(i));  // the distance between the points
-      if (minDistace >= dis) {
-        minDistace = dis;
-        closestPoint = intersectionPointsList.get(i);
-      }
-    }
-    return closestPoint;
+    return null;
   }
 
   /**
@@ -0,0 +1,150 @@
+package objects;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import interfaces.SlabKernel;
+
+/**
+ * the rectangles of the blocks of an environment, packed in arrays (the
+ * left, top, right and bottom of each block in its own array), so a slab
+ * kernel tests a move against all of them in one pass.
+ * a removed block is replaced by the last block, so the arrays stay full.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-07-01
+ */
+public class PackedBlocks {
+
+    private static final int MIN_CAPACITY = 64;
+    private static final String VECTOR_KERNEL = "objects.VectorSlabKernel";
+
+    private double[] left;
+    private double[] top;
+    private double[] right;
+    private double[] bottom;
+    private CollisionGrid.Entry[] entries;
+    private Map<CollisionGrid.Entry, Integer> indexes;  // the index of each entry in the arrays
+    private int count;
+
+    /**
+     * create empty arrays.
+     */
+    public PackedBlocks() {
+        this.left = new double[MIN_CAPACITY];
+        this.top = new double[MIN_CAPACITY];
+        this.right = new double[MIN_CAPACITY];
+        this.bottom = new double[MIN_CAPACITY];
+        this.entries = new CollisionGrid.Entry[MIN_CAPACITY];
+        this.indexes = new IdentityHashMap<CollisionGrid.Entry, Integer>();
+        this.count = 0;
+    }
+
+    /**
+     * get the fastest kernel: the vector kernel if it was compiled (make
+     * vector) and the vector API is there, else the scalar kernel.
+     *
+     * @return the kernel
+     */
+    public static SlabKernel loadKernel() {
+        try {
+            return (SlabKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new ScalarSlabKernel();
+        }
+    }
+
+    /**
+     * add the rectangle of an entry.
+     *
+     * @param e the entry of a block
+     */
+    public void add(CollisionGrid.Entry e) {
+        if (this.count == this.left.length) {
+            int capacity = this.count * 2;
+            this.left = Arrays.copyOf(this.left, capacity);
+            this.top = Arrays.copyOf(this.top, capacity);
+            this.right = Arrays.copyOf(this.right, capacity);
+            this.bottom = Arrays.copyOf(this.bottom, capacity);
+            this.entries = Arrays.copyOf(this.entries, capacity);
+        }
+        Rectangle rec = e.getCollidable().getCollisionRectangle();
+        this.set(this.count, rec.getLeft(), rec.getTop(), rec.getRight(), rec.getBottom(), e);
+        this.count++;
+    }
+
+    /**
+     * remove the rectangle of an entry, the last one takes its place.
+     *
+     * @param e the entry of a block
+     */
+    public void remove(CollisionGrid.Entry e) {
+        Integer index = this.indexes.remove(e);
+        if (index == null) {
+            return;
+        }
+        this.count--;
+        int last = this.count;
+        if (index != last) {
+            this.set(index, this.left[last], this.top[last], this.right[last], this.bottom[last],
+                     this.entries[last]);
+        }
+        this.entries[last] = null;
+    }
+
+    /**
+     * get the number of rectangles.
+     *
+     * @return the number of rectangles
+     */
+    public int size() {
+        return this.count;
+    }
+
+    /**
+     * get the entry of an index.
+     *
+     * @param i the index, from 0 to size() - 1
+     * @return the entry
+     */
+    public CollisionGrid.Entry get(int i) {
+        return this.entries[i];
+    }
+
+    /**
+     * find the enter times of a moving center into all the rectangles grown
+     * by a radius (see SlabKernel.enterTimes).
+     *
+     * @param kernel the kernel
+     * @param x the x value of the start of the center
+     * @param y the y value of the start of the center
+     * @param dx the move of the center on the x axis
+     * @param dy the move of the center on the y axis
+     * @param r the radius to grow the rectangles by
+     * @param times the array of the times, at least size() long
+     */
+    public void enterTimes(SlabKernel kernel, double x, double y, double dx, double dy, double r, double[] times) {
+        kernel.enterTimes(this.left, this.top, this.right, this.bottom, this.count, x, y, dx, dy, r, times);
+    }
+
+    /**
+     * put a rectangle in an index.
+     *
+     * @param i the index
+     * @param l the left
+     * @param t the top
+     * @param r the right
+     * @param b the bottom
+     * @param e the entry
+     */
+    private void set(int i, double l, double t, double r, double b, CollisionGrid.Entry e) {
+        this.left[i] = l;
+        this.top[i] = t;
+        this.right[i] = r;
+        this.bottom[i] = b;
+        this.entries[i] = e;
+        this.indexes.put(e, i);
+    }
+}
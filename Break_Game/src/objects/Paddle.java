@@ -1,9 +1,11 @@
 package objects;
 
+import java.nio.ByteBuffer;
+
 import game.GameLevel;
 
 import interfaces.Collidable;
-import interfaces.Sprite;
+import interfaces.InterpolatedSprite;
 
 import biuoop.DrawSurface;
 import biuoop.KeyboardSensor;
@@ -15,7 +17,7 @@ import biuoop.KeyboardSensor;
  * @version 1.0
  * @since 2018-04-15
  */
-public class Paddle implements Sprite, Collidable {
+public class Paddle implements InterpolatedSprite, Collidable {
 
     private biuoop.KeyboardSensor keyboard;  // the players keyboard
     private Rectangle paddle;
@@ -23,6 +25,7 @@ public class Paddle implements Sprite, Collidable {
     private double paddleMoveOfDt = 5;  // the move of the paddle -- default 5
     private int fromX;  // the left border
     private int toX;  // the right border
+    private double prevX;  // the left of the paddle before the last step
 
     /**
      * the paddle constructor.
@@ -37,6 +40,7 @@ public class Paddle implements Sprite, Collidable {
     public Paddle(biuoop.KeyboardSensor keyboard, Point upperLeft, int width, int height, int fromX, int toX) {
         this.keyboard = keyboard;
         this.paddle = new Rectangle(upperLeft, width, height);
+        this.prevX = upperLeft.getX();
         this.fromX = fromX;
         this.toX = toX;
     }
@@ -79,6 +83,11 @@ public class Paddle implements Sprite, Collidable {
 
     @Override
     public Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity) {
+        return this.deflect(collisionPoint, currentVelocity);
+    }
+
+    @Override
+    public Velocity deflect(Point collisionPoint, Velocity currentVelocity) {
         // the new velocity
         Velocity newVelocity = new Velocity(currentVelocity.getDx(), currentVelocity.getDy());
         Line[] recLines = this.paddle.getLineArr();
@@ -134,8 +143,19 @@ public class Paddle implements Sprite, Collidable {
                 (int) this.paddle.getWidth(), (int) this.paddle.getHeight());
     }
 
+    @Override
+    public void drawOn(DrawSurface d, double alpha) {
+        int drawX = (int) (this.prevX + (this.paddle.getLeft() - this.prevX) * alpha);
+
+        d.setColor(java.awt.Color.ORANGE);
+        d.fillRectangle(drawX, (int) this.paddle.getTop(), (int) this.paddle.getWidth(), (int) this.paddle.getHeight());
+        d.setColor(java.awt.Color.BLACK);
+        d.drawRectangle(drawX, (int) this.paddle.getTop(), (int) this.paddle.getWidth(), (int) this.paddle.getHeight());
+    }
+
     @Override
     public void timePassed(double dt) {
+        this.prevX = this.paddle.getLeft();
 
         this.paddleMoveOfDt = dt * this.paddleMove;
         if (this.keyboard.isPressed(KeyboardSensor.LEFT_KEY)) {
@@ -146,11 +166,32 @@ public class Paddle implements Sprite, Collidable {
     }
 
     /**
-     * align the Paddle to the center.
+     * align the Paddle to the center between its borders.
      */
     public void alignToCenter() {
-        this.paddle = new Rectangle(new Point(800 / 2 - this.paddle.getWidth() / 2,
-                                    600 - 20 - GameLevel.getDistanceFromEdge()), this.paddle.getWidth(), 20);
+        this.paddle = new Rectangle(new Point((this.fromX + this.toX) / 2.0 - this.paddle.getWidth() / 2,
+                                    this.paddle.getTop()), this.paddle.getWidth(), this.paddle.getHeight());
+        this.prevX = this.paddle.getLeft();
+    }
+
+    /**
+     * write the place of the paddle, now and before the last step (2 doubles).
+     *
+     * @param out the buffer to write to
+     */
+    public void saveState(ByteBuffer out) {
+        out.putDouble(this.paddle.getLeft()).putDouble(this.prevX);
+    }
+
+    /**
+     * read the place of the paddle that saveState wrote.
+     *
+     * @param in the buffer to read from
+     */
+    public void loadState(ByteBuffer in) {
+        this.paddle = new Rectangle(new Point(in.getDouble(), this.paddle.getTop()),
+                                    this.paddle.getWidth(), this.paddle.getHeight());
+        this.prevX = in.getDouble();
     }
 
     /**
@@ -18,6 +18,11 @@ public class Rectangle {
     private Line[] lineArr = new Line[4];
     private double width;  // the width of the rectangle
     private double height;  // the height of the rectangle
+    // the bounds of the rectangle, for the calculations on primitive values
+    private double left;
+    private double top;
+    private double right;
+    private double bottom;
 
     /**
      * Create a new rectangle with location and width/height.
@@ -29,6 +34,10 @@ public class Rectangle {
     public Rectangle(Point upperLeft, double width, double height) {
         this.width = width;
         this.height = height;
+        this.left = upperLeft.getX();
+        this.top = upperLeft.getY();
+        this.right = upperLeft.getX() + width;
+        this.bottom = upperLeft.getY() + height;
         // the upper horizontal line
         lineArr[0] = new Line(upperLeft, new Point(upperLeft.getX() + width, upperLeft.getY()));
         // the right vertical line
@@ -63,6 +72,37 @@ public class Rectangle {
         return intersectionPointsList;
     }
 
+    /**
+     * the closest intersection point of the segment with the rectangle
+     * to the start of the segment, without creating objects.
+     *
+     * @param x1 the x value of the start of the segment
+     * @param y1 the y value of the start of the segment
+     * @param x2 the x value of the end of the segment
+     * @param y2 the y value of the end of the segment
+     * @param out gets the point in out[0], out[1] and its distance
+     *            from the start in out[2]
+     * @return true if the segment intersects the rectangle, false otherwise
+     */
+    public boolean closestIntersection(double x1, double y1, double x2, double y2, double[] out) {
+        return Geometry.closestIntersection(this.left, this.top, this.right, this.bottom, x1, y1, x2, y2, out);
+    }
+
+    /**
+     * the first time a moving circle touches the rectangle.
+     *
+     * @param x the x value of the start of the center
+     * @param y the y value of the start of the center
+     * @param dx the move of the center on the x axis
+     * @param dy the move of the center on the y axis
+     * @param r the radius of the circle
+     * @param out gets the touched point, the time and the normal (see Geometry.sweepCircle)
+     * @return true if the circle touches the rectangle, false otherwise
+     */
+    public boolean sweepCircle(double x, double y, double dx, double dy, double r, double[] out) {
+        return Geometry.sweepCircle(this.left, this.top, this.right, this.bottom, x, y, dx, dy, r, out);
+    }
+
     /**
      * get function of this width value.
      *
@@ -106,18 +146,54 @@ public class Rectangle {
      * @return true, if the point in the rectangle
      */
     public boolean inPointInRec(Point p) {
-        double pX = p.getX();
-        double pY = p.getY();
+        return this.contains(p.getX(), p.getY());
+    }
 
-        double recXStart = this.lineArr[0].start().getX();
-        double recYStart = this.lineArr[0].start().getY();
-        double recXEnd = this.lineArr[1].end().getX();
-        double recYEnd = this.lineArr[1].end().getY();
+    /**
+     * chacks if the point (x, y) in the rectangle.
+     *
+     * @param x the x value of the point
+     * @param y the y value of the point
+     * @return true, if the point in the rectangle
+     */
+    public boolean contains(double x, double y) {
+        return (this.left <= x && x <= this.right) && (this.top <= y && y <= this.bottom);
+    }
 
-        if ((recXStart <= pX && pX <= recXEnd) && (recYStart <= pY && pY <= recYEnd)) {
-            return true;
-        }
-        return false;
+    /**
+     * get the left bound of the rectangle.
+     *
+     * @return the x value of the left side
+     */
+    public double getLeft() {
+        return this.left;
+    }
+
+    /**
+     * get the top bound of the rectangle.
+     *
+     * @return the y value of the upper side
+     */
+    public double getTop() {
+        return this.top;
+    }
+
+    /**
+     * get the right bound of the rectangle.
+     *
+     * @return the x value of the right side
+     */
+    public double getRight() {
+        return this.right;
+    }
+
+    /**
+     * get the bottom bound of the rectangle.
+     *
+     * @return the y value of the down side
+     */
+    public double getBottom() {
+        return this.bottom;
     }
 
     /**
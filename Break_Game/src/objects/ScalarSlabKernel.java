@@ -0,0 +1,55 @@
+package objects;
+
+import interfaces.SlabKernel;
+
+/**
+ * the slab kernel on one box after the other. it does the same operations
+ * as the vector kernel, so both find the same times.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-07-01
+ */
+public class ScalarSlabKernel implements SlabKernel {
+
+    @Override
+    public void enterTimes(double[] left, double[] top, double[] right, double[] bottom, int count,
+                           double x, double y, double dx, double dy, double r, double[] times) {
+        // a move of 0 on an axis gives infinite times (or NaN on the side of
+        // a box, which misses it)
+        double invX = 1 / dx;
+        double invY = 1 / dy;
+        for (int i = 0; i < count; i++) {
+            times[i] = enterTime(left[i], top[i], right[i], bottom[i], x, y, invX, invY, r);
+        }
+    }
+
+    /**
+     * find the enter time of the center into one grown box.
+     *
+     * @param left the left of the box
+     * @param top the top of the box
+     * @param right the right of the box
+     * @param bottom the bottom of the box
+     * @param x the x value of the start of the center
+     * @param y the y value of the start of the center
+     * @param invX 1 / the move on the x axis
+     * @param invY 1 / the move on the y axis
+     * @param r the radius to grow the box by
+     * @return the enter time, or Double.POSITIVE_INFINITY
+     */
+    static double enterTime(double left, double top, double right, double bottom,
+                            double x, double y, double invX, double invY, double r) {
+        double x1 = (left - (r + x)) * invX;
+        double x2 = (right + (r - x)) * invX;
+        double y1 = (top - (r + y)) * invY;
+        double y2 = (bottom + (r - y)) * invY;
+
+        double enter = Math.max(Math.max(Math.min(x1, x2), Math.min(y1, y2)), 0);
+        double exit = Math.min(Math.min(Math.max(x1, x2), Math.max(y1, y2)), 1);
+        if (enter <= exit) {
+            return enter;
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+}
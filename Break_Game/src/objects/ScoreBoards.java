@@ -0,0 +1,289 @@
+package objects;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * many high scores tables (boards) in one directory.
+ * each board has a key (a level set, or a level of a set) and its own
+ * ScoreLog files ("board-id" and "board-id.log"). the index file
+ * ("boards.idx") maps the keys to the ids, so a board is opened without
+ * reading the other boards.
+ * the index is replaced only by an atomic rename of a complete new index.
+ * an index that can't be read is moved to "boards.idx.damaged" and the
+ * boards start empty, their old files are kept (a new board gets an id
+ * that no file has).
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-27
+ */
+public class ScoreBoards {
+
+    private static final int MAGIC = 0x48534958;  // "HSIX"
+    private static final int VERSION = 1;
+    private static final String LEVEL_SEPARATOR = "/";
+    private static final int TABLE_SIZE = 5;  // the size of a new board
+    private static final Pattern BOARD_FILE = Pattern.compile("board-(\\d+)(\\..*)?");  // and its log
+
+    private File dir;
+    private Map<String, Integer> ids;  // the index, in the order the boards were created
+    private int nextId;  // the id of the next new board
+    private Map<String, HighScoresTable> open;  // the boards that were opened
+
+    /**
+     * open the boards in a directory, only the index is read.
+     *
+     * @param dir the directory, it is created when the first board is added
+     */
+    public ScoreBoards(File dir) {
+        this.dir = dir;
+        this.ids = new LinkedHashMap<String, Integer>();
+        this.open = new HashMap<String, HighScoresTable>();
+
+        File index = this.indexFile();
+        if (index.exists()) {
+            try {
+                this.readIndex(index);
+            } catch (IOException e) {
+                File damaged = new File(index.getPath() + ".damaged");
+                System.out.println("Problem with reading the index of the high scores: " + e.getMessage()
+                                   + ", the file is moved to " + damaged);
+                index.renameTo(damaged);
+                this.ids.clear();
+            }
+        }
+        this.nextId = this.firstFreeId();
+    }
+
+    /**
+     * get the key of the board of a level set.
+     *
+     * @param setName the name of the level set
+     * @return the key of its board
+     */
+    public static String setKey(String setName) {
+        return setName;
+    }
+
+    /**
+     * get the key of the board of a level in a level set.
+     *
+     * @param setName the name of the level set
+     * @param levelName the name of the level
+     * @return the key of its board
+     */
+    public static String levelKey(String setName, String levelName) {
+        return setName + LEVEL_SEPARATOR + levelName;
+    }
+
+    /**
+     * check if there is a board.
+     *
+     * @param key the key of the board
+     * @return true if it was created
+     */
+    public boolean contains(String key) {
+        return this.ids.containsKey(key);
+    }
+
+    /**
+     * get the keys of the boards of the levels of a level set.
+     *
+     * @param setName the name of the level set
+     * @return the keys, in the order the boards were created
+     */
+    public List<String> levelKeys(String setName) {
+        List<String> keys = new ArrayList<String>();
+        for (String key : this.ids.keySet()) {
+            if (key.startsWith(setName + LEVEL_SEPARATOR)) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * get a board, it is read on the first time.
+     * a new board is added to the index only when it is saved.
+     *
+     * @param key the key of the board
+     * @return the table of the board
+     */
+    public HighScoresTable get(String key) {
+        HighScoresTable table = this.open.get(key);
+        if (table == null) {
+            if (this.contains(key)) {
+                table = HighScoresTable.loadFromFile(this.fileOf(key));
+            } else {
+                table = new HighScoresTable(TABLE_SIZE);
+            }
+            this.open.put(key, table);
+        }
+        return table;
+    }
+
+    /**
+     * save the scores that were added to a board.
+     *
+     * @param key the key of the board
+     * @throws IOException if it can't be written
+     */
+    public void save(String key) throws IOException {
+        this.get(key).save(this.fileOf(key));
+    }
+
+    /**
+     * add the scores of an old high scores file as a board, if there
+     * is no such board yet. the old file is not changed.
+     *
+     * @param key the key of the board
+     * @param file the old high scores file
+     * @throws IOException if it can't be read or the board can't be written
+     */
+    public void importFile(String key, File file) throws IOException {
+        if (this.contains(key) || !file.exists()) {
+            return;
+        }
+        HighScoresTable old = HighScoresTable.readFile(file);
+        HighScoresTable table = this.get(key);
+        for (ScoreInfo score : old.getScores(0, old.count())) {
+            table.add(score);
+        }
+        this.save(key);
+    }
+
+    /**
+     * get the file of a board, a new board is added to the index.
+     *
+     * @param key the key of the board
+     * @return the snapshot file of its ScoreLog
+     */
+    private File fileOf(String key) {
+        Integer id = this.ids.get(key);
+        if (id == null) {
+            id = this.nextId;
+            this.ids.put(key, id);
+            try {
+                this.writeIndex();
+                this.nextId++;
+            } catch (IOException e) {
+                this.ids.remove(key);
+                throw new RuntimeException("Problem with writing the index of the high scores: " + e.getMessage());
+            }
+        }
+        return new File(this.dir, "board-" + id);
+    }
+
+    /**
+     * get an id that is bigger than the ids of the index and of the
+     * files of the boards in the directory.
+     *
+     * @return the id
+     */
+    private int firstFreeId() {
+        int id = 0;
+        for (int used : this.ids.values()) {
+            id = Math.max(id, used + 1);
+        }
+        String[] names = this.dir.list();
+        for (int i = 0; names != null && i < names.length; i++) {
+            Matcher matcher = BOARD_FILE.matcher(names[i]);
+            if (matcher.matches()) {
+                try {
+                    id = Math.max(id, Integer.parseInt(matcher.group(1)) + 1);
+                } catch (NumberFormatException e) {
+                    continue;  // too big to be an id that was given
+                }
+            }
+        }
+        return id;
+    }
+
+    /**
+     * get the index file.
+     *
+     * @return the index file
+     */
+    private File indexFile() {
+        return new File(this.dir, "boards.idx");
+    }
+
+    /**
+     * read the index.
+     *
+     * @param index the index file
+     * @throws IOException if it can't be read or is damaged
+     */
+    private void readIndex(File index) throws IOException {
+        byte[] bytes = Files.readAllBytes(index.toPath());
+        if (bytes.length < 4) {
+            throw new IOException("the index is too short");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - 4);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("this is not an index of high scores");
+        }
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String key = in.readUTF();
+            this.ids.put(key, in.readInt());
+        }
+        if (in.readInt() != (int) crc.getValue()) {
+            throw new IOException("the index is damaged");
+        }
+    }
+
+    /**
+     * write the index to a temporary file and rename it over the index.
+     *
+     * @throws IOException if it can't be written
+     */
+    private void writeIndex() throws IOException {
+        if (!this.dir.isDirectory() && !this.dir.mkdirs()) {
+            throw new IOException("can't create " + this.dir);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(this.ids.size());
+        for (Map.Entry<String, Integer> entry : this.ids.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+
+        File temp = new File(this.dir, "boards.idx.tmp");
+        FileOutputStream file = new FileOutputStream(temp);
+        try {
+            bytes.writeTo(file);
+            file.getFD().sync();
+        } finally {
+            file.close();
+        }
+        Files.move(temp.toPath(), this.indexFile().toPath(),
+                   StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,381 @@
+package objects;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * a crash safe store of scores.
+ * the scores are kept in two files: a snapshot, that is replaced only by
+ * an atomic rename of a complete new file, and a log next to it
+ * ("name.log") that new scores are appended to.
+ * every record of the log has a sequence number and a CRC, so a record
+ * that was cut by a crash is found and dropped, and the records that are
+ * already in the snapshot are skipped.
+ * the log is kept open from the first write to it until close().
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-25
+ */
+public class ScoreLog {
+
+    private static final int SNAPSHOT_MAGIC = 0x48535350;  // "HSSP"
+    private static final int LOG_MAGIC = 0x48534c47;  // "HSLG"
+    private static final int VERSION = 1;
+    private static final int LOG_HEADER = 8;  // the magic and the version
+    private static final int MAX_RECORD = 1 << 16;  // bigger lengths are garbage
+    private static final int MIN_COMPACT = 1024;  // log records before compacting
+
+    private File snapshot;
+    private File log;
+    private File temp;  // the next snapshot, before it is renamed
+    private RandomAccessFile logOut;  // the open log, or null before the first write
+
+    private long nextSeq;  // the sequence number of the next record
+    private int snapshotCount;  // the number of scores in the snapshot
+    private int logCount;  // the number of records in the log
+
+    /**
+     * create a store over the snapshot file, nothing is read yet.
+     *
+     * @param file the snapshot file
+     */
+    public ScoreLog(File file) {
+        this.snapshot = file;
+        this.log = new File(file.getPath() + ".log");
+        this.temp = new File(file.getPath() + ".tmp");
+        this.nextSeq = 1;
+        this.snapshotCount = 0;
+        this.logCount = 0;
+    }
+
+    /**
+     * check if a file was written by java serialization
+     * (the old format of the high scores).
+     *
+     * @param file the file
+     * @return true if the file starts with the magic of java serialization
+     */
+    public static boolean isSerialized(File file) {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readShort() == (short) 0xaced;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * check if there is a stored snapshot or log.
+     *
+     * @return true if one of the files exists
+     */
+    public boolean exists() {
+        return this.snapshot.exists() || this.log.exists();
+    }
+
+    /**
+     * read all the scores: the snapshot and then the records of the log.
+     * a cut or damaged record at the end of the log is removed from it.
+     *
+     * @return the scores, in the order they were stored
+     * @throws IOException if the snapshot can't be read or is damaged
+     */
+    public List<ScoreInfo> recover() throws IOException {
+        return this.load(true);
+    }
+
+    /**
+     * read all the scores like recover(), without changing the files
+     * (a cut or damaged record at the end of the log is only skipped).
+     *
+     * @return the scores, in the order they were stored
+     * @throws IOException if the snapshot can't be read or is damaged
+     */
+    public List<ScoreInfo> read() throws IOException {
+        return this.load(false);
+    }
+
+    /**
+     * read the snapshot and then the records of the log.
+     *
+     * @param repair true to remove a cut or damaged end of the log
+     * @return the scores, in the order they were stored
+     * @throws IOException if the snapshot can't be read or is damaged
+     */
+    private List<ScoreInfo> load(boolean repair) throws IOException {
+        List<ScoreInfo> scores = new ArrayList<ScoreInfo>();
+        long lastSeq = 0;
+
+        if (this.snapshot.exists()) {
+            lastSeq = this.readSnapshot(scores);
+        }
+        this.snapshotCount = scores.size();
+        this.nextSeq = lastSeq + 1;
+        this.logCount = 0;
+
+        if (this.log.exists()) {
+            this.readLog(scores, lastSeq, repair);
+        }
+        return scores;
+    }
+
+    /**
+     * read the snapshot.
+     *
+     * @param scores the list to add the scores to
+     * @return the sequence number of the last record in the snapshot
+     * @throws IOException if it can't be read or is damaged
+     */
+    private long readSnapshot(List<ScoreInfo> scores) throws IOException {
+        byte[] bytes = Files.readAllBytes(this.snapshot.toPath());
+        if (bytes.length < 4) {
+            throw new IOException("the high scores file is too short");
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - 4);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != VERSION) {
+            throw new IOException("this is not a high scores file");
+        }
+        long lastSeq = in.readLong();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int score = in.readInt();
+            scores.add(new ScoreInfo(in.readUTF(), score));
+        }
+        if (in.readInt() != (int) crc.getValue()) {
+            throw new IOException("the high scores file is damaged");
+        }
+        return lastSeq;
+    }
+
+    /**
+     * read the log until its end, or until a record that is not complete.
+     *
+     * @param scores the list to add the scores to
+     * @param lastSeq the last sequence number that is in the snapshot
+     * @param repair true to remove a cut or damaged end of the log
+     * @throws IOException if the log can't be read
+     */
+    private void readLog(List<ScoreInfo> scores, long lastSeq, boolean repair) throws IOException {
+        long length = this.log.length();
+        long good = LOG_HEADER;  // the end of the last good record
+        if (length < LOG_HEADER) {
+            if (!repair) {
+                return;
+            }
+            // the log was cut while it was created
+            writeLogHeader(this.openLog());
+            return;
+        }
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(this.log), 1 << 16));
+        try {
+            if (in.readInt() != LOG_MAGIC || in.readInt() != VERSION) {
+                throw new IOException("this is not a high scores log");
+            }
+
+            CRC32 crc = new CRC32();
+            byte[] payload = new byte[256];
+            // stop at the end, or at the first record that was cut or damaged
+            while (good + 8 <= length) {
+                int size = in.readInt();
+                int check = in.readInt();
+                if (size <= 0 || size > MAX_RECORD || good + 8 + size > length) {
+                    break;
+                }
+                if (payload.length < size) {
+                    payload = new byte[size];
+                }
+                in.readFully(payload, 0, size);
+                crc.reset();
+                crc.update(payload, 0, size);
+                if ((int) crc.getValue() != check) {
+                    break;
+                }
+
+                DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload, 0, size));
+                long seq = record.readLong();
+                int score = record.readInt();
+                String name = record.readUTF();
+                if (seq > lastSeq) {
+                    scores.add(new ScoreInfo(name, score));
+                    this.logCount++;
+                }
+                this.nextSeq = Math.max(this.nextSeq, seq + 1);
+                good += 8 + size;
+            }
+        } finally {
+            in.close();
+        }
+
+        if (repair && good < length) {
+            // drop the damaged end, the next records are appended after the good ones
+            this.openLog().setLength(good);
+        }
+    }
+
+    /**
+     * append a score to the log, the score is on the disk when it returns.
+     *
+     * @param score the score
+     * @throws IOException if it can't be written
+     */
+    public void append(ScoreInfo score) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream payload = new DataOutputStream(bytes);
+        payload.writeLong(this.nextSeq);
+        payload.writeInt(score.getScore());
+        payload.writeUTF(score.getName());
+
+        byte[] data = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        ByteBuffer record = ByteBuffer.allocate(8 + data.length);
+        record.putInt(data.length).putInt((int) crc.getValue()).put(data);
+
+        RandomAccessFile file = this.openLog();
+        if (file.length() < LOG_HEADER) {
+            writeLogHeader(file);
+        }
+        file.seek(file.length());
+        file.write(record.array());
+        file.getFD().sync();
+        this.nextSeq++;
+        this.logCount++;
+    }
+
+    /**
+     * check if the log is long enough to be compacted.
+     * it is compacted when it has as many records as the snapshot, so
+     * the cost of the compaction is spread over the appends.
+     *
+     * @return true if compact() should be called
+     */
+    public boolean needsCompaction() {
+        return this.logCount >= Math.max(MIN_COMPACT, this.snapshotCount);
+    }
+
+    /**
+     * replace the snapshot with the given scores and empty the log.
+     * the new snapshot is written to a temporary file and renamed over the
+     * old one, so a crash leaves the old snapshot or the new one.
+     *
+     * @param scores all the scores that should be kept
+     * @throws IOException if it can't be written
+     */
+    public void compact(List<ScoreInfo> scores) throws IOException {
+        long lastSeq = this.nextSeq - 1;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(lastSeq);
+        out.writeInt(scores.size());
+        for (ScoreInfo score : scores) {
+            out.writeInt(score.getScore());
+            out.writeUTF(score.getName());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+
+        FileOutputStream file = new FileOutputStream(this.temp);
+        try {
+            BufferedOutputStream buffered = new BufferedOutputStream(file);
+            bytes.writeTo(buffered);
+            buffered.flush();
+            file.getFD().sync();
+        } finally {
+            file.close();
+        }
+        Files.move(this.temp.toPath(), this.snapshot.toPath(),
+                   StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // the rename is on the disk only when its directory is
+        syncDirectory(this.snapshot);
+
+        // the records of the log are in the snapshot now (their sequence
+        // numbers are not bigger than its last one), so a crash before the
+        // log is emptied doesn't add them twice
+        RandomAccessFile log = this.openLog();
+        writeLogHeader(log);
+        log.getFD().sync();
+        this.snapshotCount = scores.size();
+        this.logCount = 0;
+    }
+
+    /**
+     * close the log, it is opened again by the next write.
+     *
+     * @throws IOException if it can't be closed
+     */
+    public void close() throws IOException {
+        if (this.logOut != null) {
+            RandomAccessFile file = this.logOut;
+            this.logOut = null;
+            file.close();
+        }
+    }
+
+    /**
+     * get the open log, open it on the first time.
+     *
+     * @return the log file
+     * @throws IOException if it can't be opened
+     */
+    private RandomAccessFile openLog() throws IOException {
+        if (this.logOut == null) {
+            this.logOut = new RandomAccessFile(this.log, "rw");
+        }
+        return this.logOut;
+    }
+
+    /**
+     * write the directory of a file to the disk, so a rename in it is kept
+     * after a crash.
+     *
+     * @param file the file
+     * @throws IOException if it can't be written
+     */
+    private static void syncDirectory(File file) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        try (FileChannel channel = FileChannel.open(dir.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (AccessDeniedException e) {
+            return;  // a directory can't be opened on windows, its renames are kept by the file system
+        }
+    }
+
+    /**
+     * empty a log file and write its header.
+     *
+     * @param file the log file
+     * @throws IOException if it can't be written
+     */
+    private static void writeLogHeader(RandomAccessFile file) throws IOException {
+        file.setLength(0);
+        file.seek(0);
+        file.writeInt(LOG_MAGIC);
+        file.writeInt(VERSION);
+    }
+}
@@ -5,7 +5,7 @@ import java.awt.Color;
 import biuoop.DrawSurface;
 
 import interfaces.Collidable;
-import interfaces.Sprite;
+import interfaces.StaticSprite;
 
 /**
  * the screen of the game.
@@ -14,7 +14,7 @@ import interfaces.Sprite;
  * @version 1.0
  * @since 2018-04-13
  */
-public class Screen implements Collidable, Sprite {
+public class Screen implements Collidable, StaticSprite {
 
     private Point startP;  // the start point of the screen
     private Point endP;  // the end point of the screen
@@ -68,6 +68,11 @@ public class Screen implements Collidable, Sprite {
 
     @Override
     public Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity) {
+        return this.deflect(collisionPoint, currentVelocity);
+    }
+
+    @Override
+    public Velocity deflect(Point collisionPoint, Velocity currentVelocity) {
         // the new velocity
         Velocity newVelocity = new Velocity(currentVelocity.getDx(), currentVelocity.getDy());
 
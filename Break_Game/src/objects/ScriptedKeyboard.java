@@ -0,0 +1,52 @@
+package objects;
+
+import biuoop.KeyboardSensor;
+
+import interfaces.InputSource;
+
+/**
+ * a keyboard that answers from an InputSource
+ * for the current simulation step.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-17
+ */
+public class ScriptedKeyboard implements KeyboardSensor {
+
+    private InputSource input;
+    private long tick;  // the current simulation step
+
+    /**
+     * create a new scripted keyboard.
+     *
+     * @param input the source of the pressed keys
+     */
+    public ScriptedKeyboard(InputSource input) {
+        this.input = input;
+        this.tick = 0;
+    }
+
+    /**
+     * set the current simulation step.
+     *
+     * @param t the number of the step
+     */
+    public void setTick(long t) {
+        this.tick = t;
+    }
+
+    /**
+     * get the current simulation step.
+     *
+     * @return the number of the step
+     */
+    public long getTick() {
+        return this.tick;
+    }
+
+    @Override
+    public boolean isPressed(String key) {
+        return this.input.isPressed(key, this.tick);
+    }
+}
@@ -1,26 +1,44 @@
 package objects;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
 import biuoop.DrawSurface;
 
+import interfaces.InterpolatedSprite;
 import interfaces.Sprite;
+import interfaces.StaticSprite;
 
 /**
  * A collection of Sprites.
+ * the sprites are drawn in the order they were added. only the sprites that
+ * are not static get timePassed. sprites that are added or removed while
+ * the time passes are added or removed after all the sprites got it.
  *
  * @author Daniel Kaganovich
- * @version 1.0
+ * @version 1.1
  * @since 2018-04-15
  */
 public class SpriteCollection {
 
-    // the list of Sprite objects
-    private java.util.List<Sprite> spriteList;
+    private IndexedList<Sprite> spriteList;  // all the sprites, in the drawing order
+    private IndexedList<Sprite> tickingList;  // the sprites that are not static
+
+    // the changes while notifying, in the order they were asked for
+    private boolean notifying;
+    private List<Sprite> pendingSprites;
+    private BitSet pendingAdds;  // the bit of a pending sprite is set to add it, clear to remove it
 
     /**
      * Create new Sprite Collection.
      */
     public SpriteCollection() {
-        this.spriteList = new java.util.ArrayList<Sprite>();
+        this.spriteList = new IndexedList<Sprite>();
+        this.tickingList = new IndexedList<Sprite>();
+        this.notifying = false;
+        this.pendingSprites = new ArrayList<Sprite>();
+        this.pendingAdds = new BitSet();
     }
 
     /**
@@ -29,7 +47,16 @@ public class SpriteCollection {
      * @param s the Spirit to add
      */
     public void addSprite(Sprite s) {
-        spriteList.add(s);
+        if (this.notifying) {
+            this.pendingAdds.set(this.pendingSprites.size());
+            this.pendingSprites.add(s);
+            return;
+        }
+
+        this.spriteList.add(s);
+        if (!(s instanceof StaticSprite)) {
+            this.tickingList.add(s);
+        }
     }
 
     /**
@@ -38,19 +65,55 @@ public class SpriteCollection {
      * @param s the Spirit to remove
      */
     public void removeSprite(Sprite s) {
-        spriteList.remove(s);
+        if (this.notifying) {
+            this.pendingAdds.clear(this.pendingSprites.size());
+            this.pendingSprites.add(s);
+            return;
+        }
+
+        this.spriteList.remove(s);
+        this.tickingList.remove(s);
     }
 
     /**
-     * call timePassed() on all sprites.
+     * check if a Sprite is in the collection.
+     * the changes that wait for the end of timePassed are not counted.
+     *
+     * @param s the Spirit
+     * @return true if it was added and not removed
+     */
+    public boolean contains(Sprite s) {
+        return this.spriteList.contains(s);
+    }
+
+    /**
+     * call timePassed() on all the sprites that are not static.
      *
      * @param dt the amount of seconds passed since the last call
      */
     public void notifyAllTimePassed(double dt) {
-        java.util.List<Sprite> copy = new java.util.ArrayList<Sprite>(this.spriteList);
-        for (Sprite spirit : copy) {
-            spirit.timePassed(dt);
+        this.notifying = true;
+        try {
+            for (int i = 0; i < this.tickingList.slots(); i++) {
+                Sprite s = this.tickingList.get(i);
+                if (s != null) {
+                    s.timePassed(dt);
+                }
+            }
+        } finally {
+            this.notifying = false;
+        }
+
+        // apply the changes that were asked for during the calls
+        for (int i = 0; i < this.pendingSprites.size(); i++) {
+            if (this.pendingAdds.get(i)) {
+                this.addSprite(this.pendingSprites.get(i));
+            } else {
+                this.removeSprite(this.pendingSprites.get(i));
+            }
         }
+        this.pendingSprites.clear();
+        this.pendingAdds.clear();
     }
 
     /**
@@ -59,8 +122,30 @@ public class SpriteCollection {
      * @param d the surface to draw on
      */
     public void drawAllOn(DrawSurface d) {
-        for (int i = 0; i < this.spriteList.size(); i++) {
-            this.spriteList.get(i).drawOn(d);
+        for (int i = 0; i < this.spriteList.slots(); i++) {
+            Sprite s = this.spriteList.get(i);
+            if (s != null) {
+                s.drawOn(d);
+            }
+        }
+    }
+
+    /**
+     * call drawOn(d) on all sprites, moving sprites are drawn
+     * between their last two steps.
+     *
+     * @param d the surface to draw on
+     * @param alpha how far (from 0 to 1) the time is between the
+     *              previous step and the last step
+     */
+    public void drawAllOn(DrawSurface d, double alpha) {
+        for (int i = 0; i < this.spriteList.slots(); i++) {
+            Sprite s = this.spriteList.get(i);
+            if (s instanceof InterpolatedSprite) {
+                ((InterpolatedSprite) s).drawOn(d, alpha);
+            } else if (s != null) {
+                s.drawOn(d);
+            }
         }
     }
 }
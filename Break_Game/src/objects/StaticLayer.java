@@ -0,0 +1,176 @@
+package objects;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.util.ArrayList;
+import java.util.List;
+
+import biuoop.DrawSurface;
+
+import interfaces.HitListener;
+import interfaces.Sprite;
+
+/**
+ * the background and the blocks of a level, drawn once on an image
+ * that is drawn on each frame instead of all of them.
+ * when a block is hit or removed only its area of the image is drawn again.
+ * the background has to look the same on each frame.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-20
+ */
+public class StaticLayer implements Sprite, HitListener {
+
+    private static final int MAX_DIRTY = 16;  // above that the whole image is drawn again
+
+    private int width;
+    private int height;
+    private Sprite background;
+    private List<Block> blocks;
+    private List<java.awt.Rectangle> dirty;  // the areas to draw again
+    private boolean allDirty;
+    private ImageDrawSurface surface;  // created on the first draw
+
+    /**
+     * create an empty layer.
+     *
+     * @param width the width of the screen
+     * @param height the height of the screen
+     */
+    public StaticLayer(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.background = null;
+        this.blocks = new ArrayList<Block>();
+        this.dirty = new ArrayList<java.awt.Rectangle>();
+        this.allDirty = true;
+        this.surface = null;
+    }
+
+    /**
+     * set the background of the layer.
+     *
+     * @param s the background
+     */
+    public void setBackground(Sprite s) {
+        this.background = s;
+        this.allDirty = true;
+    }
+
+    /**
+     * add a block to the layer, the layer listens to its hits.
+     *
+     * @param b the block
+     */
+    public void addBlock(Block b) {
+        this.blocks.add(b);
+        b.addHitListener(this);
+        this.invalidate(b);
+    }
+
+    /**
+     * remove the sprite from the layer if it is one of its blocks.
+     *
+     * @param s the sprite to remove
+     */
+    public void removeSprite(Sprite s) {
+        if (s instanceof Block && this.blocks.remove(s)) {
+            ((Block) s).removeHitListener(this);
+            this.invalidate((Block) s);
+        }
+    }
+
+    @Override
+    public void hitEvent(Block beingHit, Ball hitter) {
+        // the hit points may have changed, and with them the fill of the block
+        this.invalidate(beingHit);
+    }
+
+    /**
+     * mark the area of the block to draw again.
+     * the area is bigger by a pixel than the block for its stroke.
+     *
+     * @param b the block
+     */
+    private void invalidate(Block b) {
+        if (this.allDirty) {
+            return;
+        }
+        if (this.dirty.size() >= MAX_DIRTY) {
+            this.allDirty = true;
+            this.dirty.clear();
+            return;
+        }
+
+        Rectangle rec = b.getCollisionRectangle();
+        int x = (int) Math.floor(rec.getLeft()) - 1;
+        int y = (int) Math.floor(rec.getTop()) - 1;
+        java.awt.Rectangle area = new java.awt.Rectangle(x, y, (int) Math.ceil(rec.getRight()) + 2 - x,
+                                                         (int) Math.ceil(rec.getBottom()) + 2 - y);
+        if (area.intersects(0, 0, this.width, this.height)) {
+            this.dirty.add(area);
+        }
+    }
+
+    /**
+     * draw the changes on the image of the layer (the whole image on the first time).
+     * it can be called before the level starts, so the first frame is ready.
+     */
+    public void prerender() {
+        if (this.surface == null) {
+            this.surface = new ImageDrawSurface(this.width, this.height);
+            this.allDirty = true;
+        }
+
+        if (this.allDirty) {
+            this.redraw(null);
+            this.allDirty = false;
+        } else {
+            for (int i = 0; i < this.dirty.size(); i++) {
+                this.redraw(this.dirty.get(i));
+            }
+        }
+        this.dirty.clear();
+    }
+
+    @Override
+    public void drawOn(DrawSurface d) {
+        this.prerender();
+        d.drawImage(0, 0, this.surface.getImage());
+    }
+
+    /**
+     * draw an area of the image again: clear it, and draw the background
+     * and the blocks inside it.
+     *
+     * @param area the area, or null for the whole image
+     */
+    private void redraw(java.awt.Rectangle area) {
+        Graphics2D g = this.surface.getGraphics();
+        g.setClip(area);
+
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, this.width, this.height);
+        g.setComposite(AlphaComposite.SrcOver);
+
+        if (this.background != null) {
+            this.background.drawOn(this.surface);
+        }
+        for (Block b : this.blocks) {
+            Rectangle rec = b.getCollisionRectangle();
+            if (area == null || area.intersects(rec.getLeft() - 1, rec.getTop() - 1,
+                                                rec.getWidth() + 2, rec.getHeight() + 2)) {
+                b.drawOn(this.surface);
+            }
+        }
+        g.setClip(null);
+    }
+
+    @Override
+    public void timePassed(double dt) {
+        if (this.background != null) {
+            this.background.timePassed(dt);
+        }
+    }
+}
@@ -26,6 +26,15 @@ import objects.FillBlockWithImg;
  */
 public class BlocksDefinitionReader {
 
+    // the patterns are compiled once, not on every line
+    private static final Pattern SPACER_KEY_VALUE = Pattern.compile("\\b[_.,a-zA-Z0-9-]+:(([0-9]+)|.)");
+    private static final Pattern BLOCK_KEY_VALUE = Pattern.compile("\\b[_.,a-zA-Z0-9-]+:[,_\\/.()a-zA-Z0-9-]+");
+    private static final Pattern HIT_POINTS = Pattern.compile("\\bhit_points:[,_\\/.()a-zA-Z0-9-]+");
+    private static final Pattern FILL =
+        Pattern.compile("\\b((fill:[,_\\/.()a-zA-Z0-9-]+)|(fill-1:[,_\\\\/.()a-zA-Z0-9-]+))");
+    private static final Pattern DEFAULT_KEY_VALUE = Pattern.compile("\\b[_.,a-zA-Z0-9-]+:[,/.()a-zA-Z0-9-]+");
+    private static final Pattern NUMBER = Pattern.compile("[0-9]+");
+
     /**
      * reading a block definitions file
      * and returning a BlocksFromSymbolsFactory object.
@@ -82,8 +91,7 @@ public class BlocksDefinitionReader {
      * @param defaults the defaults map
      */
     private static void addSpacers(String line, Map<String, Integer> spacerWidths, Map<String, String> defaults) {
-        Pattern pattern = Pattern.compile("\\b[_.,a-zA-Z0-9-]+:(([0-9]+)|.)");
-        Matcher matchLine = pattern.matcher(line);
+        Matcher matchLine = SPACER_KEY_VALUE.matcher(line);
 
         String symbol = null;
         int width = 0;
@@ -122,8 +130,7 @@ public class BlocksDefinitionReader {
      */
     private static void addBlockCreator(String line, Map<String, BlockCreator> blockCreators,
                                         Map<String, String> defaults, Map<Integer, FillableForBlock> fillMap) {
-        Pattern pattern = Pattern.compile("\\b[_.,a-zA-Z0-9-]+:[,_\\/.()a-zA-Z0-9-]+");
-        Matcher matchLine = pattern.matcher(line);
+        Matcher matchLine = BLOCK_KEY_VALUE.matcher(line);
         ColorsParser colorParse = new ColorsParser();
         ImageParser imageParse = new ImageParser();
         String symbol = null;
@@ -174,15 +181,13 @@ public class BlocksDefinitionReader {
         String[] keyHitFill = new String[2];
 
         // hit points
-        Pattern patternHit = Pattern.compile("\\bhit_points:[,_\\/.()a-zA-Z0-9-]+");
-        Matcher matchHit = patternHit.matcher(line);
+        Matcher matchHit = HIT_POINTS.matcher(line);
         if (matchHit.find()) {
             keyHitFill = line.substring(matchHit.start(), matchHit.end()).split(":");
             hitPoints = Integer.parseInt(keyHitFill[1]);
         }
         // fill
-        Pattern patternFill = Pattern.compile("\\b((fill:[,_\\/.()a-zA-Z0-9-]+)|(fill-1:[,_\\\\/.()a-zA-Z0-9-]+))");
-        Matcher matchFill = patternFill.matcher(line);
+        Matcher matchFill = FILL.matcher(line);
 
         if (matchFill.find()) {
             keyHitFill = line.substring(matchFill.start(), matchFill.end()).split(":");
@@ -280,8 +285,7 @@ public class BlocksDefinitionReader {
      */
     private static void makeDefultsMap(String line, Map<String, String> defaults,
                                        Map<Integer, FillableForBlock> fillMap) {
-        Pattern pattern = Pattern.compile("\\b[_.,a-zA-Z0-9-]+:[,/.()a-zA-Z0-9-]+");
-        Matcher matchLine = pattern.matcher(line);
+        Matcher matchLine = DEFAULT_KEY_VALUE.matcher(line);
 
         while (matchLine.find()) {
 
@@ -290,8 +294,7 @@ public class BlocksDefinitionReader {
             defaults.put(keyVal[0], keyVal[1]);
 
             if (keyVal[0].contains("fill-")) {
-                Pattern p = Pattern.compile("[0-9]+");
-                Matcher match = p.matcher(keyVal[0]);
+                Matcher match = NUMBER.matcher(keyVal[0]);
                 match.find();
                 int i = Integer.parseInt(keyVal[0].substring(match.start(), match.end()));
                 ColorsParser colorParse = new ColorsParser();
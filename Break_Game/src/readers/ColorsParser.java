@@ -12,6 +12,8 @@ import java.util.regex.Pattern;
  */
 public class ColorsParser {
 
+    private static final Pattern NUMBER = Pattern.compile("[0-9]+");
+
     /**
      * parse color definition and return the specified color.
      *
@@ -25,8 +27,7 @@ public class ColorsParser {
         }
 
         if (s.indexOf("RGB") != -1) {
-            Pattern rgbPattern = Pattern.compile("[0-9]+");
-            Matcher matchColor = rgbPattern.matcher(s);
+            Matcher matchColor = NUMBER.matcher(s);
 
             matchColor.find();
             int r = Integer.parseInt(s.substring(matchColor.start(), matchColor.end()));
@@ -0,0 +1,284 @@
+package readers;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import javax.imageio.ImageIO;
+
+/**
+ * a cache of the images of the resources, by their path.
+ * each image is read once and converted to an image in the format of
+ * the screen, so drawing it doesn't need a conversion.
+ * when the images take more memory than the limit, the images that were
+ * used the longest time ago are removed (images in use are not affected,
+ * they are only read again the next time they are asked for).
+ * an image is read without holding the cache, so reading a big image (like
+ * the prefetch of a level) doesn't block the other users of the cache. a
+ * thread that asks for an image that another thread reads waits for it.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-22
+ */
+public class ImageCache {
+
+    private static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private static final ImageCache SHARED = new ImageCache(DEFAULT_MAX_BYTES);
+
+    private long maxBytes;
+    private long bytes;  // the memory of the images in the cache
+    private Map<String, BufferedImage> images;  // in the order of use, the oldest first
+    private Map<String, FutureTask<BufferedImage>> reading;  // the images that are read now
+
+    // statistics
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * create an empty cache.
+     *
+     * @param maxBytes the most memory of the images in the cache
+     */
+    public ImageCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.bytes = 0;
+        this.images = new LinkedHashMap<String, BufferedImage>(16, 0.75f, true);
+        this.reading = new HashMap<String, FutureTask<BufferedImage>>();
+        this.hits = 0;
+        this.misses = 0;
+        this.evictions = 0;
+    }
+
+    /**
+     * get the cache of the whole program.
+     *
+     * @return the shared cache
+     */
+    public static ImageCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * get the image of a resource path, read it if it is not in the cache.
+     *
+     * @param path the path of the image in the resources
+     * @return the image, or null if the file is not an image
+     */
+    public Image get(String path) {
+        FutureTask<BufferedImage> task;
+        boolean reader = false;  // this thread reads the image
+        synchronized (this) {
+            BufferedImage img = this.images.get(path);
+            if (img != null) {
+                this.hits++;
+                return img;
+            }
+            task = this.reading.get(path);
+            if (task != null) {
+                this.hits++;  // another thread reads it
+            } else {
+                this.misses++;
+                task = new FutureTask<BufferedImage>(new Callable<BufferedImage>() {
+                    @Override
+                    public BufferedImage call() {
+                        return read(path);
+                    }
+                });
+                this.reading.put(path, task);
+                reader = true;
+            }
+        }
+
+        if (!reader) {
+            return waitFor(task);
+        }
+        BufferedImage img = null;
+        try {
+            task.run();
+            img = waitFor(task);
+        } finally {
+            synchronized (this) {
+                this.reading.remove(path);
+                if (img != null && sizeOf(img) <= this.maxBytes) {
+                    this.images.put(path, img);
+                    this.bytes += sizeOf(img);
+                    this.evict();
+                }
+            }
+        }
+        return img;
+    }
+
+    /**
+     * wait for an image that is read.
+     *
+     * @param task the reading of the image
+     * @return the image, or null if the file is not an image
+     */
+    private static BufferedImage waitFor(FutureTask<BufferedImage> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("the loading of the image was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Problem with loading the image", e.getCause());
+        }
+    }
+
+    /**
+     * remove the images that were used the longest time ago,
+     * until the images are in the memory limit.
+     */
+    private void evict() {
+        Iterator<BufferedImage> it = this.images.values().iterator();
+        while (this.bytes > this.maxBytes && it.hasNext()) {
+            this.bytes -= sizeOf(it.next());
+            it.remove();
+            this.evictions++;
+        }
+    }
+
+    /**
+     * remove all the images from the cache.
+     */
+    public synchronized void clear() {
+        this.images.clear();
+        this.bytes = 0;
+    }
+
+    /**
+     * read the image and convert it to the format of the screen.
+     *
+     * @param path the path of the image in the resources
+     * @return the image, or null if the file is not an image
+     */
+    private static BufferedImage read(String path) {
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(path);
+        if (is == null) {
+            throw new RuntimeException("Problem with loading the the image " + path);
+        }
+
+        BufferedImage img;
+        try (InputStream in = is) {
+            img = ImageIO.read(in);
+        } catch (IOException e) {
+            throw new RuntimeException("Problem with loading the the image " + path);
+        }
+        if (img == null) {
+            return null;
+        }
+
+        BufferedImage compatible = createImage(img.getWidth(), img.getHeight(), img.getTransparency());
+        if (compatible.getColorModel().equals(img.getColorModel())) {
+            return img;
+        }
+        Graphics2D g = compatible.createGraphics();
+        g.drawImage(img, 0, 0, null);
+        g.dispose();
+        return compatible;
+    }
+
+    /**
+     * create an image in the format of the screen.
+     * without a screen (headless) the image is in the standard RGB format.
+     *
+     * @param width the width of the image
+     * @param height the height of the image
+     * @param transparency the transparency of the image
+     * @return the new image
+     */
+    private static BufferedImage createImage(int width, int height, int transparency) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                                      .getDefaultConfiguration().createCompatibleImage(width, height, transparency);
+        }
+        if (transparency == Transparency.OPAQUE) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    /**
+     * the memory of the image, by 4 bytes to a pixel.
+     *
+     * @param img the image
+     * @return the memory in bytes
+     */
+    private static long sizeOf(BufferedImage img) {
+        return 4L * img.getWidth() * img.getHeight();
+    }
+
+    /**
+     * get the number of times an image was found in the cache.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * get the number of times an image was read.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * get the number of images that were removed for memory.
+     *
+     * @return the number of evictions
+     */
+    public synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+    /**
+     * get the memory of the images in the cache.
+     *
+     * @return the memory in bytes
+     */
+    public synchronized long getBytes() {
+        return this.bytes;
+    }
+
+    /**
+     * get the number of images in the cache.
+     *
+     * @return the number of images
+     */
+    public synchronized int size() {
+        return this.images.size();
+    }
+
+    /**
+     * the toString,
+     * represent the statistics of the cache.
+     *
+     * @return the statistics as a string
+     */
+    public synchronized String toString() {
+        return "images=" + this.images.size() + " bytes=" + this.bytes + " hits=" + this.hits
+               + " misses=" + this.misses + " evictions=" + this.evictions;
+    }
+}
@@ -2,23 +2,20 @@ package readers;
 
 import java.awt.Image;
 
-import java.io.IOException;
-import java.io.InputStream;
-
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import javax.imageio.ImageIO;
-
 /**
  * parse the Image from the text to a Image.
  *
  * @author Daniel Kaganovich
- * @version 1.0
+ * @version 1.1
  * @since 2018-06-08
  */
 public class ImageParser {
 
+    private static final Pattern PATH = Pattern.compile("[(].*[)]");  // the path inside the brackets
+
     /**
      * parse Image definition and return the specified Image.
      *
@@ -30,21 +27,13 @@ public class ImageParser {
         if (!s.startsWith("image")) {
             return null;
         }
-        Image img = null;
-        String path = "";
-        Pattern rgbPattern = Pattern.compile("[(].*[)]");
-        Matcher matchImg = rgbPattern.matcher(s);
+        Matcher matchImg = PATH.matcher(s);
 
         matchImg.find();
-        path += s.substring(matchImg.start() + 1, matchImg.end() - 1);
-        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(path);
-        try {
-            img = ImageIO.read(is);
-        } catch (IOException e) {
-            throw new RuntimeException("Problem with loading the the image");
-        }
+        String path = s.substring(matchImg.start() + 1, matchImg.end() - 1);
 
-        return img;
+        // the same image is read once and shared
+        return ImageCache.shared().get(path);
     }
 
 }
@@ -0,0 +1,307 @@
+package readers;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import interfaces.FillableForBlock;
+import interfaces.LevelInformation;
+import interfaces.Sprite;
+
+import objects.Block;
+import objects.ColorBackground;
+import objects.FillBlockWithColor;
+import objects.FillBlockWithImg;
+import objects.ImageBackground;
+import objects.LevelSet;
+import objects.Point;
+import objects.Velocity;
+
+/**
+ * a pack of level sets that was written by LevelPackWriter.
+ * the file is mapped to the memory, the level sets are read when the pack
+ * is opened, and each level (and each image) is read when it is needed.
+ * the pack can be read from many threads.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.1
+ * @since 2018-06-24
+ */
+public class LevelPack {
+
+    private ByteBuffer buffer;  // the mapped file, only read through duplicates
+    private int[] imageOffsets;
+    private Image[] images;  // read when needed
+    private byte[] fillKinds;
+    private int[] fillValues;
+    private FillableForBlock[] fills;  // created when needed
+    private List<List<FillableForBlock>> templateFills;  // created when needed
+    private double[] templateWidths;
+    private double[] templateHeights;
+    private int[] templateHits;
+    private int[][] templateFillIndexes;
+    private Color[] templateStrokes;
+    private List<LevelSet> sets;
+    private int[][] setLevels;  // the indexes of the levels of each set
+    private int[] levelOffsets;
+    private int version;
+
+    /**
+     * open a pack file.
+     *
+     * @param file the pack file
+     * @return the pack
+     * @throws IOException if the file can't be read
+     */
+    public static LevelPack open(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            // the mapping stays valid after the file is closed
+            return new LevelPack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * read the header, the fills, the templates and the level sets of the pack.
+     *
+     * @param buffer the content of the pack
+     */
+    private LevelPack(ByteBuffer buffer) {
+        this.buffer = buffer;
+        ByteBuffer in = buffer.duplicate();
+
+        if (in.getInt() != LevelPackWriter.MAGIC) {
+            throw new RuntimeException("this is not a level pack");
+        }
+        this.version = in.getInt();
+        if (this.version < 1 || this.version > LevelPackWriter.VERSION) {
+            throw new RuntimeException("the level pack has another version");
+        }
+        int imageCount = in.getInt();
+        in.getInt();  // the offset of the images is in the image table
+        int fillCount = in.getInt();
+        int fillsAt = in.getInt();
+        int templateCount = in.getInt();
+        int templatesAt = in.getInt();
+        int setCount = in.getInt();
+        int setsAt = in.getInt();
+        int levelCount = in.getInt();
+        in.getInt();  // the offset of the levels is in the level table
+
+        this.imageOffsets = new int[imageCount];
+        in.asIntBuffer().get(this.imageOffsets);
+        in.position(in.position() + 4 * imageCount);
+        this.levelOffsets = new int[levelCount];
+        in.asIntBuffer().get(this.levelOffsets);
+        this.images = new Image[imageCount];
+
+        in.position(fillsAt);
+        this.fillKinds = new byte[fillCount];
+        this.fillValues = new int[fillCount];
+        for (int i = 0; i < fillCount; i++) {
+            this.fillKinds[i] = in.get();
+            this.fillValues[i] = in.getInt();
+        }
+        this.fills = new FillableForBlock[fillCount];
+
+        in.position(templatesAt);
+        this.templateWidths = new double[templateCount];
+        this.templateHeights = new double[templateCount];
+        this.templateHits = new int[templateCount];
+        this.templateFillIndexes = new int[templateCount][];
+        this.templateStrokes = new Color[templateCount];
+        for (int i = 0; i < templateCount; i++) {
+            this.templateWidths[i] = in.getDouble();
+            this.templateHeights[i] = in.getDouble();
+            this.templateHits[i] = in.getInt();
+            this.templateFillIndexes[i] = new int[in.getInt()];
+            for (int j = 0; j < this.templateFillIndexes[i].length; j++) {
+                this.templateFillIndexes[i][j] = in.getInt();
+            }
+            boolean hasStroke = in.get() != 0;
+            int stroke = in.getInt();
+            this.templateStrokes[i] = hasStroke ? new Color(stroke) : null;
+        }
+        this.templateFills = new ArrayList<List<FillableForBlock>>(templateCount);
+        for (int i = 0; i < templateCount; i++) {
+            this.templateFills.add(null);
+        }
+
+        in.position(setsAt);
+        this.sets = new ArrayList<LevelSet>(setCount);
+        this.setLevels = new int[setCount][];
+        for (int i = 0; i < setCount; i++) {
+            String key = readString(in);
+            String name = readString(in);
+            String path = readString(in);
+            this.sets.add(new LevelSet(key, name, path));
+            this.setLevels[i] = new int[in.getInt()];
+            for (int j = 0; j < this.setLevels[i].length; j++) {
+                this.setLevels[i][j] = in.getInt();
+            }
+        }
+    }
+
+    /**
+     * get the level sets of the pack.
+     *
+     * @return the level sets, in the order of the level sets file
+     */
+    public List<LevelSet> getSets() {
+        return this.sets;
+    }
+
+    /**
+     * read the levels of a level set.
+     *
+     * @param setIndex the index of the set in getSets()
+     * @return the levels of the set
+     */
+    public List<LevelInformation> readLevels(int setIndex) {
+        List<LevelInformation> levels = new ArrayList<LevelInformation>(this.setLevels[setIndex].length);
+        for (int level : this.setLevels[setIndex]) {
+            levels.add(this.readLevel(level));
+        }
+        return levels;
+    }
+
+    /**
+     * read a level.
+     *
+     * @param index the index of the level
+     * @return the level
+     */
+    private LevelInformation readLevel(int index) {
+        ByteBuffer in = this.buffer.duplicate();
+        in.position(this.levelOffsets[index]);
+
+        String name = readString(in);
+        int speed = in.getInt();
+        int width = in.getInt();
+        int numBlocks = in.getInt();
+
+        int ballCount = in.getInt();
+        List<Velocity> velocities = new ArrayList<Velocity>(ballCount);
+        for (int i = 0; i < ballCount; i++) {
+            double dx = in.getDouble();
+            velocities.add(new Velocity(dx, in.getDouble()));
+        }
+
+        Sprite background;
+        byte kind = in.get();
+        int value = in.getInt();
+        if (kind == LevelPackWriter.COLOR) {
+            background = new ColorBackground(new Color(value));
+        } else {
+            background = new ImageBackground(this.image(value));
+        }
+
+        int blockCount = in.getInt();
+        int[] templates = new int[blockCount];
+        double[] xs = new double[blockCount];
+        double[] ys = new double[blockCount];
+        in.asIntBuffer().get(templates);
+        in.position(in.position() + 4 * blockCount);
+        in.asDoubleBuffer().get(xs);
+        in.position(in.position() + 8 * blockCount);
+        in.asDoubleBuffer().get(ys);
+        in.position(in.position() + 8 * blockCount);
+        String collisionIndex = "grid";  // a level of version 1 has no collision index
+        if (this.version >= 2) {
+            collisionIndex = readString(in);
+        }
+
+        List<Block> blocks = new ArrayList<Block>(blockCount);
+        for (int i = 0; i < blockCount; i++) {
+            int t = templates[i];
+            blocks.add(new Block(new Point(xs[i], ys[i]), this.templateWidths[t], this.templateHeights[t],
+                                 this.templateHits[t], this.templateFills(t), this.templateStrokes[t]));
+        }
+
+        return LevelSpecificationReader.makeLevel(name, speed, width, numBlocks, background, velocities, blocks,
+                                                  collisionIndex);
+    }
+
+    /**
+     * get the fills of a template, the blocks of the template share them.
+     *
+     * @param t the index of the template
+     * @return the fills
+     */
+    private synchronized List<FillableForBlock> templateFills(int t) {
+        List<FillableForBlock> list = this.templateFills.get(t);
+        if (list == null) {
+            list = new ArrayList<FillableForBlock>(this.templateFillIndexes[t].length);
+            for (int fill : this.templateFillIndexes[t]) {
+                list.add(fill < 0 ? null : this.fill(fill));
+            }
+            this.templateFills.set(t, list);
+        }
+        return list;
+    }
+
+    /**
+     * get a fill.
+     *
+     * @param index the index of the fill
+     * @return the fill
+     */
+    private synchronized FillableForBlock fill(int index) {
+        if (this.fills[index] == null) {
+            if (this.fillKinds[index] == LevelPackWriter.COLOR) {
+                this.fills[index] = new FillBlockWithColor(new Color(this.fillValues[index]));
+            } else {
+                this.fills[index] = new FillBlockWithImg(this.image(this.fillValues[index]));
+            }
+        }
+        return this.fills[index];
+    }
+
+    /**
+     * get an image, its pixels are copied from the pack on the first time.
+     *
+     * @param index the index of the image
+     * @return the image
+     */
+    private synchronized Image image(int index) {
+        if (this.images[index] == null) {
+            ByteBuffer in = this.buffer.duplicate();
+            in.position(this.imageOffsets[index]);
+            int width = in.getInt();
+            int height = in.getInt();
+            boolean opaque = in.get() != 0;
+
+            BufferedImage img = new BufferedImage(width, height,
+                                                  opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+            int[] pixels = ((DataBufferInt) img.getRaster().getDataBuffer()).getData();
+            in.asIntBuffer().get(pixels);
+            this.images[index] = img;
+        }
+        return this.images[index];
+    }
+
+    /**
+     * read a string that was written by DataOutputStream.writeUTF.
+     *
+     * @param in the buffer
+     * @return the string
+     */
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort() & 0xffff];
+        in.get(bytes);
+        // the modified UTF-8 of writeUTF is the same as UTF-8 for the names of the levels
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,362 @@
+package readers;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import interfaces.FillableForBlock;
+import interfaces.LevelInformation;
+import interfaces.Sprite;
+
+import objects.Block;
+import objects.ColorBackground;
+import objects.FillBlockWithColor;
+import objects.FillBlockWithImg;
+import objects.ImageBackground;
+import objects.LevelSet;
+import objects.Rectangle;
+import objects.Velocity;
+
+/**
+ * compile the level sets file, with all its levels, to one binary pack
+ * that LevelPack reads without parsing text.
+ *
+ * the pack is (all numbers big endian):
+ * <pre>
+ * header:    magic, version, and the count and offset of each section
+ * images:    for each image its width, height, opacity and ARGB pixels
+ * fills:     for each fill its kind (color or image) and its value
+ * templates: for each kind of block its width, height, hit points, fills and stroke
+ * sets:      for each level set its key, name, path and the indexes of its levels
+ * levels:    an offset table, then for each level its name, paddle, balls, background,
+ *            its blocks as arrays of template indexes, x values and y values,
+ *            and the name of its collision index (since version 2)
+ * </pre>
+ * equal fills and templates are written once, and so is an image
+ * that is shared by many blocks.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.1
+ * @since 2018-06-24
+ */
+public class LevelPackWriter {
+
+    public static final int MAGIC = 0x424b504b;  // "BKPK"
+    public static final int VERSION = 2;
+
+    // the kinds of fills and backgrounds
+    public static final byte COLOR = 1;
+    public static final byte IMAGE = 2;
+
+    private Map<Image, Integer> images;  // the same image object is written once
+    private List<Image> imageList;
+    private Map<String, Integer> fills;  // by "kind:value"
+    private List<String> fillList;
+    private Map<String, Integer> templates;  // by the values of the template
+    private ByteArrayOutputStream templateBytes;
+    private DataOutputStream templateOut;
+
+    /**
+     * create a writer.
+     */
+    public LevelPackWriter() {
+        this.images = new IdentityHashMap<Image, Integer>();
+        this.imageList = new ArrayList<Image>();
+        this.fills = new HashMap<String, Integer>();
+        this.fillList = new ArrayList<String>();
+        this.templates = new HashMap<String, Integer>();
+        this.templateBytes = new ByteArrayOutputStream();
+        this.templateOut = new DataOutputStream(this.templateBytes);
+    }
+
+    /**
+     * write the level sets and their levels to the pack file.
+     *
+     * @param sets the level sets
+     * @param levels the levels of each set
+     * @param file the pack file
+     * @throws IOException if the file can't be written
+     */
+    public void write(List<LevelSet> sets, List<List<LevelInformation>> levels, File file) throws IOException {
+        // the levels first, they find the images, fills and templates
+        ByteArrayOutputStream levelBytes = new ByteArrayOutputStream();
+        DataOutputStream levelOut = new DataOutputStream(levelBytes);
+        List<Integer> levelOffsets = new ArrayList<Integer>();
+        for (List<LevelInformation> setLevels : levels) {
+            for (LevelInformation level : setLevels) {
+                levelOffsets.add(levelOut.size());
+                this.writeLevel(level, levelOut);
+            }
+        }
+
+        ByteArrayOutputStream setBytes = new ByteArrayOutputStream();
+        DataOutputStream setOut = new DataOutputStream(setBytes);
+        int levelIndex = 0;
+        for (int i = 0; i < sets.size(); i++) {
+            setOut.writeUTF(sets.get(i).getKey());
+            setOut.writeUTF(sets.get(i).getName());
+            setOut.writeUTF(sets.get(i).getPath());
+            setOut.writeInt(levels.get(i).size());
+            for (int j = 0; j < levels.get(i).size(); j++) {
+                setOut.writeInt(levelIndex++);
+            }
+        }
+
+        ByteArrayOutputStream fillBytes = new ByteArrayOutputStream();
+        DataOutputStream fillOut = new DataOutputStream(fillBytes);
+        for (String fill : this.fillList) {
+            String[] kindValue = fill.split(":");
+            fillOut.writeByte(Byte.parseByte(kindValue[0]));
+            fillOut.writeInt(Integer.parseInt(kindValue[1]));
+        }
+
+        ByteArrayOutputStream imageBytes = new ByteArrayOutputStream();
+        DataOutputStream imageOut = new DataOutputStream(imageBytes);
+        List<Integer> imageOffsets = new ArrayList<Integer>();
+        for (Image img : this.imageList) {
+            imageOffsets.add(imageOut.size());
+            writeImage(img, imageOut);
+        }
+
+        int headerSize = 4 * 2 + 5 * 4 * 2 + 4 * imageOffsets.size() + 4 * levelOffsets.size();
+        int imagesAt = headerSize;
+        int fillsAt = imagesAt + imageBytes.size();
+        int templatesAt = fillsAt + fillBytes.size();
+        int setsAt = templatesAt + this.templateBytes.size();
+        int levelsAt = setsAt + setBytes.size();
+
+        DataOutputStream out = new DataOutputStream(new FileOutputStream(file));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(this.imageList.size());
+            out.writeInt(imagesAt);
+            out.writeInt(this.fillList.size());
+            out.writeInt(fillsAt);
+            out.writeInt(this.templates.size());
+            out.writeInt(templatesAt);
+            out.writeInt(sets.size());
+            out.writeInt(setsAt);
+            out.writeInt(levelOffsets.size());
+            out.writeInt(levelsAt);
+            for (int offset : imageOffsets) {
+                out.writeInt(imagesAt + offset);
+            }
+            for (int offset : levelOffsets) {
+                out.writeInt(levelsAt + offset);
+            }
+
+            imageBytes.writeTo(out);
+            fillBytes.writeTo(out);
+            this.templateBytes.writeTo(out);
+            setBytes.writeTo(out);
+            levelBytes.writeTo(out);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * write a level.
+     *
+     * @param level the level
+     * @param out the output
+     * @throws IOException if it can't be written
+     */
+    private void writeLevel(LevelInformation level, DataOutputStream out) throws IOException {
+        out.writeUTF(level.levelName());
+        out.writeInt(level.paddleSpeed());
+        out.writeInt(level.paddleWidth());
+        out.writeInt(level.numberOfBlocksToRemove());
+
+        List<Velocity> velocities = level.initialBallVelocities();
+        out.writeInt(velocities.size());
+        for (Velocity v : velocities) {
+            out.writeDouble(v.getDx());
+            out.writeDouble(v.getDy());
+        }
+
+        Sprite background = level.getBackground();
+        if (background instanceof ColorBackground) {
+            out.writeByte(COLOR);
+            out.writeInt(((ColorBackground) background).getColor().getRGB());
+        } else if (background instanceof ImageBackground) {
+            out.writeByte(IMAGE);
+            out.writeInt(this.imageIndex(((ImageBackground) background).getImage()));
+        } else {
+            throw new RuntimeException("the background of " + level.levelName() + " can't be written to a pack");
+        }
+
+        List<Block> blocks = level.blocks();
+        int[] blockTemplates = new int[blocks.size()];
+        for (int i = 0; i < blocks.size(); i++) {
+            blockTemplates[i] = this.templateIndex(blocks.get(i));
+        }
+        out.writeInt(blocks.size());
+        for (int i = 0; i < blocks.size(); i++) {
+            out.writeInt(blockTemplates[i]);
+        }
+        for (Block b : blocks) {
+            out.writeDouble(b.getCollisionRectangle().getLeft());
+        }
+        for (Block b : blocks) {
+            out.writeDouble(b.getCollisionRectangle().getTop());
+        }
+        out.writeUTF(level.collisionIndex());
+    }
+
+    /**
+     * get the index of the template of the block, add it if it is new.
+     *
+     * @param b the block
+     * @return the index of the template
+     * @throws IOException if it can't be written
+     */
+    private int templateIndex(Block b) throws IOException {
+        Rectangle rec = b.getCollisionRectangle();
+        List<FillableForBlock> blockFills = b.getFills();
+        int[] fillIndexes = new int[blockFills.size()];
+        for (int i = 0; i < blockFills.size(); i++) {
+            fillIndexes[i] = this.fillIndex(blockFills.get(i));
+        }
+        Color stroke = b.getStroke();
+
+        StringBuilder key = new StringBuilder();
+        key.append(rec.getWidth()).append(',').append(rec.getHeight()).append(',').append(b.getHitPoints());
+        for (int fill : fillIndexes) {
+            key.append(',').append(fill);
+        }
+        key.append(',').append(stroke == null ? "none" : Integer.toString(stroke.getRGB()));
+
+        Integer index = this.templates.get(key.toString());
+        if (index != null) {
+            return index;
+        }
+        index = this.templates.size();
+        this.templates.put(key.toString(), index);
+
+        this.templateOut.writeDouble(rec.getWidth());
+        this.templateOut.writeDouble(rec.getHeight());
+        this.templateOut.writeInt(b.getHitPoints());
+        this.templateOut.writeInt(fillIndexes.length);
+        for (int fill : fillIndexes) {
+            this.templateOut.writeInt(fill);
+        }
+        this.templateOut.writeBoolean(stroke != null);
+        this.templateOut.writeInt(stroke == null ? 0 : stroke.getRGB());
+        return index;
+    }
+
+    /**
+     * get the index of the fill, add it if it is new.
+     *
+     * @param fill the fill (may be null)
+     * @return the index of the fill, -1 for null
+     */
+    private int fillIndex(FillableForBlock fill) {
+        String key;
+        if (fill == null) {
+            return -1;
+        } else if (fill instanceof FillBlockWithColor) {
+            key = COLOR + ":" + ((FillBlockWithColor) fill).getColor().getRGB();
+        } else if (fill instanceof FillBlockWithImg) {
+            key = IMAGE + ":" + this.imageIndex(((FillBlockWithImg) fill).getImage());
+        } else {
+            throw new RuntimeException("the fill " + fill + " can't be written to a pack");
+        }
+
+        Integer index = this.fills.get(key);
+        if (index == null) {
+            index = this.fillList.size();
+            this.fills.put(key, index);
+            this.fillList.add(key);
+        }
+        return index;
+    }
+
+    /**
+     * get the index of the image, add it if it is new.
+     *
+     * @param img the image
+     * @return the index of the image
+     */
+    private int imageIndex(Image img) {
+        Integer index = this.images.get(img);
+        if (index == null) {
+            index = this.imageList.size();
+            this.images.put(img, index);
+            this.imageList.add(img);
+        }
+        return index;
+    }
+
+    /**
+     * write the pixels of the image.
+     *
+     * @param img the image
+     * @param out the output
+     * @throws IOException if it can't be written
+     */
+    private static void writeImage(Image img, DataOutputStream out) throws IOException {
+        if (!(img instanceof BufferedImage)) {
+            throw new RuntimeException("only read images can be written to a pack");
+        }
+        BufferedImage buffered = (BufferedImage) img;
+        int width = buffered.getWidth();
+        int height = buffered.getHeight();
+        int[] pixels = buffered.getRGB(0, 0, width, height, null, 0, width);
+
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeBoolean(buffered.getTransparency() == Transparency.OPAQUE);
+        for (int pixel : pixels) {
+            out.writeInt(pixel);
+        }
+    }
+
+    /**
+     * compile a level sets file to a pack.
+     *
+     * @param args the level sets file (in the resources) and the pack file to write
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("usage: LevelPackWriter <level sets file> <pack file>");
+            System.exit(1);
+        }
+
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(args[0]);
+        if (is == null) {
+            System.out.println("Enable to read the file");
+            System.exit(1);
+        }
+
+        List<LevelSet> sets = LevelSetsReader.fromReader(new InputStreamReader(is));
+        List<List<LevelInformation>> levels = new ArrayList<List<LevelInformation>>();
+        for (LevelSet set : sets) {
+            levels.add(LevelSetsReader.readLevels(set));
+        }
+
+        File file = new File(args[1]);
+        try {
+            new LevelPackWriter().write(sets, levels, file);
+        } catch (IOException e) {
+            System.out.println("Problem with writing the pack: " + e.getMessage());
+            System.exit(1);
+        }
+        System.out.println("wrote " + sets.size() + " level sets to " + file + " (" + file.length() + " bytes)");
+    }
+}
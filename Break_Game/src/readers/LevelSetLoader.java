@@ -0,0 +1,96 @@
+package readers;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import interfaces.LevelInformation;
+
+import objects.LevelSet;
+
+/**
+ * load the levels of a level set only when they are needed.
+ * the levels can be prefetched on a background thread, and they are
+ * read only once: asking for them waits for the prefetch, or reads them
+ * if the prefetch didn't start.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-23
+ */
+public class LevelSetLoader {
+
+    private LevelSet set;
+    private FutureTask<List<LevelInformation>> loading;
+    private boolean prefetched;
+
+    /**
+     * create the loader, nothing is read yet.
+     *
+     * @param set the level set
+     */
+    public LevelSetLoader(LevelSet set) {
+        this(set, new Callable<List<LevelInformation>>() {
+            @Override
+            public List<LevelInformation> call() {
+                return LevelSetsReader.readLevels(set);
+            }
+        });
+    }
+
+    /**
+     * create the loader with another way to read the levels, nothing is read yet.
+     *
+     * @param set the level set
+     * @param reading reads the levels of the set
+     */
+    public LevelSetLoader(LevelSet set, Callable<List<LevelInformation>> reading) {
+        this.set = set;
+        this.loading = new FutureTask<List<LevelInformation>>(reading);
+        this.prefetched = false;
+    }
+
+    /**
+     * get the level set.
+     *
+     * @return the level set
+     */
+    public LevelSet getSet() {
+        return this.set;
+    }
+
+    /**
+     * start reading the levels (and their images) on a background thread.
+     * calling it again does nothing.
+     */
+    public synchronized void prefetch() {
+        if (this.prefetched) {
+            return;
+        }
+        this.prefetched = true;
+
+        Thread thread = new Thread(this.loading, "prefetch " + this.set.getName());
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * get the levels of the set, read them if they weren't read yet.
+     *
+     * @return the levels
+     */
+    public List<LevelInformation> getLevels() {
+        // runs the reading here, unless it already runs or ended
+        this.loading.run();
+        try {
+            return this.loading.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("the reading of " + this.set.getName() + " was interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Problem with read the file " + this.set.getPath(), e.getCause());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package readers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import interfaces.LevelInformation;
+
+import objects.LevelSet;
+
+/**
+ * read the level sets file: each set is a line of "key:name"
+ * followed by a line with the path of its level file.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-18
+ */
+public class LevelSetsReader {
+
+    /**
+     * read the level sets.
+     *
+     * @param reader a file reader
+     * @return the level sets, in the order of the file
+     */
+    public static List<LevelSet> fromReader(Reader reader) {
+        BufferedReader buffReader = new BufferedReader(reader);
+        List<LevelSet> sets = new ArrayList<LevelSet>();
+
+        try {
+            String line = buffReader.readLine();
+            while (line != null) {
+                String[] arr = line.split(":");
+
+                if (arr.length < 2 || arr[0].length() != 1) {
+                    throw new RuntimeException("illegal key");
+                }
+
+                String path = buffReader.readLine();
+                if (path == null) {
+                    throw new RuntimeException("there is no level file for " + arr[1]);
+                }
+                sets.add(new LevelSet(arr[0], arr[1], path));
+
+                line = buffReader.readLine();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Problem with reading the level sets");
+        }
+        return sets;
+    }
+
+    /**
+     * read the levels of a level set.
+     *
+     * @param set the level set
+     * @return the levels of the set
+     */
+    public static List<LevelInformation> readLevels(LevelSet set) {
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(set.getPath());
+        if (is == null) {
+            throw new RuntimeException("there is a problem with the path " + set.getPath());
+        }
+        return new LevelSpecificationReader().fromReader(new InputStreamReader(is));
+    }
+}
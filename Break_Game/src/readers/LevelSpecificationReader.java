@@ -12,8 +12,6 @@ import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import biuoop.DrawSurface;
-
 import game.GameLevel;
 
 import interfaces.LevelInformation;
@@ -22,6 +20,9 @@ import interfaces.Sprite;
 import objects.Ball;
 import objects.Block;
 import objects.BlocksFromSymbolsFactory;
+import objects.ColorBackground;
+import objects.GameEnvironment;
+import objects.ImageBackground;
 import objects.Point;
 import objects.Velocity;
 
@@ -34,6 +35,10 @@ import objects.Velocity;
  */
 public class LevelSpecificationReader {
 
+    // the patterns are compiled once, not on every line
+    private static final Pattern KEY_VALUE = Pattern.compile("[_.,a-zA-Z0-9-]+:[\\_ ,/.()a-zA-Z0-9-]+");
+    private static final Pattern VELOCITY = Pattern.compile("[0-9\\.-]+,[0-9\\.-]+");
+
     /**
      * read the levels file and return the levels.
      *
@@ -86,8 +91,9 @@ public class LevelSpecificationReader {
 
         BlocksFromSymbolsFactory blocksLevelFactory = null;
         List<Velocity> ballsVelocity = new ArrayList<Velocity>();
-        List<Block> blockList = new ArrayList<Block>();
+        ArrayList<Block> blockList = new ArrayList<Block>();
         String levelName = null;
+        String collisionIndex = "grid";
         int paddleSpeed = 0;
         int paddleWidth = 0;
         int xStart = 0;
@@ -109,8 +115,7 @@ public class LevelSpecificationReader {
                 }
                 addBlocks(line, buffReader, xStart, yStart, rowHeight, blockList, blocksLevelFactory);
             } else {
-                Pattern pattern = Pattern.compile("[_.,a-zA-Z0-9-]+:[\\_ ,/.()a-zA-Z0-9-]+");
-                Matcher matchLine = pattern.matcher(line);
+                Matcher matchLine = KEY_VALUE.matcher(line);
 
                 matchLine.find();
 
@@ -120,6 +125,10 @@ public class LevelSpecificationReader {
                 if (keyVal[0].equals("level_name")) {
                     levelName = keyVal[1];
 
+                } else if (keyVal[0].equals("collision_index")) {
+                    collisionIndex = keyVal[1].trim();
+                    GameEnvironment.collisionIndex(collisionIndex);  // check the name
+
                 } else if (keyVal[0].equals("paddle_width")) {
                     paddleWidth = Integer.parseInt(keyVal[1]);
 
@@ -146,37 +155,17 @@ public class LevelSpecificationReader {
                     Color fill = colorParse.colorFromString(keyVal[1]);
                     // make the background
                     if (fill == null) {
-                        if (imageParse.imgFromString(keyVal[1]) == null) {
+                        Image imgBackground = imageParse.imgFromString(keyVal[1]);
+                        if (imgBackground == null) {
                             throw new RuntimeException("Problem with read the background");
                         }
-                        Image imgBackground = imageParse.imgFromString(keyVal[1]);
-                        background = new Sprite() {
-                            @Override
-                            public void timePassed(double dt) {
-                                return;
-                            }
-                            @Override
-                            public void drawOn(DrawSurface d) {
-                                d.drawImage(0, 0, imgBackground);
-                            }
-                       };
+                        background = new ImageBackground(imgBackground);
                     } else {
-                        background = new Sprite() {
-                            @Override
-                            public void timePassed(double dt) {
-                                return;
-                            }
-                            @Override
-                            public void drawOn(DrawSurface d) {
-                                d.setColor(fill);
-                                d.fillRectangle(0, 0, 800, 600);
-                            }
-                        };
+                        background = new ColorBackground(fill);
                     }
 
                 } else if (keyVal[0].equals("ball_velocities")) {
-                    Pattern velPattern = Pattern.compile("[0-9\\.-]+,[0-9\\.-]+");
-                    Matcher matchVelocity = velPattern.matcher(keyVal[1]);
+                    Matcher matchVelocity = VELOCITY.matcher(keyVal[1]);
 
                     while (matchVelocity.find()) {
                         String[] velocity = keyVal[1].substring(matchVelocity.start(), matchVelocity.end()).split(",");
@@ -222,7 +211,7 @@ public class LevelSpecificationReader {
         final Integer numBlocks = new Integer(numOfBlocks);
         final Sprite backgroundSpirit = background;
         // build the level
-        return makeLevel(name, speed, width, numBlocks, backgroundSpirit, ballsVelocity, blockList);
+        return makeLevel(name, speed, width, numBlocks, backgroundSpirit, ballsVelocity, blockList, collisionIndex);
     }
 
     /**
@@ -235,10 +224,11 @@ public class LevelSpecificationReader {
      * @param backgroundSpirit the background
      * @param blockList the blocks
      * @param ballsVelocity the velocity of the balls
+     * @param collisionIndex the name of the collision index
      * @return the level from the file.
      */
-    private LevelInformation makeLevel(String name, Integer speed, Integer width, Integer numBlocks,
-        Sprite backgroundSpirit, List<Velocity> ballsVelocity, List<Block> blockList) {
+    static LevelInformation makeLevel(String name, Integer speed, Integer width, Integer numBlocks,
+        Sprite backgroundSpirit, List<Velocity> ballsVelocity, List<Block> blockList, String collisionIndex) {
         return new LevelInformation() {
             @Override
             public int paddleWidth() {
@@ -261,6 +251,10 @@ public class LevelSpecificationReader {
                 return name;
             }
             @Override
+            public String collisionIndex() {
+                return collisionIndex;
+            }
+            @Override
             public List<Velocity> initialBallVelocities() {
                 return ballsVelocity;
             }
@@ -298,19 +292,21 @@ public class LevelSpecificationReader {
      * @param blocksLevelFactory the block factory
      */
     private void addBlocks(String line, BufferedReader buffReader, int xStart, int yStart,
-                           int rowHeight, List<Block> blockList, BlocksFromSymbolsFactory blocksLevelFactory) {
+                           int rowHeight, ArrayList<Block> blockList, BlocksFromSymbolsFactory blocksLevelFactory) {
         int y = yStart;
 
         while (line != null && !line.startsWith("END_BLOCKS")) {
 
             int x = xStart;
+            blockList.ensureCapacity(blockList.size() + line.length());  // at most a block for each char
 
             for (int i = 0; i < line.length(); i++) {
+                char symbol = line.charAt(i);
 
-                if (blocksLevelFactory.isSpaceSymbol("" + line.charAt(i))) {
-                    x += blocksLevelFactory.getSpaceWidth("" + line.charAt(i));
-                } else if (blocksLevelFactory.isBlockSymbol("" + line.charAt(i))) {
-                    Block block = blocksLevelFactory.getBlock("" + line.charAt(i), x, y);
+                if (blocksLevelFactory.isSpaceSymbol(symbol)) {
+                    x += blocksLevelFactory.getSpaceWidth(symbol);
+                } else if (blocksLevelFactory.isBlockSymbol(symbol)) {
+                    Block block = blocksLevelFactory.getBlock(symbol, x, y);
                     blockList.add(block);
                     x += block.getCollisionRectangle().getWidth();
                 }
@@ -0,0 +1,91 @@
+package replay;
+
+import biuoop.KeyboardSensor;
+
+import game.GameLevel;
+
+import interfaces.StepListener;
+
+/**
+ * a keyboard that records the keys of the player for a replay.
+ * the recorded keys are read from the real keyboard once, before each
+ * step, and the level sees these values during the whole step, so the
+ * replay gives the level exactly the same keys.
+ * the other keys (like the pause key) are read from the real keyboard.
+ * every some steps a snapshot of the level is added to the replay, so a
+ * viewer can seek without running the level from its start.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.1
+ * @since 2018-06-28
+ */
+public class InputRecorder implements KeyboardSensor, StepListener {
+
+    private KeyboardSensor keyboard;  // the real keyboard
+    private ReplayWriter writer;
+    private String[] keys;  // the recorded keys
+    private double dt;  // the time of a step, the replay runs only in steps of this time
+    private int bits;  // the keys of the current step
+    private int snapshotSteps;  // the steps between snapshots
+    private GameLevel level;  // the level that is recorded
+
+    /**
+     * create the recorder.
+     *
+     * @param keyboard the real keyboard
+     * @param writer the replay writer
+     * @param keys the recorded keys, the same keys that the writer got
+     * @param stepsPerSecond the simulation steps per second
+     * @param snapshotSteps the steps between the snapshots of a level
+     */
+    public InputRecorder(KeyboardSensor keyboard, ReplayWriter writer, String[] keys, int stepsPerSecond,
+                         int snapshotSteps) {
+        this.keyboard = keyboard;
+        this.writer = writer;
+        this.keys = keys;
+        this.dt = 1.0 / ((double) stepsPerSecond);
+        this.bits = 0;
+        this.snapshotSteps = snapshotSteps;
+        this.level = null;
+    }
+
+    /**
+     * record a level: listen to its steps, and take its snapshots.
+     *
+     * @param gameLevel the level, its keyboard should be this recorder
+     */
+    public void record(GameLevel gameLevel) {
+        this.level = gameLevel;
+        gameLevel.setStepListener(this);
+    }
+
+    @Override
+    public void beforeStep(double stepTime) {
+        if (stepTime != this.dt) {
+            throw new RuntimeException("a replay can't be recorded with a step of " + stepTime + " seconds");
+        }
+
+        long tick = this.writer.getTicks();
+        if (this.level != null && tick > 0 && tick % this.snapshotSteps == 0) {
+            this.writer.addSnapshot(this.level.snapshot(tick));
+        }
+
+        this.bits = 0;
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.keyboard.isPressed(this.keys[i])) {
+                this.bits |= 1 << i;
+            }
+        }
+        this.writer.tick(this.bits);
+    }
+
+    @Override
+    public boolean isPressed(String key) {
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.keys[i].equals(key)) {
+                return (this.bits & (1 << i)) != 0;
+            }
+        }
+        return this.keyboard.isPressed(key);
+    }
+}
@@ -0,0 +1,199 @@
+package replay;
+
+import java.util.List;
+
+import game.LevelSnapshot;
+
+import interfaces.InputSource;
+
+/**
+ * a level of a replay: where it started, the keys of each step,
+ * the outcome that the replay should reach, and the snapshots
+ * that were taken while it was recorded.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-28
+ */
+public class RecordedLevel implements InputSource {
+
+    private String[] keys;
+    private int index;  // the index of the level in the levels file
+    private String name;
+    private int startScore;
+    private int startLives;
+
+    private long[] runStarts;  // the first step of each run
+    private int[] runBits;
+    private int cursor;  // the last run that was read, the steps are read in order
+
+    // the outcome
+    private long ticks;
+    private int score;
+    private int lives;
+    private int remainingBlocks;
+
+    private List<LevelSnapshot> snapshots;  // in the order of their steps
+
+    /**
+     * create a recorded level.
+     *
+     * @param keys the recorded keys
+     * @param index the index of the level in the levels file
+     * @param name the name of the level
+     * @param startScore the score at the start of the level
+     * @param startLives the lives at the start of the level
+     * @param runStarts the first step of each run of keys
+     * @param runBits the bits of the keys of each run
+     * @param outcome the steps, the score, the lives and the remaining blocks at the end
+     * @param snapshots the snapshots of the level, in the order of their steps
+     */
+    public RecordedLevel(String[] keys, int index, String name, int startScore, int startLives,
+                         long[] runStarts, int[] runBits, long[] outcome, List<LevelSnapshot> snapshots) {
+        this.keys = keys;
+        this.index = index;
+        this.name = name;
+        this.startScore = startScore;
+        this.startLives = startLives;
+        this.runStarts = runStarts;
+        this.runBits = runBits;
+        this.cursor = 0;
+        this.ticks = outcome[0];
+        this.score = (int) outcome[1];
+        this.lives = (int) outcome[2];
+        this.remainingBlocks = (int) outcome[3];
+        this.snapshots = snapshots;
+    }
+
+    /**
+     * find the last snapshot that is not after a step.
+     *
+     * @param tick the step
+     * @return the snapshot, or null if there is none before the step
+     */
+    public LevelSnapshot getSnapshotBefore(long tick) {
+        int low = 0;
+        int high = this.snapshots.size();  // the first snapshot after the step
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.snapshots.get(middle).getTick() <= tick) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low == 0 ? null : this.snapshots.get(low - 1);
+    }
+
+    /**
+     * get the snapshots of the level.
+     *
+     * @return the snapshots, in the order of their steps
+     */
+    public List<LevelSnapshot> getSnapshots() {
+        return this.snapshots;
+    }
+
+    /**
+     * get the bits of the keys of a step.
+     *
+     * @param tick the step
+     * @return the bits, 0 after the end of the level
+     */
+    public int getBits(long tick) {
+        if (tick >= this.ticks || this.runStarts.length == 0) {
+            return 0;
+        }
+
+        // usually the same run or the next one
+        if (this.runStarts[this.cursor] > tick) {
+            this.cursor = 0;
+        }
+        while (this.cursor + 1 < this.runStarts.length && this.runStarts[this.cursor + 1] <= tick) {
+            this.cursor++;
+        }
+        return this.runBits[this.cursor];
+    }
+
+    @Override
+    public boolean isPressed(String key, long tick) {
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.keys[i].equals(key)) {
+                return (this.getBits(tick) & (1 << i)) != 0;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * get the index of the level in the levels file.
+     *
+     * @return the index
+     */
+    public int getIndex() {
+        return this.index;
+    }
+
+    /**
+     * get the name of the level.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * get the score at the start of the level.
+     *
+     * @return the score
+     */
+    public int getStartScore() {
+        return this.startScore;
+    }
+
+    /**
+     * get the lives at the start of the level.
+     *
+     * @return the lives
+     */
+    public int getStartLives() {
+        return this.startLives;
+    }
+
+    /**
+     * get the number of steps that the level ran.
+     *
+     * @return the steps
+     */
+    public long getTicks() {
+        return this.ticks;
+    }
+
+    /**
+     * get the score at the end of the level.
+     *
+     * @return the score
+     */
+    public int getScore() {
+        return this.score;
+    }
+
+    /**
+     * get the lives at the end of the level.
+     *
+     * @return the lives
+     */
+    public int getLives() {
+        return this.lives;
+    }
+
+    /**
+     * get the blocks that were left to remove at the end of the level.
+     *
+     * @return the remaining blocks
+     */
+    public int getRemainingBlocks() {
+        return this.remainingBlocks;
+    }
+}
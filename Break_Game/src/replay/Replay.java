@@ -0,0 +1,160 @@
+package replay;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import game.LevelSnapshot;
+
+/**
+ * a replay file that was written by ReplayWriter.
+ * a file of version 1 has no snapshots.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.1
+ * @since 2018-06-28
+ */
+public class Replay {
+
+    private int version;
+    private int stepsPerSecond;
+    private String levelsPath;  // the levels file in the resources
+    private String[] keys;
+    private List<RecordedLevel> levels;
+
+    /**
+     * read a replay file.
+     *
+     * @param file the replay file
+     * @throws IOException if it can't be read, or it is not a replay
+     */
+    public Replay(File file) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            if (in.readInt() != ReplayWriter.MAGIC) {
+                throw new IOException(file + " is not a replay");
+            }
+            this.version = (int) readVarint(in);
+            if (this.version < 1 || this.version > ReplayWriter.VERSION) {
+                throw new IOException(file + " has another version");
+            }
+            this.stepsPerSecond = (int) readVarint(in);
+            this.levelsPath = in.readUTF();
+            this.keys = new String[(int) readVarint(in)];
+            for (int i = 0; i < this.keys.length; i++) {
+                this.keys[i] = in.readUTF();
+            }
+
+            this.levels = new ArrayList<RecordedLevel>();
+            int tag = in.readByte();
+            while (tag == ReplayWriter.LEVEL) {
+                this.levels.add(this.readLevel(in));
+                tag = in.readByte();
+            }
+            if (tag != ReplayWriter.END) {
+                throw new IOException(file + " is damaged");
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * read a level.
+     *
+     * @param in the input, after the LEVEL tag
+     * @return the level
+     * @throws IOException if it can't be read
+     */
+    private RecordedLevel readLevel(DataInputStream in) throws IOException {
+        int index = (int) readVarint(in);
+        String name = in.readUTF();
+        int score = (int) readVarint(in);
+        int lives = (int) readVarint(in);
+
+        List<Long> starts = new ArrayList<Long>();
+        List<Integer> bits = new ArrayList<Integer>();
+        long tick = 0;
+        long length = readVarint(in);
+        while (length > 0) {
+            starts.add(tick);
+            bits.add((int) readVarint(in));
+            tick += length;
+            length = readVarint(in);
+        }
+
+        long[] runStarts = new long[starts.size()];
+        int[] runBits = new int[bits.size()];
+        for (int i = 0; i < runStarts.length; i++) {
+            runStarts[i] = starts.get(i);
+            runBits[i] = bits.get(i);
+        }
+
+        long[] outcome = new long[4];
+        for (int i = 0; i < outcome.length; i++) {
+            outcome[i] = readVarint(in);
+        }
+
+        List<LevelSnapshot> snapshots = new ArrayList<LevelSnapshot>();
+        if (this.version >= 2) {
+            int count = (int) readVarint(in);
+            for (int i = 0; i < count; i++) {
+                long snapshotTick = readVarint(in);
+                byte[] data = new byte[(int) readVarint(in)];
+                in.readFully(data);
+                snapshots.add(new LevelSnapshot(snapshotTick, data));
+            }
+        }
+        return new RecordedLevel(this.keys, index, name, score, lives, runStarts, runBits, outcome, snapshots);
+    }
+
+    /**
+     * read a number that was written by ReplayWriter.writeVarint.
+     *
+     * @param in the input
+     * @return the number
+     * @throws IOException if it can't be read
+     */
+    static long readVarint(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= ((long) (b & 0x7f)) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("a number of the replay is too long");
+    }
+
+    /**
+     * get the simulation steps per second of the replay.
+     *
+     * @return the steps per second
+     */
+    public int getStepsPerSecond() {
+        return this.stepsPerSecond;
+    }
+
+    /**
+     * get the levels file of the game (in the resources).
+     *
+     * @return the path of the levels file
+     */
+    public String getLevelsPath() {
+        return this.levelsPath;
+    }
+
+    /**
+     * get the levels that were played, in the order they were played.
+     *
+     * @return the levels
+     */
+    public List<RecordedLevel> getLevels() {
+        return this.levels;
+    }
+}
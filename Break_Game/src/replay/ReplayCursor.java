@@ -0,0 +1,217 @@
+package replay;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import game.GameLevel;
+import game.LevelSnapshot;
+
+import interfaces.LevelInformation;
+
+import objects.Counter;
+import objects.LevelSet;
+import objects.ScriptedKeyboard;
+
+import readers.LevelSetsReader;
+
+/**
+ * play a level of a replay without a screen, and seek to any step of it.
+ * a seek restores the last snapshot before the step (if it is not behind
+ * the current step) and runs the steps from there, so a viewer doesn't run
+ * the level from its start on each seek.
+ * the level can be drawn by its render method after each step.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-29
+ */
+public class ReplayCursor {
+
+    private LevelInformation levelInfo;
+    private RecordedLevel recorded;
+    private double dt;  // the time of a step
+
+    private GameLevel level;
+    private ScriptedKeyboard keyboard;
+    private Counter score;
+    private Counter lives;
+    private long tick;  // the steps that were run
+    private boolean inTurn;
+
+    /**
+     * create a cursor at the start of a level.
+     *
+     * @param levelInfo the level information of the recorded level
+     * @param recorded the recorded level
+     * @param stepsPerSecond the simulation steps per second of the replay
+     */
+    public ReplayCursor(LevelInformation levelInfo, RecordedLevel recorded, int stepsPerSecond) {
+        this.levelInfo = levelInfo;
+        this.recorded = recorded;
+        this.dt = 1.0 / ((double) stepsPerSecond);
+        this.reset(null);
+    }
+
+    /**
+     * start the level again, from its start or from a snapshot.
+     *
+     * @param snapshot the snapshot, or null for the start of the level
+     */
+    private void reset(LevelSnapshot snapshot) {
+        this.score = new Counter(this.recorded.getStartScore());
+        this.lives = new Counter(this.recorded.getStartLives());
+        this.keyboard = new ScriptedKeyboard(this.recorded);
+        this.level = new GameLevel(this.levelInfo, this.keyboard, null, this.score, this.lives);
+        this.level.initialize();
+        this.tick = 0;
+        this.inTurn = false;
+
+        if (snapshot != null) {
+            this.level.restore(snapshot);
+            this.tick = snapshot.getTick();
+            this.inTurn = !this.level.shouldStop();
+        }
+    }
+
+    /**
+     * run one step, like HeadlessEngine: a turn is started and finished
+     * when it is needed.
+     *
+     * @return false if the level is over (or ran longer than the recording)
+     */
+    public boolean step() {
+        if (this.tick > this.recorded.getTicks()) {
+            return false;
+        }
+        while (true) {
+            if (!this.inTurn) {
+                if (this.level.isOver()) {
+                    return false;
+                }
+                this.level.startTurn();
+                this.inTurn = true;
+            }
+            if (!this.level.shouldStop()) {
+                this.keyboard.setTick(this.tick);
+                this.level.step(this.dt);
+                this.tick++;
+                return true;
+            }
+            this.level.finishTurn();
+            this.inTurn = false;
+        }
+    }
+
+    /**
+     * go to a step of the level (before it runs).
+     *
+     * @param target the step, from 0 to the steps of the recording
+     */
+    public void seek(long target) {
+        // a snapshot of a step is taken after the turn was finished and
+        // started before it, and a seek stops before that, so it starts
+        // from a snapshot of an earlier step
+        LevelSnapshot snapshot = this.recorded.getSnapshotBefore(target - 1);
+        if (target < this.tick) {
+            this.reset(snapshot);
+        } else if (snapshot != null && snapshot.getTick() > this.tick) {
+            this.reset(snapshot);
+        }
+
+        while (this.tick < target && this.step()) {
+            continue;
+        }
+    }
+
+    /**
+     * get the level at the current step.
+     *
+     * @return the level
+     */
+    public GameLevel getLevel() {
+        return this.level;
+    }
+
+    /**
+     * get the steps that were run.
+     *
+     * @return the current step
+     */
+    public long getTick() {
+        return this.tick;
+    }
+
+    /**
+     * get the score at the current step.
+     *
+     * @return the score
+     */
+    public int getScore() {
+        return this.score.getValue();
+    }
+
+    /**
+     * get the lives at the current step.
+     *
+     * @return the lives
+     */
+    public int getLives() {
+        return this.lives.getValue();
+    }
+
+    /**
+     * seek to a time of a level of a replay, and check that the state is
+     * the same as running the level from its start.
+     *
+     * @param args the replay file, the number of the level (from 1),
+     *             and the time in seconds
+     */
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            System.out.println("usage: ReplayCursor <replay file> <level> <seconds>");
+            System.exit(1);
+        }
+
+        Replay replay = null;
+        try {
+            replay = new Replay(new File(args[0]));
+        } catch (IOException e) {
+            System.out.println("Problem with reading the replay: " + e.getMessage());
+            System.exit(1);
+        }
+        int number = Integer.parseInt(args[1]);
+        if (number < 1 || number > replay.getLevels().size()) {
+            System.out.println("the replay has " + replay.getLevels().size() + " levels");
+            System.exit(1);
+        }
+        RecordedLevel recorded = replay.getLevels().get(number - 1);
+        long target = Math.round(Double.parseDouble(args[2]) * replay.getStepsPerSecond());
+
+        List<LevelInformation> levels = LevelSetsReader.readLevels(new LevelSet("", "", replay.getLevelsPath()));
+        LevelInformation levelInfo = levels.get(recorded.getIndex());
+
+        long start = System.nanoTime();
+        ReplayCursor cursor = new ReplayCursor(levelInfo, recorded, replay.getStepsPerSecond());
+        cursor.seek(target);
+        long seekTime = System.nanoTime() - start;
+
+        // the same level, run from its start
+        start = System.nanoTime();
+        ReplayCursor full = new ReplayCursor(levelInfo, recorded, replay.getStepsPerSecond());
+        while (full.getTick() < target && full.step()) {
+            continue;
+        }
+        long fullTime = System.nanoTime() - start;
+
+        boolean same = cursor.getTick() == full.getTick()
+                       && Arrays.equals(cursor.getLevel().snapshot(0).getData(), full.getLevel().snapshot(0).getData());
+        System.out.println(recorded.getName() + ": step=" + cursor.getTick() + " score=" + cursor.getScore()
+                           + " lives=" + cursor.getLives()
+                           + " remainingBlocks=" + cursor.getLevel().getRemainingBlocks()
+                           + " seek=" + (seekTime / 1000) + "us fromStart=" + (fullTime / 1000) + "us"
+                           + (same ? " (same)" : " (DIFFERENT)"));
+        System.exit(same ? 0 : 1);
+    }
+}
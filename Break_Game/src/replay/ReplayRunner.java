@@ -0,0 +1,84 @@
+package replay;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import game.HeadlessEngine;
+import game.SimulationResult;
+
+import interfaces.LevelInformation;
+
+import objects.LevelSet;
+
+import readers.LevelSetsReader;
+
+/**
+ * run a replay without a screen, as fast as possible, and check that
+ * each level reaches the same outcome as when it was recorded.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.0
+ * @since 2018-06-28
+ */
+public class ReplayRunner {
+
+    /**
+     * run the levels of a replay.
+     *
+     * @param replay the replay
+     * @return true if every level reached its recorded outcome
+     */
+    public static boolean check(Replay replay) {
+        List<LevelInformation> levels = LevelSetsReader.readLevels(new LevelSet("", "", replay.getLevelsPath()));
+
+        boolean same = true;
+        for (RecordedLevel recorded : replay.getLevels()) {
+            if (recorded.getIndex() >= levels.size()
+                || !levels.get(recorded.getIndex()).levelName().equals(recorded.getName())) {
+                throw new RuntimeException("the level " + recorded.getName() + " is not in " + replay.getLevelsPath());
+            }
+            LevelInformation levelInfo = levels.get(recorded.getIndex());
+
+            // one more step than the recording, to see a level that runs longer
+            HeadlessEngine engine = new HeadlessEngine(replay.getStepsPerSecond(), recorded.getTicks() + 1);
+            SimulationResult result = engine.run(levelInfo, recorded, recorded.getStartLives(),
+                                                 recorded.getStartScore());
+
+            int remaining = levelInfo.numberOfBlocksToRemove() - result.getBlocksRemoved();
+            boolean levelSame = result.getSteps() == recorded.getTicks()
+                                && result.getFinalScore() == recorded.getScore()
+                                && Math.max(0, result.getLivesLeft()) == recorded.getLives()
+                                && Math.max(0, remaining) == recorded.getRemainingBlocks();
+            same = same && levelSame;
+
+            System.out.println(result + (levelSame ? " (same)" : " (DIFFERENT: recorded steps=" + recorded.getTicks()
+                               + " score=" + recorded.getScore() + " lives=" + recorded.getLives()
+                               + " remainingBlocks=" + recorded.getRemainingBlocks() + ")"));
+        }
+        return same;
+    }
+
+    /**
+     * check replay files.
+     *
+     * @param args the replay files
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("usage: ReplayRunner <replay file>...");
+            System.exit(1);
+        }
+
+        boolean same = true;
+        for (String path : args) {
+            try {
+                same = check(new Replay(new File(path))) && same;
+            } catch (IOException e) {
+                System.out.println("Problem with reading the replay: " + e.getMessage());
+                System.exit(1);
+            }
+        }
+        System.exit(same ? 0 : 1);
+    }
+}
@@ -0,0 +1,208 @@
+package replay;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import game.LevelSnapshot;
+
+/**
+ * write the keys of a game, step by step, to a replay file.
+ *
+ * the file is (the numbers are varints, the strings are UTF):
+ * <pre>
+ * header: magic, version, steps per second, the levels file, the recorded keys
+ * levels: for each level that was played: a LEVEL tag, its index and name,
+ *         the score and the lives at its start, the runs of the key bits
+ *         (the length of the run and the bits, ended by a run of 0),
+ *         the outcome: the steps, the score, the lives and the remaining blocks,
+ *         and the snapshots of the level: their number, and for each one its
+ *         step, its length and its bytes (since version 2)
+ * end:    an END tag
+ * </pre>
+ * bit i of the bits of a step is set if the key i is pressed.
+ *
+ * @author Daniel Kaganovich
+ * @version 1.1
+ * @since 2018-06-28
+ */
+public class ReplayWriter {
+
+    public static final int MAGIC = 0x424b5250;  // "BKRP"
+    public static final int VERSION = 2;
+
+    public static final int END = 0;
+    public static final int LEVEL = 1;
+
+    private DataOutputStream out;
+
+    // the level that is recorded
+    private int levelIndex;
+    private String levelName;
+    private int startScore;
+    private int startLives;
+    private long ticks;
+    private int[] runLengths;
+    private int[] runBits;
+    private int runs;
+    private List<LevelSnapshot> snapshots;  // in the order of their steps
+
+    /**
+     * create the replay file and write its header.
+     *
+     * @param file the replay file
+     * @param stepsPerSecond the simulation steps per second
+     * @param levelsPath the levels file of the game (in the resources)
+     * @param keys the recorded keys
+     * @throws IOException if the file can't be written
+     */
+    public ReplayWriter(File file, int stepsPerSecond, String levelsPath, String[] keys) throws IOException {
+        if (keys.length > 31) {
+            throw new RuntimeException("too many keys to record");
+        }
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        this.out.writeInt(MAGIC);
+        writeVarint(this.out, VERSION);
+        writeVarint(this.out, stepsPerSecond);
+        this.out.writeUTF(levelsPath);
+        writeVarint(this.out, keys.length);
+        for (String key : keys) {
+            this.out.writeUTF(key);
+        }
+        this.runLengths = new int[64];
+        this.runBits = new int[64];
+        this.snapshots = new ArrayList<LevelSnapshot>();
+    }
+
+    /**
+     * start recording a level.
+     *
+     * @param index the index of the level in the levels file
+     * @param name the name of the level
+     * @param score the score at the start of the level
+     * @param lives the lives at the start of the level
+     */
+    public void beginLevel(int index, String name, int score, int lives) {
+        this.levelIndex = index;
+        this.levelName = name;
+        this.startScore = score;
+        this.startLives = lives;
+        this.ticks = 0;
+        this.runs = 0;
+        this.snapshots.clear();
+    }
+
+    /**
+     * get the number of steps that were recorded in the level.
+     *
+     * @return the steps
+     */
+    public long getTicks() {
+        return this.ticks;
+    }
+
+    /**
+     * add a snapshot of the level, so a viewer can start from it
+     * instead of running the level from its start.
+     *
+     * @param snapshot the snapshot, of a step after the last snapshot
+     */
+    public void addSnapshot(LevelSnapshot snapshot) {
+        this.snapshots.add(snapshot);
+    }
+
+    /**
+     * record the keys of a step.
+     *
+     * @param bits the bits of the pressed keys
+     */
+    public void tick(int bits) {
+        this.ticks++;
+        int last = this.runs - 1;
+        if (last >= 0 && this.runBits[last] == bits && this.runLengths[last] < Integer.MAX_VALUE) {
+            this.runLengths[last]++;
+            return;
+        }
+
+        if (this.runs == this.runLengths.length) {
+            this.runLengths = Arrays.copyOf(this.runLengths, this.runs * 2);
+            this.runBits = Arrays.copyOf(this.runBits, this.runs * 2);
+        }
+        this.runLengths[this.runs] = 1;
+        this.runBits[this.runs] = bits;
+        this.runs++;
+    }
+
+    /**
+     * write the level that was recorded, with its outcome.
+     *
+     * @param score the score at the end of the level
+     * @param lives the lives at the end of the level
+     * @param remainingBlocks the blocks that were left to remove
+     * @throws IOException if it can't be written
+     */
+    public void endLevel(int score, int lives, int remainingBlocks) throws IOException {
+        this.out.writeByte(LEVEL);
+        writeVarint(this.out, this.levelIndex);
+        this.out.writeUTF(this.levelName);
+        writeVarint(this.out, this.startScore);
+        writeVarint(this.out, this.startLives);
+
+        for (int i = 0; i < this.runs; i++) {
+            writeVarint(this.out, this.runLengths[i]);
+            writeVarint(this.out, this.runBits[i]);
+        }
+        writeVarint(this.out, 0);
+
+        writeVarint(this.out, this.ticks);
+        writeVarint(this.out, score);
+        writeVarint(this.out, Math.max(0, lives));
+        writeVarint(this.out, Math.max(0, remainingBlocks));
+
+        writeVarint(this.out, this.snapshots.size());
+        for (LevelSnapshot snapshot : this.snapshots) {
+            writeVarint(this.out, snapshot.getTick());
+            writeVarint(this.out, snapshot.getData().length);
+            this.out.write(snapshot.getData());
+        }
+        this.snapshots.clear();
+        this.out.flush();
+    }
+
+    /**
+     * end the replay and close the file.
+     *
+     * @throws IOException if it can't be written
+     */
+    public void close() throws IOException {
+        try {
+            this.out.writeByte(END);
+        } finally {
+            this.out.close();
+        }
+    }
+
+    /**
+     * write a number that is not negative in 7 bit groups, the lowest first.
+     * the high bit of a byte is set if more bytes follow.
+     *
+     * @param out the output
+     * @param value the number
+     * @throws IOException if it can't be written
+     */
+    static void writeVarint(DataOutputStream out, long value) throws IOException {
+        if (value < 0) {
+            throw new RuntimeException("a negative number can't be written to a replay: " + value);
+        }
+        while (value >= 0x80) {
+            out.writeByte((int) (value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
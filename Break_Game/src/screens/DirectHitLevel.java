@@ -10,6 +10,7 @@ import game.GameLevel;
 
 import interfaces.LevelInformation;
 import interfaces.Sprite;
+import interfaces.StaticSprite;
 
 import objects.Ball;
 import objects.Block;
@@ -24,7 +25,7 @@ import objects.Velocity;
  * @version 1.0
  * @since 2018-05-19
  */
-public class DirectHitLevel implements LevelInformation, Sprite {
+public class DirectHitLevel implements LevelInformation, StaticSprite {
 
     private Screen screen;
 
@@ -92,6 +93,11 @@ public class DirectHitLevel implements LevelInformation, Sprite {
         return 1;
     }
 
+    @Override
+    public String collisionIndex() {
+        return "bvh";
+    }
+
     @Override
     public void drawOn(DrawSurface d) {
         screen.drawOn(d);
@@ -6,6 +6,7 @@ import java.util.List;
 
 import interfaces.LevelInformation;
 import interfaces.Sprite;
+import interfaces.StaticSprite;
 
 import biuoop.DrawSurface;
 import game.GameLevel;
@@ -23,7 +24,7 @@ import objects.Velocity;
  * @version 1.0
  * @since 2018-05-20
  */
-public class FinalFourLevel implements LevelInformation, Sprite {
+public class FinalFourLevel implements LevelInformation, StaticSprite {
 
     private Screen screen;
     private List<Color> colorArray;  // the colors of the lines
@@ -150,6 +151,11 @@ public class FinalFourLevel implements LevelInformation, Sprite {
         return 105;
     }
 
+    @Override
+    public String collisionIndex() {
+        return "grid";
+    }
+
     @Override
     public void drawOn(DrawSurface d) {
         screen.drawOn(d);
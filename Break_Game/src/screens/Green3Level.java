@@ -6,6 +6,7 @@ import java.util.List;
 
 import interfaces.LevelInformation;
 import interfaces.Sprite;
+import interfaces.StaticSprite;
 
 import biuoop.DrawSurface;
 
@@ -25,7 +26,7 @@ import objects.Velocity;
  * @version 1.0
  * @since 2018-05-20
  */
-public class Green3Level implements LevelInformation, Sprite {
+public class Green3Level implements LevelInformation, StaticSprite {
 
     private Screen screen;
     private List<Color> colorArray;  // the colors of the lines
@@ -149,6 +150,11 @@ public class Green3Level implements LevelInformation, Sprite {
         return this.blocks().size();
     }
 
+    @Override
+    public String collisionIndex() {
+        return "grid";
+    }
+
     @Override
     public void drawOn(DrawSurface d) {
         screen.drawOn(d);
@@ -1,18 +1,23 @@
 package screens;
 
 import java.awt.Color;
+import java.util.List;
 
 import biuoop.DrawSurface;
+import biuoop.KeyboardSensor;
 
 import interfaces.Animation;
 
 import objects.HighScoresTable;
+import objects.ScoreInfo;
 
 /**
  * Graphical representation of the scores.
+ * the scores are shown a page at a time, the left and right keys
+ * move between the pages.
  *
  * @author Daniel Kaganovich
- * @version 1.0
+ * @version 1.1
  * @since 2018-06-06
  */
 public class HighScoresAnimation implements Animation {
@@ -21,26 +26,92 @@ public class HighScoresAnimation implements Animation {
     private String endKey;
     private boolean stop;
 
+    private String title;  // the name of the board, or null
+    private KeyboardSensor keyboard;  // null to show only the first page
+    private int page;
+    private List<ScoreInfo> shown;  // the scores of the page
+    private boolean isAlreadyPressed;  // a key that moves between the pages is still pressed
+
     /**
-     * the constructor.
+     * the constructor, only the first page is shown.
      *
      * @param scores the score table
      * @param endKey the key to continue
      */
     public HighScoresAnimation(HighScoresTable scores, String endKey) {
+        this(scores, endKey, null);
+    }
+
+    /**
+     * the constructor.
+     *
+     * @param scores the score table
+     * @param endKey the key to continue
+     * @param keyboard the user's keyboard, to move between the pages
+     */
+    public HighScoresAnimation(HighScoresTable scores, String endKey, KeyboardSensor keyboard) {
+        this(scores, endKey, keyboard, null);
+    }
+
+    /**
+     * the constructor of a named table.
+     *
+     * @param scores the score table
+     * @param endKey the key to continue
+     * @param keyboard the user's keyboard, to move between the pages
+     * @param title the name of the table (a level set or a level)
+     */
+    public HighScoresAnimation(HighScoresTable scores, String endKey, KeyboardSensor keyboard, String title) {
         this.scores = scores;
+        this.title = title;
         this.endKey = endKey;
         this.stop = false;
+        this.keyboard = keyboard;
+        this.page = 0;
+        this.shown = scores.getPage(0);
+        this.isAlreadyPressed = true;
+    }
+
+    /**
+     * move to the next or the previous page, once for each press.
+     */
+    private void turnPage() {
+        boolean left = this.keyboard.isPressed(KeyboardSensor.LEFT_KEY);
+        boolean right = this.keyboard.isPressed(KeyboardSensor.RIGHT_KEY);
+
+        if (!left && !right) {
+            this.isAlreadyPressed = false;
+            return;
+        }
+        if (this.isAlreadyPressed) {
+            return;
+        }
+        this.isAlreadyPressed = true;
+
+        int pages = Math.max(1, (this.scores.count() + this.scores.size() - 1) / this.scores.size());
+        if (left && this.page > 0) {
+            this.page--;
+        } else if (right && this.page + 1 < pages) {
+            this.page++;
+        }
+        this.shown = this.scores.getPage(this.page);
     }
 
     @Override
     public void doOneFrame(DrawSurface d, double dt) {
 
+        if (this.keyboard != null) {
+            this.turnPage();
+        }
+
         d.setColor(Color.LIGHT_GRAY);
         d.fillRectangle(0, 0, 800, 800);
 
         d.setColor(Color.YELLOW.darker());
         d.drawText(d.getWidth() / 2 - 175, 50, "See The High Scores", 40);
+        if (this.title != null) {
+            d.drawText(d.getWidth() / 2 - 175, 100, this.title, 30);
+        }
 
         d.setColor(Color.BLACK);
         d.drawLine(d.getWidth() / 2, d.getHeight() / 2 - 100, d.getWidth() / 2, d.getHeight() / 2 + 150);
@@ -52,15 +123,22 @@ public class HighScoresAnimation implements Animation {
 
         int y = d.getHeight() / 2 + 10;
 
-        for (int i = 0; i < this.scores.getHighScores().size(); i++) {
+        for (int i = 0; i < this.shown.size(); i++) {
 
             d.setColor(Color.ORANGE.darker());
-            d.drawText(d.getWidth() / 2 - 150, y, this.scores.getHighScores().get(i).getName(), 25);
-            d.drawText(d.getWidth() / 2 + 50, y, "" + this.scores.getHighScores().get(i).getScore(), 25);
+            d.drawText(d.getWidth() / 2 - 150, y, this.shown.get(i).getName(), 25);
+            d.drawText(d.getWidth() / 2 + 50, y, "" + this.shown.get(i).getScore(), 25);
 
             y += 25;
         }
 
+        if (this.keyboard != null && this.scores.count() > this.scores.size()) {
+            int first = this.page * this.scores.size() + 1;
+            d.setColor(Color.BLACK);
+            d.drawText(d.getWidth() / 2 - 200, d.getHeight() - 100, "ranks " + first + "-"
+                       + (first + this.shown.size() - 1) + " of " + this.scores.count() + " (left / right)", 20);
+        }
+
         d.setColor(Color.BLACK);
         d.drawText(d.getWidth() / 2 - 200, d.getHeight() - 50, "press " + endKey + " to back go to menu", 30);
 
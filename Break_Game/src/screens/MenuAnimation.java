@@ -9,6 +9,7 @@ import biuoop.DrawSurface;
 import biuoop.KeyboardSensor;
 
 import interfaces.Menu;
+import interfaces.Task;
 
 import objects.AnimationRunner;
 import objects.Operation;
@@ -32,6 +33,8 @@ public class MenuAnimation<T> implements Menu<T> {
     private boolean stop;
     private AnimationRunner animationRunner;
     private Menu<T> runMenu;
+    private Task<Void> onShow;  // runs when the menu is shown
+    private boolean shown;
 
     /**
      * the constructor create new menu.
@@ -48,11 +51,20 @@ public class MenuAnimation<T> implements Menu<T> {
         this.menuList = new ArrayList<Operation<Menu<T>>>();
         this.animationRunner = null;
         this.runMenu = null;
+        this.onShow = null;
+        this.shown = false;
     }
 
     @Override
     public void doOneFrame(DrawSurface d, double dt) {
 
+        if (!this.shown) {
+            this.shown = true;
+            if (this.onShow != null) {
+                this.onShow.run();
+            }
+        }
+
         d.setColor(Color.LIGHT_GRAY);
         d.fillRectangle(0, 0, 800, 800);
 
@@ -102,6 +114,7 @@ public class MenuAnimation<T> implements Menu<T> {
     public boolean shouldStop() {
         if (this.stop) {
             this.stop = false;
+            this.shown = false;
             return true;
         }
         return false;
@@ -135,6 +148,16 @@ public class MenuAnimation<T> implements Menu<T> {
         this.menuList.add(new Operation<Menu<T>>(message, key, subMenu));
     }
 
+    /**
+     * set a task to run each time the menu is shown,
+     * before the player selects an option.
+     *
+     * @param task the task
+     */
+    public void setOnShow(Task<Void> task) {
+        this.onShow = task;
+    }
+
     /**
      * set a animation runner for the menu.
      *
@@ -10,6 +10,7 @@ import game.GameLevel;
 
 import interfaces.LevelInformation;
 import interfaces.Sprite;
+import interfaces.StaticSprite;
 
 import objects.Ball;
 import objects.Block;
@@ -24,7 +25,7 @@ import objects.Velocity;
  * @version 1.0
  * @since 2018-05-19
  */
-public class WideEasyLevel implements LevelInformation, Sprite {
+public class WideEasyLevel implements LevelInformation, StaticSprite {
 
     private Screen screen;
 
@@ -157,6 +158,11 @@ public class WideEasyLevel implements LevelInformation, Sprite {
         return this.blocks().size();
     }
 
+    @Override
+    public String collisionIndex() {
+        return "grid";
+    }
+
     @Override
     public void drawOn(DrawSurface d) {
         screen.drawOn(d);